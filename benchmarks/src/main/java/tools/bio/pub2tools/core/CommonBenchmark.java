@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.edamontology.edammap.core.input.json.DocumentationType;
+import org.edamontology.edammap.core.input.json.DownloadType;
+import org.edamontology.edammap.core.input.json.LinkType;
+
+// Common.trimUrl and Common.makeBiotoolsLinks on the bundled links, Common.isAcronym on the bundled acronyms and phrases
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommonBenchmark {
+
+	private List<String> links;
+
+	private List<String> acronyms;
+	private List<String> phrases;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		links = Fixtures.get("links.txt");
+		acronyms = new ArrayList<>();
+		phrases = new ArrayList<>();
+		for (String line : Fixtures.get("acronyms.tsv")) {
+			String[] columns = line.split("\t");
+			acronyms.add(columns[0]);
+			phrases.add(columns[1]);
+		}
+	}
+
+	@Benchmark
+	public void trimUrl(Blackhole blackhole) {
+		for (String link : links) {
+			blackhole.consume(Common.trimUrl(link));
+		}
+	}
+
+	@Benchmark
+	public void makeBiotoolsLinks(Blackhole blackhole) {
+		List<BiotoolsLink<LinkType>> linkLinks = new ArrayList<>();
+		List<BiotoolsLink<DownloadType>> downloadLinks = new ArrayList<>();
+		List<BiotoolsLink<DocumentationType>> documentationLinks = new ArrayList<>();
+		Common.makeBiotoolsLinks(links, linkLinks, downloadLinks, documentationLinks);
+		blackhole.consume(linkLinks);
+		blackhole.consume(downloadLinks);
+		blackhole.consume(documentationLinks);
+	}
+
+	// every acronym against every phrase, so that both matches and non-matches are measured
+	@Benchmark
+	public void isAcronym(Blackhole blackhole) {
+		for (String acronym : acronyms) {
+			for (String phrase : phrases) {
+				blackhole.consume(Common.isAcronym(acronym, phrase, false));
+				blackhole.consume(Common.isAcronym(acronym, phrase, true));
+			}
+		}
+	}
+}
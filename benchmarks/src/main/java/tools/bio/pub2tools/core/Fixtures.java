@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.edamontology.pubfetcher.core.common.PubFetcher;
+import org.edamontology.pubfetcher.core.db.publication.Publication;
+import org.edamontology.pubfetcher.core.db.publication.PublicationPartType;
+
+import org.edamontology.edammap.core.preprocessing.PreProcessor;
+
+// fixed inputs of the benchmarks, bundled as resources so that no network or database is needed
+final class Fixtures {
+
+	private Fixtures() {}
+
+	static List<String> get(String resource) throws IOException {
+		return PubFetcher.getResource(Fixtures.class, "benchmarks/" + resource);
+	}
+
+	// publications.tsv has columns PMID, DOI, title and abstract
+	static List<Publication> publications() throws IOException {
+		List<Publication> publications = new ArrayList<>();
+		for (String line : get("publications.tsv")) {
+			String[] columns = line.split("\t");
+			Publication publication = new Publication();
+			publication.setPmid(columns[0], PublicationPartType.pubmed_xml, "", null);
+			publication.setDoi(columns[1], PublicationPartType.pubmed_xml, "", null);
+			publication.setTitle(columns[2], PublicationPartType.pubmed_xml, "", null, false);
+			publication.setAbstract(columns[3], PublicationPartType.pubmed_xml, "", null, false);
+			publications.add(publication);
+		}
+		return publications;
+	}
+
+	// IDF of the processed title and abstract words of publications, written in the format read by Idf
+	static Path idf(List<Publication> publications, PreProcessor preProcessor, Path outputPath) throws IOException {
+		Map<String, Integer> counts = new HashMap<>();
+		for (Publication publication : publications) {
+			Set<String> terms = new HashSet<>();
+			terms.addAll(preProcessor.process(publication.getTitle().getContent()));
+			terms.addAll(preProcessor.process(publication.getAbstract().getContent()));
+			for (String term : terms) {
+				counts.merge(term, 1, Integer::sum);
+			}
+		}
+		Path idfPath = outputPath.resolve(Common.IDF_FILE);
+		try (BufferedWriter writer = Files.newBufferedWriter(idfPath, StandardCharsets.UTF_8)) {
+			for (Map.Entry<String, Integer> count : counts.entrySet()) {
+				double idf = Math.log((publications.size() + 1) / (double) count.getValue()) / Math.log(publications.size() + 1);
+				writer.write(count.getKey() + "\t" + count.getValue() + "\t" + idf + "\n");
+			}
+		}
+		return idfPath;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.edamontology.pubfetcher.core.common.PubFetcher;
+
+import tools.bio.pub2tools.core.Language.LanguageSearch;
+
+// LanguageSearch.getMatches of the bundled phrases against all languages of pass2/language.txt, and LanguageIndex.getMatches as done in Pass2.run
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LanguageBenchmark {
+
+	private List<Language> languages;
+
+	private List<String> languageKeywords;
+
+	private LanguageIndex languageIndex;
+
+	private List<String> searches;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		languages = PubFetcher.getResource(Pass2.class, "pass2/language.txt").stream().map(l -> new Language(l)).collect(Collectors.toList());
+		languageKeywords = PubFetcher.getResource(Pass2.class, "pass2/language_keywords.txt");
+		languageIndex = new LanguageIndex(languages, languageKeywords);
+		searches = Fixtures.get("languages.txt");
+	}
+
+	@Benchmark
+	public void getMatches(Blackhole blackhole) {
+		for (String search : searches) {
+			blackhole.consume(new LanguageSearch(search).getMatches(languages, false, languageKeywords));
+			blackhole.consume(new LanguageSearch(search).getMatches(languages, true, languageKeywords));
+		}
+	}
+
+	@Benchmark
+	public void getMatchesIndex(Blackhole blackhole) {
+		for (String search : searches) {
+			blackhole.consume(languageIndex.getMatches(search, false));
+			blackhole.consume(languageIndex.getMatches(search, true));
+		}
+	}
+}
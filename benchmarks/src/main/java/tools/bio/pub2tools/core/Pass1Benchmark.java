@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.edamontology.pubfetcher.core.db.publication.Publication;
+
+import org.edamontology.edammap.core.idf.Idf;
+import org.edamontology.edammap.core.preprocessing.PreProcessor;
+import org.edamontology.edammap.core.preprocessing.PreProcessorArgs;
+
+// Pass1 on the bundled publications, mostly measuring the making of results (Pass1.makeResult) for each publication
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Pass1Benchmark {
+
+	private Path outputPath;
+
+	private PreProcessor preProcessor;
+
+	private Idf idf;
+
+	private List<Publication> publications;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		outputPath = Files.createTempDirectory("pub2tools-benchmarks");
+		// the same args as the CLI uses for pass1
+		PreProcessorArgs preProcessorArgs = new PreProcessorArgs();
+		preProcessorArgs.setStemming(false);
+		preProcessor = new PreProcessor(preProcessorArgs);
+		publications = Fixtures.publications();
+		idf = new Idf(Fixtures.idf(publications, preProcessor, outputPath).toString());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(outputPath)) {
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	@Benchmark
+	public void pass1() throws IOException {
+		Pass1.run(outputPath, preProcessor, "", idf, publications, null, null);
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.edamontology.edammap.core.input.json.Publication;
+import org.edamontology.edammap.core.input.json.Tool;
+import org.edamontology.edammap.core.preprocessing.PreProcessor;
+import org.edamontology.edammap.core.preprocessing.PreProcessorArgs;
+
+// phase of Pass2.run finding existing bio.tools entries (Pass2.findExisting), against a synthetic bio.tools of 30000 entries
+// half of the results are made from existing entries (so have matches), the other half are new names, links and IDs
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Pass2MatchBenchmark {
+
+	private static final int BIOTOOLS_SIZE = 30000;
+	private static final int RESULTS_SIZE = 2000;
+
+	private static final String[] SYLLABLES = { "bio", "gen", "seq", "prot", "meta", "map", "net", "clust", "align", "var", "phylo", "omics", "fold", "dock", "path", "chem", "cell", "tax", "read", "tree" };
+	private static final String[] HOSTS = { "github.com/", "www.bioconductor.org/packages/", "sourceforge.net/projects/", "bitbucket.org/", "", "www.ebi.ac.uk/tools/", "pypi.org/project/" };
+
+	private PreProcessor preProcessor;
+
+	private List<Tool> biotools;
+
+	private BiotoolsIndex biotoolsIndex;
+
+	private final List<Result1> results1 = new ArrayList<>();
+
+	// findExisting adds the matches to the results, so these are made anew for each invocation
+	private List<Result2> results;
+
+	private static String name(Random random) {
+		StringBuilder name = new StringBuilder();
+		int syllables = 2 + random.nextInt(3);
+		for (int i = 0; i < syllables; ++i) {
+			String syllable = SYLLABLES[random.nextInt(SYLLABLES.length)];
+			if (i == 0 || random.nextInt(4) == 0) {
+				syllable = syllable.substring(0, 1).toUpperCase(Locale.ROOT) + syllable.substring(1);
+			}
+			name.append(syllable);
+		}
+		if (random.nextInt(5) == 0) {
+			name.append(random.nextInt(10));
+		}
+		return name.toString();
+	}
+
+	private static String link(Random random, String name) {
+		String host = HOSTS[random.nextInt(HOSTS.length)];
+		if (host.isEmpty()) {
+			return "https://" + name.toLowerCase(Locale.ROOT) + ".org/";
+		} else {
+			return "https://" + host + name.toLowerCase(Locale.ROOT) + random.nextInt(1000);
+		}
+	}
+
+	private static Tool tool(Random random, int i) {
+		Tool tool = new Tool();
+		String name = name(random) + (random.nextInt(3) == 0 ? " " + name(random) : "");
+		tool.setName(name);
+		tool.setBiotoolsID(name.toLowerCase(Locale.ROOT).replace(' ', '_') + "_" + i);
+		tool.setHomepage(link(random, name.replace(" ", "")));
+		if (random.nextInt(4) > 0) {
+			Publication publication = new Publication();
+			publication.setPmid(String.valueOf(10000000 + i));
+			publication.setDoi("10.1093/nar/gk" + i);
+			tool.setPublication(Collections.singletonList(publication));
+		}
+		return tool;
+	}
+
+	private Suggestion1 suggestion(String name, String link) {
+		Suggestion1 suggestion = new Suggestion1();
+		suggestion.setExtracted(name);
+		suggestion.setProcessed(String.join(" ", preProcessor.process(name)));
+		suggestion.addLinkAbstract(link);
+		return suggestion;
+	}
+
+	// the first suggestion is from the query, the second is always a new name
+	private void addResult(Random random, PubIds pubIds, String name, String link) {
+		Result1 result1 = new Result1();
+		result1.setPubIds(pubIds);
+		result1.addSuggestion(suggestion(name, link));
+		String other = name(random);
+		result1.addSuggestion(suggestion(other, link(random, other)));
+		results1.add(result1);
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		// the same args as the CLI uses for pass2
+		PreProcessorArgs preProcessorArgs = new PreProcessorArgs();
+		preProcessorArgs.setStemming(false);
+		preProcessor = new PreProcessor(preProcessorArgs);
+		Random random = new Random(1);
+		biotools = new ArrayList<>();
+		for (int i = 0; i < BIOTOOLS_SIZE; ++i) {
+			biotools.add(tool(random, i));
+		}
+		biotoolsIndex = new BiotoolsIndex(biotools, preProcessor);
+		for (int i = 0; i < RESULTS_SIZE; ++i) {
+			if (i % 2 == 0) {
+				int j = random.nextInt(BIOTOOLS_SIZE);
+				Tool biotool = biotools.get(j);
+				PubIds pubIds = (biotool.getPublication() != null ? new PubIds(String.valueOf(10000000 + j), "", "10.1093/nar/gk" + j) : new PubIds("", "", ""));
+				addResult(random, pubIds, biotool.getName(), biotool.getHomepage());
+			} else {
+				String name = name(random);
+				addResult(random, new PubIds(String.valueOf(20000000 + i), "", "10.1186/s13059-" + i), name, link(random, name));
+			}
+		}
+	}
+
+	@Benchmark
+	public BiotoolsIndex index() {
+		return new BiotoolsIndex(biotools, preProcessor);
+	}
+
+	@Setup(Level.Invocation)
+	public void setupResults() {
+		results = new ArrayList<>();
+		for (Result1 result1 : results1) {
+			results.add(new Result2(result1));
+		}
+	}
+
+	@Benchmark
+	public List<Result2> findExisting() {
+		for (Result2 result : results) {
+			Pass2.findExisting(result, biotools, biotoolsIndex);
+		}
+		return results;
+	}
+}
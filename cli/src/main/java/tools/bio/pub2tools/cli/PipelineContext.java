@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.MarkerManager;
+
+import org.edamontology.pubfetcher.core.common.FetcherArgs;
+import org.edamontology.pubfetcher.core.db.Database;
+
+import org.edamontology.edammap.core.idf.Idf;
+import org.edamontology.edammap.core.input.json.Tool;
+
+import tools.bio.pub2tools.core.BiotoolsSnapshot;
+import tools.bio.pub2tools.core.Common;
+import tools.bio.pub2tools.core.Result1;
+
+// inputs of steps loaded only once when running several steps in the same process (with -all or -resume)
+// files are still written by each step, but what is written is also kept here and handed to the next steps instead of reading the files back
+class PipelineContext implements Closeable {
+
+	private static final Logger logger = LogManager.getLogger();
+
+	private final Path outputPath;
+
+	private final FetcherArgs fetcherArgs;
+
+	private Idf idf = null;
+
+	private List<Tool> biotools = null;
+
+	private Database db = null;
+
+	private List<Result1> results1 = null;
+
+	PipelineContext(Path outputPath, FetcherArgs fetcherArgs) {
+		this.outputPath = outputPath;
+		this.fetcherArgs = fetcherArgs;
+	}
+
+	Idf getIdf(String logPrefix) throws IOException {
+		if (idf == null) {
+			String idfFile = outputPath.resolve(Common.IDF_FILE).toString();
+			logger.info(MarkerManager.getMarker(Common.MAIN_MARKER), "{}Loading IDF from {}", logPrefix, idfFile);
+			idf = new Idf(idfFile);
+		}
+		return idf;
+	}
+
+	List<Tool> getBiotools(String logPrefix) throws IOException, ParseException {
+		if (biotools == null) {
+			biotools = BiotoolsSnapshot.loadBiotools(outputPath.resolve(Common.BIOTOOLS_FILE), fetcherArgs.getTimeout(), fetcherArgs.getPrivateArgs().getUserAgent(), logPrefix);
+		}
+		return biotools;
+	}
+
+	// PubFetcher and EDAMmap open the database by file name, so it must be closed with closeDatabase before steps using these
+	Database getDatabase() throws IOException {
+		if (db == null) {
+			db = new Database(outputPath.resolve(Common.DB_FILE).toString());
+		}
+		return db;
+	}
+
+	void closeDatabase() throws IOException {
+		if (db != null) {
+			db.close();
+			db = null;
+		}
+	}
+
+	// null if pass1 has not been run in this process
+	List<Result1> getResults1() {
+		return results1;
+	}
+
+	void setResults1(List<Result1> results1) {
+		this.results1 = results1;
+	}
+
+	@Override
+	public void close() throws IOException {
+		closeDatabase();
+	}
+}
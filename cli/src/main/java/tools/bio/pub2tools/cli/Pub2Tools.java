@@ -36,9 +36,15 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import com.beust.jcommander.Parameter;
 
@@ -67,20 +73,32 @@ import org.edamontology.edammap.cli.CliArgs;
 import org.edamontology.edammap.core.args.CoreArgs;
 import org.edamontology.edammap.core.input.BiotoolsFull;
 import org.edamontology.edammap.core.input.Input;
+import org.edamontology.edammap.core.input.Json;
+import org.edamontology.edammap.core.input.json.Tool;
 import org.edamontology.edammap.core.mapping.args.MapperArgs;
 import org.edamontology.edammap.core.preprocessing.PreProcessor;
 import org.edamontology.edammap.core.preprocessing.PreProcessorArgs;
 import org.edamontology.edammap.core.processing.ProcessorArgs;
 import org.edamontology.edammap.core.query.QueryType;
 
+import tools.bio.pub2tools.core.BiotoolsSnapshot;
+import tools.bio.pub2tools.core.CachingPreProcessor;
 import tools.bio.pub2tools.core.Common;
+import tools.bio.pub2tools.core.LinkQueue;
 import tools.bio.pub2tools.core.Pass1;
 import tools.bio.pub2tools.core.Pass2;
+import tools.bio.pub2tools.core.PreProcessorCache;
+import tools.bio.pub2tools.core.Result1;
 import tools.bio.pub2tools.core.SelectPub;
+import tools.bio.pub2tools.core.SelectPubFetcher;
 import tools.bio.pub2tools.core.Test;
 
 public final class Pub2Tools {
 
+	private static final int LINK_QUEUE_CAPACITY = 10000;
+	private static final int FETCH_BATCH_SIZE = 100;
+	private static final long FETCH_BATCH_WAIT = 5000; // ms
+
 	private static Logger logger;
 
 	private static Step getStep(Path outputPath) throws IOException {
@@ -159,26 +177,37 @@ public final class Pub2Tools {
 		copy(idfStemmed, idfStemmedTo, fetcherArgs);
 	}
 
-	private static void getBiotools(Path outputPath, FetcherArgs fetcherArgs, LogLevel logLevel, String logPrefix) throws IOException {
+	private static void getBiotools(Path outputPath, FetcherArgs fetcherArgs, LogLevel logLevel, String logPrefix) throws IOException, ParseException {
 		String biotoolsFile = outputPath.resolve(Common.BIOTOOLS_FILE).toString();
 		logger.info(MarkerManager.getMarker(Common.MAIN_MARKER), "{}Get all bio.tools content to {}", logPrefix, biotoolsFile);
 		int count = BiotoolsFull.get(biotoolsFile, fetcherArgs.getTimeout(), fetcherArgs.getPrivateArgs().getUserAgent(), false, logLevel != LogLevel.INFO && logLevel != LogLevel.DEBUG);
 		logger.info(MarkerManager.getMarker(Common.MAIN_MARKER), "{}Got {} bio.tools entries to {}", logPrefix, count, biotoolsFile);
+		writeBiotoolsSnapshot(outputPath, fetcherArgs, logPrefix);
 	}
 
-	private static void copyBiotools(Path outputPath, String biotools, FetcherArgs fetcherArgs, String logPrefix) throws IOException {
+	private static void copyBiotools(Path outputPath, String biotools, FetcherArgs fetcherArgs, String logPrefix) throws IOException, ParseException {
 		Path biotoolsTo = outputPath.resolve(Common.BIOTOOLS_FILE);
 		logger.info(MarkerManager.getMarker(Common.MAIN_MARKER), "{}Copy all bio.tools content from {} to {}", logPrefix, biotools, biotoolsTo.toString());
 		copy(biotools, biotoolsTo, fetcherArgs);
+		writeBiotoolsSnapshot(outputPath, fetcherArgs, logPrefix);
 	}
 
-	private static void selectPub(Path outputPath, String date, boolean disableTool, String custom, boolean disableNot, FetcherArgs fetcherArgs, String logPrefix) throws IOException, ParseException, URISyntaxException {
+	// Pass2 will load the snapshot instead of parsing the JSON file again
+	@SuppressWarnings("unchecked")
+	private static void writeBiotoolsSnapshot(Path outputPath, FetcherArgs fetcherArgs, String logPrefix) throws IOException, ParseException {
+		Path biotoolsPath = outputPath.resolve(Common.BIOTOOLS_FILE);
+		List<Tool> biotools = (List<Tool>) Json.load(biotoolsPath.toString(), QueryType.biotools, fetcherArgs.getTimeout(), fetcherArgs.getPrivateArgs().getUserAgent());
+		BiotoolsSnapshot.write(biotools, biotoolsPath, logPrefix);
+	}
+
+	private static void selectPub(Path outputPath, String date, boolean disableTool, String custom, boolean disableNot, int threads, double rate, String cache, int cacheTtl, boolean replay, FetcherArgs fetcherArgs, String logPrefix) throws IOException, ParseException, URISyntaxException {
 		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
 		Path pubPath = outputPath.resolve(Common.PUB_FILE);
 		logger.info(mainMarker, "{}Select publication IDs from Europe PMC for date {}", logPrefix, date);
 		try (BufferedWriter bw = Files.newBufferedWriter(pubPath, StandardCharsets.UTF_8)) {
 			List<PublicationIds> ids = new ArrayList<>();
-			ids.addAll(SelectPub.select(date, disableTool, custom, disableNot, fetcherArgs, logPrefix));
+			SelectPubFetcher selectFetcher = new SelectPubFetcher(rate, cache != null ? Paths.get(cache) : null, TimeUnit.HOURS.toMillis(cacheTtl), replay);
+			ids.addAll(SelectPub.select(date, disableTool, custom, disableNot, threads, selectFetcher, fetcherArgs, logPrefix));
 			Collections.shuffle(ids);
 			for (PublicationIds id : ids) {
 				bw.write(id.toString(true));
@@ -228,11 +257,112 @@ public final class Pub2Tools {
 		setStep(outputPath, Step.pass1);
 	}
 
-	private static void pass1(Path outputPath, PreProcessor preProcessor, String logPrefix) throws IOException {
-		Pass1.run(outputPath, preProcessor, logPrefix, null, null, null, null);
+	private static void preProcessorCacheDone(Path outputPath, PreProcessorCache preProcessorCache, boolean preProcessorCacheFile, String logPrefix) throws IOException {
+		preProcessorCache.logCounts(logPrefix);
+		preProcessorCache.resetCounts();
+		if (preProcessorCacheFile) {
+			preProcessorCache.save(outputPath.resolve(Common.PREPROCESSOR_CACHE_FILE), logPrefix);
+		}
+	}
+
+	// context is null if only this step is run
+	private static void pass1(Path outputPath, int threads, boolean compact, PreProcessorArgs preProcessorArgs, PreProcessorCache preProcessorCache, boolean preProcessorCacheFile, LinkQueue linkQueue, PipelineContext context, String logPrefix) throws IOException {
+		// each thread gets its own PreProcessor, as these are not meant to be shared (but the cache is)
+		boolean stemming = preProcessorArgs.isStemming();
+		preProcessorArgs.setStemming(false);
+		List<PreProcessor> preProcessors = new ArrayList<>();
+		for (int i = 0; i < Math.max(threads, 1); ++i) {
+			preProcessors.add(new CachingPreProcessor(preProcessorArgs, preProcessorCache));
+		}
+		preProcessorArgs.setStemming(stemming);
+		List<Result1> results1 = Pass1.run(outputPath, preProcessors, !compact, linkQueue, logPrefix, context != null ? context.getIdf(logPrefix) : null, null, null, null);
+		if (context != null) {
+			context.setResults1(results1);
+		}
+		preProcessorCacheDone(outputPath, preProcessorCache, preProcessorCacheFile, logPrefix);
 		setStep(outputPath, Step.fetchWeb);
 	}
 
+	// fetch webpages and docs from linkQueue in batches, until the end of the queue is reached
+	private static int fetchLinks(LinkQueue linkQueue, String dbFile, int threads, FetcherArgs fetcherArgs) throws IOException, ParseException, InterruptedException {
+		Set<String> webpagesSeen = new HashSet<>();
+		Set<String> docsSeen = new HashSet<>();
+		Set<String> webpages = new LinkedHashSet<>();
+		Set<String> docs = new LinkedHashSet<>();
+		int fetched = 0;
+		try (Fetcher fetcher = new Fetcher(fetcherArgs.getPrivateArgs())) {
+			boolean end = false;
+			while (!end) {
+				LinkQueue.Link link = linkQueue.poll(FETCH_BATCH_WAIT);
+				if (LinkQueue.isEnd(link)) {
+					end = true;
+				} else if (link != null) {
+					if (link.getType() == DatabaseEntryType.doc) {
+						if (docsSeen.add(link.getUrl())) {
+							docs.add(link.getUrl());
+						}
+					} else {
+						if (webpagesSeen.add(link.getUrl())) {
+							webpages.add(link.getUrl());
+						}
+					}
+				}
+				// progress is not output, as pass1 is outputting its own progress at the same time
+				if (!webpages.isEmpty() && (end || link == null || webpages.size() >= FETCH_BATCH_SIZE)) {
+					PubFetcherMethods.dbFetch(null, threads, webpages, dbFile, fetcher, null, fetcherArgs, true, webpages.size(), false, DatabaseEntryType.webpage);
+					fetched += webpages.size();
+					webpages.clear();
+				}
+				if (!docs.isEmpty() && (end || link == null || docs.size() >= FETCH_BATCH_SIZE)) {
+					PubFetcherMethods.dbFetch(null, threads, docs, dbFile, fetcher, null, fetcherArgs, true, docs.size(), false, DatabaseEntryType.doc);
+					fetched += docs.size();
+					docs.clear();
+				}
+			}
+		} finally {
+			linkQueue.abandon();
+		}
+		return fetched;
+	}
+
+	// run pass1 and fetch webpages and docs of results in parallel, as soon as all results of a publication are made
+	// web.txt and doc.txt are still written by pass1 and -fetch-web must still be run afterwards, but it will find most webpages and docs already fetched
+	private static void pass1Pipelined(Path outputPath, int threads, boolean compact, PreProcessorArgs preProcessorArgs, PreProcessorCache preProcessorCache, boolean preProcessorCacheFile, int fetcherThreads, FetcherArgs fetcherArgs, PipelineContext context, String logPrefix) throws IOException, ParseException {
+		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
+
+		String dbFile = outputPath.resolve(Common.DB_FILE).toString();
+
+		LinkQueue linkQueue = new LinkQueue(LINK_QUEUE_CAPACITY);
+		logger.info(mainMarker, "{}Fetching webpages and docs using PubFetcher while running pass1", logPrefix);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Integer> fetched = executor.submit(() -> fetchLinks(linkQueue, dbFile, fetcherThreads, fetcherArgs));
+			try {
+				pass1(outputPath, threads, compact, preProcessorArgs, preProcessorCache, preProcessorCacheFile, linkQueue, context, logPrefix);
+			} finally {
+				linkQueue.end();
+			}
+			logger.info(mainMarker, "{}Fetched {} webpages and docs while running pass1", logPrefix, fetched.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while fetching webpages and docs", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else if (e.getCause() instanceof ParseException) {
+				throw (ParseException) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			} else {
+				throw new IOException(e.getCause());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	private static void fetchWeb(Path outputPath, int threads, FetcherArgs fetcherArgs, LogLevel logLevel, String logPrefix) throws IOException, ParseException {
 		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
 
@@ -267,8 +397,29 @@ public final class Pub2Tools {
 		setStep(outputPath, Step.pass2);
 	}
 
-	private static void pass2(Path outputPath, PreProcessor preProcessor, FetcherArgs fetcherArgs, String logPrefix) throws IOException, ParseException {
-		Pass2.run(outputPath, preProcessor, fetcherArgs, logPrefix, null, null, null, false, null, null, null);
+	// context is null if only this step is run
+	private static void pass2(Path outputPath, int threads, CachingPreProcessor preProcessor, PreProcessorArgs preProcessorArgs, boolean preProcessorCacheFile, FetcherArgs fetcherArgs, PipelineContext context, String logPrefix) throws IOException, ParseException {
+		// other threads get their own PreProcessor, with the same args as preProcessor (stemming disabled) and sharing its cache
+		List<PreProcessor> preProcessors = new ArrayList<>();
+		preProcessors.add(preProcessor);
+		boolean stemming = preProcessorArgs.isStemming();
+		preProcessorArgs.setStemming(false);
+		for (int i = 1; i < Math.max(threads, 1); ++i) {
+			preProcessors.add(new CachingPreProcessor(preProcessorArgs, preProcessor.getCache()));
+		}
+		preProcessorArgs.setStemming(stemming);
+		if (context != null) {
+			try {
+				Pass2.run(outputPath, preProcessors, fetcherArgs, logPrefix, context.getIdf(logPrefix), context.getBiotools(logPrefix), context.getDatabase(), context.getResults1(), false, null, null, null);
+			} finally {
+				// the next step (-map) opens the database itself and pass1 results are not needed anymore
+				context.closeDatabase();
+				context.setResults1(null);
+			}
+		} else {
+			Pass2.run(outputPath, preProcessors, fetcherArgs, logPrefix, null, null, null, null, false, null, null, null);
+		}
+		preProcessorCacheDone(outputPath, preProcessor.getCache(), preProcessorCacheFile, logPrefix);
 		setStep(outputPath, Step.map);
 	}
 
@@ -396,9 +547,14 @@ public final class Pub2Tools {
 			outputPath = PubFetcher.outputPath(output, true, true);
 		}
 
+		PreProcessorCache preProcessorCache = new PreProcessorCache(args.preProcessorCacheSize);
+		if (args.preProcessorCacheFile && outputPath != null) {
+			preProcessorCache.load(outputPath.resolve(Common.PREPROCESSOR_CACHE_FILE), "");
+		}
+
 		boolean stemming = args.preProcessorArgs.isStemming();
 		args.preProcessorArgs.setStemming(false);
-		PreProcessor preProcessor = new PreProcessor(args.preProcessorArgs);
+		CachingPreProcessor preProcessor = new CachingPreProcessor(args.preProcessorArgs, preProcessorCache);
 		args.preProcessorArgs.setStemming(stemming);
 
 		if (args.copyEdam != null && requiredArgs(new String[] { "edam" }, "copyEdam", args)) {
@@ -424,7 +580,7 @@ public final class Pub2Tools {
 		if (args.selectPub != null) {
 			String date = SelectPub.getDate(args.from, args.to, args.month, args.day, " for -select-pub");
 			checkStepNone(outputPath);
-			selectPub(outputPath, date, args.disableToolRestriction, args.customRestriction, args.disableExclusions, args.fetcherArgs, "");
+			selectPub(outputPath, date, args.disableToolRestriction, args.customRestriction, args.disableExclusions, args.selectPubThreads, args.selectPubRate, args.selectPubCache, args.selectPubCacheTtl, args.selectPubReplay, args.fetcherArgs, "");
 		}
 
 		if (args.copyPub != null && requiredArgs(new String[] { "pub" }, "copyPub", args)) {
@@ -459,7 +615,7 @@ public final class Pub2Tools {
 					throw new IllegalArgumentException("Can't run step -pass1, as database file " + dbFile + " is empty! Try running step -fetch-pub first.");
 				}
 			}
-			pass1(outputPath, preProcessor, "");
+			pass1(outputPath, args.pass1Threads, args.pass1Compact, args.preProcessorArgs, preProcessorCache, args.preProcessorCacheFile, null, null, "");
 		}
 
 		if (args.fetchWeb != null) {
@@ -480,7 +636,7 @@ public final class Pub2Tools {
 			if (!pass1Path.toFile().exists()) {
 				throw new IllegalArgumentException("Can't run step -pass2, as missing " + pass1Path.toString() + "! Try running steps -fetch-pub, -pass1 and -fetch-web first.");
 			}
-			pass2(outputPath, preProcessor, args.fetcherArgs, "");
+			pass2(outputPath, args.pass2Threads, preProcessor, args.preProcessorArgs, args.preProcessorCacheFile, args.fetcherArgs, null, "");
 		}
 
 		if (args.map != null) {
@@ -521,7 +677,7 @@ public final class Pub2Tools {
 			if (args.pub != null) {
 				copyPub(outputPath, args.pub, args.fetcherArgs, "0/5 ");
 			} else {
-				selectPub(outputPath, date, args.disableToolRestriction, args.customRestriction, args.disableExclusions, args.fetcherArgs, "0/5 ");
+				selectPub(outputPath, date, args.disableToolRestriction, args.customRestriction, args.disableExclusions, args.selectPubThreads, args.selectPubRate, args.selectPubCache, args.selectPubCacheTtl, args.selectPubReplay, args.fetcherArgs, "0/5 ");
 			}
 			if (args.db != null) {
 				copyDb(outputPath, args.db, args.fetcherArgs, "0/5 ");
@@ -533,16 +689,22 @@ public final class Pub2Tools {
 					initDb(outputPath, "0/5 ");
 				}
 			}
-			logger.info(mainMarker, "1 step {}", Step.fetchPub);
-			fetchPub(outputPath, args.fetcherThreads, args.fetcherArgs, args.verbose, "1/5 ");
-			logger.info(mainMarker, "2 step {}", Step.pass1);
-			pass1(outputPath, preProcessor, "2/5 ");
-			logger.info(mainMarker, "3 step {}", Step.fetchWeb);
-			fetchWeb(outputPath, args.fetcherThreads, args.fetcherArgs, args.verbose, "3/5 ");
-			logger.info(mainMarker, "4 step {}", Step.pass2);
-			pass2(outputPath, preProcessor, args.fetcherArgs, "4/5 ");
-			logger.info(mainMarker, "5 step {}", Step.map);
-			map(outputPath, args.mapperThreads, args.preProcessorArgs, args.fetcherArgs, args.mapperArgs, args.verbose, version, "5/5 ");
+			try (PipelineContext context = new PipelineContext(outputPath, args.fetcherArgs)) {
+				logger.info(mainMarker, "1 step {}", Step.fetchPub);
+				fetchPub(outputPath, args.fetcherThreads, args.fetcherArgs, args.verbose, "1/5 ");
+				logger.info(mainMarker, "2 step {}", Step.pass1);
+				if (args.fetchWebPipelined) {
+					pass1Pipelined(outputPath, args.pass1Threads, args.pass1Compact, args.preProcessorArgs, preProcessorCache, args.preProcessorCacheFile, args.fetcherThreads, args.fetcherArgs, context, "2/5 ");
+				} else {
+					pass1(outputPath, args.pass1Threads, args.pass1Compact, args.preProcessorArgs, preProcessorCache, args.preProcessorCacheFile, null, context, "2/5 ");
+				}
+				logger.info(mainMarker, "3 step {}", Step.fetchWeb);
+				fetchWeb(outputPath, args.fetcherThreads, args.fetcherArgs, args.verbose, "3/5 ");
+				logger.info(mainMarker, "4 step {}", Step.pass2);
+				pass2(outputPath, args.pass2Threads, preProcessor, args.preProcessorArgs, args.preProcessorCacheFile, args.fetcherArgs, context, "4/5 ");
+				logger.info(mainMarker, "5 step {}", Step.map);
+				map(outputPath, args.mapperThreads, args.preProcessorArgs, args.fetcherArgs, args.mapperArgs, args.verbose, version, "5/5 ");
+			}
 		}
 
 		if (args.resume != null) {
@@ -557,25 +719,31 @@ public final class Pub2Tools {
 			}
 			logger.info(mainMarker, "Resuming from step {}", step);
 			checkSetupDone(outputPath, step);
-			if (step == Step.fetchPub) {
-				logger.info(mainMarker, "1 step {}", Step.fetchPub);
-				fetchPub(outputPath, args.fetcherThreads, args.fetcherArgs, args.verbose, "1/5 ");
-			}
-			if (step == Step.fetchPub || step == Step.pass1) {
-				logger.info(mainMarker, "2 step {}", Step.pass1);
-				pass1(outputPath, preProcessor, "2/5 ");
-			}
-			if (step == Step.fetchPub || step == Step.pass1 || step == Step.fetchWeb) {
-				logger.info(mainMarker, "3 step {}", Step.fetchWeb);
-				fetchWeb(outputPath, args.fetcherThreads, args.fetcherArgs, args.verbose, "3/5 ");
-			}
-			if (step == Step.fetchPub || step == Step.pass1 || step == Step.fetchWeb || step == Step.pass2) {
-				logger.info(mainMarker, "4 step {}", Step.pass2);
-				pass2(outputPath, preProcessor, args.fetcherArgs, "4/5 ");
-			}
-			if (step == Step.fetchPub || step == Step.pass1 || step == Step.fetchWeb || step == Step.pass2 || step == Step.map) {
-				logger.info(mainMarker, "5 step {}", Step.map);
-				map(outputPath, args.mapperThreads, args.preProcessorArgs, args.fetcherArgs, args.mapperArgs, args.verbose, version, "5/5 ");
+			try (PipelineContext context = new PipelineContext(outputPath, args.fetcherArgs)) {
+				if (step == Step.fetchPub) {
+					logger.info(mainMarker, "1 step {}", Step.fetchPub);
+					fetchPub(outputPath, args.fetcherThreads, args.fetcherArgs, args.verbose, "1/5 ");
+				}
+				if (step == Step.fetchPub || step == Step.pass1) {
+					logger.info(mainMarker, "2 step {}", Step.pass1);
+					if (args.fetchWebPipelined) {
+						pass1Pipelined(outputPath, args.pass1Threads, args.pass1Compact, args.preProcessorArgs, preProcessorCache, args.preProcessorCacheFile, args.fetcherThreads, args.fetcherArgs, context, "2/5 ");
+					} else {
+						pass1(outputPath, args.pass1Threads, args.pass1Compact, args.preProcessorArgs, preProcessorCache, args.preProcessorCacheFile, null, context, "2/5 ");
+					}
+				}
+				if (step == Step.fetchPub || step == Step.pass1 || step == Step.fetchWeb) {
+					logger.info(mainMarker, "3 step {}", Step.fetchWeb);
+					fetchWeb(outputPath, args.fetcherThreads, args.fetcherArgs, args.verbose, "3/5 ");
+				}
+				if (step == Step.fetchPub || step == Step.pass1 || step == Step.fetchWeb || step == Step.pass2) {
+					logger.info(mainMarker, "4 step {}", Step.pass2);
+					pass2(outputPath, args.pass2Threads, preProcessor, args.preProcessorArgs, args.preProcessorCacheFile, args.fetcherArgs, context, "4/5 ");
+				}
+				if (step == Step.fetchPub || step == Step.pass1 || step == Step.fetchWeb || step == Step.pass2 || step == Step.map) {
+					logger.info(mainMarker, "5 step {}", Step.map);
+					map(outputPath, args.mapperThreads, args.preProcessorArgs, args.fetcherArgs, args.mapperArgs, args.verbose, version, "5/5 ");
+				}
 			}
 		}
 
@@ -28,6 +28,8 @@ import org.edamontology.pubfetcher.core.common.FetcherArgs;
 import org.edamontology.edammap.core.mapping.args.MapperArgs;
 import org.edamontology.edammap.core.preprocessing.PreProcessorArgs;
 
+import tools.bio.pub2tools.core.Common;
+
 public class Pub2ToolsArgs extends BasicArgs {
 
 	@Parameter(names = { "-copy-edam" }, description = "Copy the EDAM ontology file in OWL format given with the --edam parameter to EDAM.owl in the given output directory")
@@ -108,6 +110,21 @@ public class Pub2ToolsArgs extends BasicArgs {
 	@Parameter(names = { "--disable-exclusions" }, description = "If specified, some further restrictions to eliminate a few wrong publication IDs are not used with -select-pub (or -all)")
 	boolean disableExclusions = false;
 
+	@Parameter(names = { "--select-pub-threads" }, description = "Number of Europe PMC searches to run in parallel in -select-pub (or -all). Selected publication IDs are the same as with one thread.")
+	int selectPubThreads = 1;
+
+	@Parameter(names = { "--select-pub-rate" }, description = "Maximum number of requests per second sent to one host in -select-pub (or -all). Setting to 0 disables the limit.")
+	double selectPubRate = 10;
+
+	@Parameter(names = { "--select-pub-cache" }, description = "Directory where responses of Europe PMC are stored by -select-pub (or -all). A stored response is used instead of sending the same request again.")
+	String selectPubCache = null;
+
+	@Parameter(names = { "--select-pub-cache-ttl" }, description = "Number of hours after which a response stored in the directory given with --select-pub-cache is not used anymore, but the request is sent again and the stored response replaced, as Europe PMC keeps adding publications for recent dates. Setting to 0 disables the expiry. Ignored with --select-pub-replay.")
+	int selectPubCacheTtl = 24;
+
+	@Parameter(names = { "--select-pub-replay" }, description = "If specified, -select-pub (or -all) uses only responses stored in the directory given with --select-pub-cache and fails if a response is missing, so that a selection can be repeated offline")
+	boolean selectPubReplay = false;
+
 	@Parameter(names = { "--pub", "--pub-ids", "--pub-file" }, description = "The file containing publication IDs to be copied to the output directory with -copy-pub (or -all)")
 	String pub = null;
 
@@ -117,6 +134,24 @@ public class Pub2ToolsArgs extends BasicArgs {
 	@Parameter(names = { "--fetcher-threads", "--fetch-threads" }, description = "Number of threads to use for parallel fetching in -fetch-pub and -fetch-web (or -all or -resume)")
 	int fetcherThreads = 8;
 
+	@Parameter(names = { "--fetch-web-pipelined" }, description = "If specified, webpages and docs are already fetched while -pass1 is running in -all (or -resume), as soon as their links are found. Step -fetch-web is still run afterwards, but most webpages and docs will already be fetched by then.")
+	boolean fetchWebPipelined = false;
+
+	@Parameter(names = { "--pass1-threads" }, description = "Number of threads to use for making results from publications in -pass1 (or -all or -resume). Results are the same as with one thread.")
+	int pass1Threads = 1;
+
+	@Parameter(names = { "--pass1-compact" }, description = "If specified, " + Common.PASS1_FILE + " is written by -pass1 (or -all or -resume) without indentation and line breaks, making it smaller and faster to write and read")
+	boolean pass1Compact = false;
+
+	@Parameter(names = { "--pass2-threads" }, description = "Number of threads to use for writing results in -pass2 (or -all or -resume). Results, diffs and new tools are the same as with one thread.")
+	int pass2Threads = 1;
+
+	@Parameter(names = { "--preprocessor-cache-size" }, description = "Maximum number of results of preprocessing (tokenisation, stopword removal, etc of titles, abstracts, names and suggestions) to keep in memory for reuse in -pass1 and -pass2 (or -all or -resume). Least recently used results are dropped first. Setting to 0 disables the cache.")
+	int preProcessorCacheSize = 100000;
+
+	@Parameter(names = { "--preprocessor-cache-file" }, description = "If specified, the preprocessing cache is loaded from and saved to the file " + Common.PREPROCESSOR_CACHE_FILE + " in the output directory, so that -resume and repeated runs of -pass1 and -pass2 can reuse it")
+	boolean preProcessorCacheFile = false;
+
 	@Parameter(names = { "--mapper-threads", "--map-threads" }, description = "Number of threads to use for parallel mapping in -map (or -all or -resume)")
 	int mapperThreads = 4;
 
@@ -0,0 +1,331 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// matcher behind Common.isAcronym, equivalent to finding the case-insensitive regex
+//   (^| ) E1 ([^ ]*|.* ) E2 ... ([^ ]*|.* ) En          if not allWords
+//   ^ E1 [^ ]* * E2 ... [^ ]* * En [^ ]*$               if allWords
+// in the phrase, where Ei is [^ \p{L}\p{N}]*(\p{L}+(?=\p{Lu}))?ci for the i-th letter or digit ci of the acronym,
+// and, if the found match is within one word, dropping its last character from the phrase and trying again
+// positions are tried in the same order as the backtracking of the regex would try them, with the first end found from each
+// acronym letter and phrase position memoised, so that the match found is the same, but without compiling or backtracking anything twice
+// the character classes are taken from the regex engine of the running JDK, as their case-insensitive meaning differs between versions
+// (for example, (?i)\p{Lu} matches only uppercase letters up to Java 11, but also lowercase and titlecase letters in later versions)
+final class AcronymMatcher {
+
+	private static final CharClass USE_IN_PATTERN = new CharClass("[\\p{L}\\p{N}]");
+	private static final CharClass OTHER = new CharClass("(?i)[^ \\p{L}\\p{N}]");
+	private static final CharClass LETTER = new CharClass("(?i)\\p{L}");
+	private static final CharClass UPPERCASE = new CharClass("(?i)\\p{Lu}");
+
+	private final char[] letters;
+	private final int size;
+	private final boolean allWords;
+
+	private char[] phrase;
+	private int length;
+
+	// end of match + 2 from acronym letter i and phrase position pos at i * (length + 1) + pos, 1 if no match, 0 if not known yet
+	private int[] memo;
+
+	private AcronymMatcher(char[] letters, int size, boolean allWords) {
+		this.letters = letters;
+		this.size = size;
+		this.allWords = allWords;
+	}
+
+	static boolean isAcronym(String acronym, String phrase, boolean allWords) {
+		acronym = acronym.trim();
+		if (acronym.indexOf(' ') > -1) {
+			return false;
+		}
+		char[] letters = new char[acronym.length()];
+		int size = 0;
+		for (int i = 0; i < acronym.length(); ++i) {
+			char c = acronym.charAt(i);
+			if (USE_IN_PATTERN.contains(c)) {
+				letters[size++] = c;
+			}
+		}
+		if (size == 0) {
+			return false;
+		}
+		AcronymMatcher matcher = new AcronymMatcher(letters, size, allWords);
+		matcher.phrase = phrase.toCharArray();
+		matcher.length = matcher.phrase.length;
+		matcher.memo = new int[size * (matcher.length + 1)];
+		return matcher.isAcronym();
+	}
+
+	private boolean isAcronym() {
+		while (true) {
+			trim();
+			boolean space = false;
+			for (int i = 0; i < length; ++i) {
+				if (phrase[i] == '-') {
+					phrase[i] = ' ';
+				}
+				if (phrase[i] == ' ') {
+					space = true;
+				}
+			}
+			if (!space) {
+				return false;
+			}
+			Arrays.fill(memo, 0, size * (length + 1), 0);
+
+			int start = -1;
+			int end = -1;
+			if (allWords) {
+				start = 0;
+				end = match(0, 0);
+			} else {
+				for (int s = 0; s <= length && end < 0; ++s) {
+					start = s;
+					if (s == 0) {
+						end = match(0, 0);
+					}
+					if (end < 0 && s < length && phrase[s] == ' ') {
+						end = match(0, s + 1);
+					}
+				}
+			}
+			if (end < 0) {
+				return false;
+			}
+
+			if (trimmedHasSpace(start, end)) {
+				return true;
+			} else if (phrase[end - 1] == ' ') {
+				if (end - 2 >= 0) {
+					remove(end - 2);
+				} else {
+					return false;
+				}
+			} else {
+				remove(end - 1);
+			}
+		}
+	}
+
+	// same as String.trim
+	private void trim() {
+		int from = 0;
+		while (from < length && phrase[from] <= ' ') {
+			++from;
+		}
+		int to = length;
+		while (to > from && phrase[to - 1] <= ' ') {
+			--to;
+		}
+		if (from > 0) {
+			System.arraycopy(phrase, from, phrase, 0, to - from);
+		}
+		length = to - from;
+	}
+
+	private void remove(int i) {
+		System.arraycopy(phrase, i + 1, phrase, i, length - i - 1);
+		--length;
+	}
+
+	private boolean trimmedHasSpace(int start, int end) {
+		while (start < end && phrase[start] <= ' ') {
+			++start;
+		}
+		while (end > start && phrase[end - 1] <= ' ') {
+			--end;
+		}
+		for (int i = start; i < end; ++i) {
+			if (phrase[i] == ' ') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// first end of a match of acronym letters from i on (letter i starting with its separator) at pos, or -1 if none
+	private int match(int i, int pos) {
+		if (i == size) {
+			if (allWords) {
+				// [^ ]*$ can only match up to the end, as $ before a final line terminator would be tried after [^ ]* has taken the terminator
+				return skipNonSpace(pos) == length ? length : -1;
+			}
+			return pos;
+		}
+		int key = i * (length + 1) + pos;
+		if (memo[key] == 0) {
+			memo[key] = matchSeparator(i, pos) + 2;
+		}
+		return memo[key] - 2;
+	}
+
+	private int matchSeparator(int i, int pos) {
+		if (i == 0) {
+			return matchLetter(i, pos);
+		}
+		if (allWords) {
+			// [^ ]* *
+			for (int nonSpace = skipNonSpace(pos); nonSpace >= pos; nonSpace = back(nonSpace, pos)) {
+				int spaces = nonSpace;
+				while (spaces < length && phrase[spaces] == ' ') {
+					++spaces;
+				}
+				for (; spaces >= nonSpace; --spaces) {
+					int end = matchLetter(i, spaces);
+					if (end >= 0) {
+						return end;
+					}
+				}
+			}
+		} else {
+			// [^ ]*
+			for (int nonSpace = skipNonSpace(pos); nonSpace >= pos; nonSpace = back(nonSpace, pos)) {
+				int end = matchLetter(i, nonSpace);
+				if (end >= 0) {
+					return end;
+				}
+			}
+			// .* followed by a space
+			for (int any = skipAny(pos); any >= pos; any = back(any, pos)) {
+				if (any < length && phrase[any] == ' ') {
+					int end = matchLetter(i, any + 1);
+					if (end >= 0) {
+						return end;
+					}
+				}
+			}
+		}
+		return -1;
+	}
+
+	private int matchLetter(int i, int pos) {
+		// [^ \p{L}\p{N}]*
+		for (int other = skipOther(pos); other >= pos; other = back(other, pos)) {
+			// \p{L}+(?=\p{Lu})
+			for (int letter = skipLetter(other); letter > other; letter = back(letter, other)) {
+				if (letter < length && UPPERCASE.contains(Character.codePointAt(phrase, letter, length)) && equals(phrase[letter], letters[i])) {
+					int end = match(i + 1, letter + 1);
+					if (end >= 0) {
+						return end;
+					}
+				}
+			}
+			if (other < length && equals(phrase[other], letters[i])) {
+				int end = match(i + 1, other + 1);
+				if (end >= 0) {
+					return end;
+				}
+			}
+		}
+		return -1;
+	}
+
+	// without UNICODE_CASE, only ASCII letters are matched case-insensitively
+	private static boolean equals(char c, char letter) {
+		if (c == letter) {
+			return true;
+		}
+		if (c < 128 && letter < 128) {
+			char cLower = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+			char letterLower = (letter >= 'A' && letter <= 'Z') ? (char) (letter + ('a' - 'A')) : letter;
+			return cLower == letterLower && cLower >= 'a' && cLower <= 'z';
+		}
+		return false;
+	}
+
+	// same as . without DOTALL and UNIX_LINES
+	private static boolean isLineTerminator(int c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+	// previous code point boundary, as greedy quantifiers give back one code point at a time
+	private int back(int pos, int from) {
+		if (pos - 2 >= from && Character.isLowSurrogate(phrase[pos - 1]) && Character.isHighSurrogate(phrase[pos - 2])) {
+			return pos - 2;
+		}
+		return pos - 1;
+	}
+
+	private int skipNonSpace(int pos) {
+		while (pos < length) {
+			int c = Character.codePointAt(phrase, pos, length);
+			if (c == ' ') break;
+			pos += Character.charCount(c);
+		}
+		return pos;
+	}
+
+	private int skipAny(int pos) {
+		while (pos < length) {
+			int c = Character.codePointAt(phrase, pos, length);
+			if (isLineTerminator(c)) break;
+			pos += Character.charCount(c);
+		}
+		return pos;
+	}
+
+	private int skipOther(int pos) {
+		while (pos < length) {
+			int c = Character.codePointAt(phrase, pos, length);
+			if (!OTHER.contains(c)) break;
+			pos += Character.charCount(c);
+		}
+		return pos;
+	}
+
+	private int skipLetter(int pos) {
+		while (pos < length) {
+			int c = Character.codePointAt(phrase, pos, length);
+			if (!LETTER.contains(c)) break;
+			pos += Character.charCount(c);
+		}
+		return pos;
+	}
+
+	// code points matched by a one-character regex, looked up from a table for the BMP
+	private static final class CharClass {
+
+		private final Pattern pattern;
+		private final BitSet bmp = new BitSet(Character.MAX_VALUE + 1);
+
+		private CharClass(String regex) {
+			pattern = Pattern.compile(regex);
+			Matcher matcher = pattern.matcher("");
+			for (int c = 0; c <= Character.MAX_VALUE; ++c) {
+				if (matcher.reset(String.valueOf((char) c)).matches()) {
+					bmp.set(c);
+				}
+			}
+		}
+
+		private boolean contains(int c) {
+			if (c <= Character.MAX_VALUE) {
+				return bmp.get(c);
+			}
+			return pattern.matcher(new String(Character.toChars(c))).matches();
+		}
+	}
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.edamontology.pubfetcher.core.common.PubFetcher;
+
+import org.edamontology.edammap.core.input.json.Publication;
+import org.edamontology.edammap.core.input.json.Tool;
+import org.edamontology.edammap.core.preprocessing.PreProcessor;
+
+// processed names and links of bio.tools entries, with indexes from publication IDs, names and links to entry indexes in biotools
+public class BiotoolsIndex {
+
+	private final List<Tool> biotools;
+
+	private final List<List<String>> namesExtracted = new ArrayList<>();
+	private final List<String> namesProcessed = new ArrayList<>();
+	private final List<List<String>> links = new ArrayList<>();
+
+	private final Map<String, List<Integer>> pmids = new HashMap<>();
+	private final Map<String, List<Integer>> pmcids = new HashMap<>();
+	private final Map<String, List<Integer>> dois = new HashMap<>();
+
+	private final Map<String, List<Integer>> names = new HashMap<>();
+	private final Map<String, List<Integer>> namesProcessedIndex = new HashMap<>();
+	private final Map<String, List<Integer>> biotoolsIds = new HashMap<>();
+	private final Map<String, List<Integer>> nameWords = new HashMap<>();
+
+	private final Map<String, List<Integer>> linksCaseless = new HashMap<>();
+	private final LinkNode linksTrimmed = new LinkNode("");
+
+	// node of a radix tree of links (with lowest subdomain removed), labels of edges are stored in the child nodes
+	private static final class LinkNode {
+		private String label;
+		private final Map<Character, LinkNode> children = new HashMap<>();
+		private final List<Integer> tools = new ArrayList<>();
+
+		private LinkNode(String label) {
+			this.label = label;
+		}
+	}
+
+	public BiotoolsIndex(List<Tool> biotools, PreProcessor preProcessor) {
+		this.biotools = biotools;
+
+		for (int i = 0; i < biotools.size(); ++i) {
+			Tool biotool = biotools.get(i);
+
+			List<String> nameExtracted = preProcessor.extract(biotool.getName());
+			List<String> nameProcessed = preProcessor.process(biotool.getName(), nameExtracted);
+			namesExtracted.add(Arrays.asList(Common.BIOTOOLS_EXTRACTED_VERSION_TRIM.matcher(String.join(" ", nameExtracted)).replaceFirst("").split(" ")));
+			namesProcessed.add(Common.BIOTOOLS_PROCESSED_VERSION_TRIM.matcher(String.join(" ", nameProcessed)).replaceFirst(""));
+
+			List<String> toolLinks = new ArrayList<>();
+			toolLinks.add(biotool.getHomepage());
+			if (biotool.getLink() != null) {
+				toolLinks.addAll(biotool.getLink().stream().map(l -> l.getUrl()).collect(Collectors.toList()));
+			}
+			if (biotool.getDownload() != null) {
+				toolLinks.addAll(biotool.getDownload().stream().map(l -> l.getUrl()).collect(Collectors.toList()));
+			}
+			if (biotool.getDocumentation() != null) {
+				toolLinks.addAll(biotool.getDocumentation().stream().map(l -> l.getUrl()).collect(Collectors.toList()));
+			}
+			links.add(toolLinks.stream()
+				.map(l -> Common.trimUrl(l.trim()))
+				.filter(l -> !l.isEmpty())
+				.collect(Collectors.toList()));
+
+			if (biotool.getPublication() != null) {
+				for (Publication publicationIds : biotool.getPublication()) {
+					if (publicationIds.getPmid() != null) {
+						put(pmids, publicationIds.getPmid().trim(), i);
+					}
+					if (publicationIds.getPmcid() != null) {
+						put(pmcids, publicationIds.getPmcid().trim(), i);
+					}
+					if (publicationIds.getDoi() != null) {
+						put(dois, PubFetcher.normaliseDoi(publicationIds.getDoi().trim()), i);
+					}
+				}
+			}
+
+			if (biotool.getName() != null) {
+				put(names, biotool.getName(), i);
+			}
+			put(namesProcessedIndex, namesProcessed.get(i), i);
+			if (biotool.getBiotoolsID() != null) {
+				put(biotoolsIds, Pass2.NOT_ALPHANUM.matcher(Common.BIOTOOLS_PROCESSED_VERSION_TRIM.matcher(biotool.getBiotoolsID().toLowerCase(Locale.ROOT)).replaceFirst("")).replaceAll(""), i);
+			}
+			for (String nameWord : namesExtracted.get(i)) {
+				put(nameWords, nameWord, i);
+			}
+
+			for (String link : links.get(i)) {
+				put(linksCaseless, Common.foldCase(link), i);
+				putLink(linksTrimmed, Pass2.removeLowestSubdomain(link), i);
+			}
+		}
+	}
+
+	// tools are added in increasing index order, so a tool already added for a key can only be the last one
+	private static void put(Map<String, List<Integer>> index, String key, int i) {
+		List<Integer> tools = index.get(key);
+		if (tools == null) {
+			tools = new ArrayList<>();
+			index.put(key, tools);
+		}
+		if (tools.isEmpty() || tools.get(tools.size() - 1) != i) {
+			tools.add(i);
+		}
+	}
+
+	private static void putLink(LinkNode root, String link, int i) {
+		LinkNode node = root;
+		int pos = 0;
+		while (pos < link.length()) {
+			LinkNode child = node.children.get(link.charAt(pos));
+			if (child == null) {
+				child = new LinkNode(link.substring(pos));
+				node.children.put(link.charAt(pos), child);
+				node = child;
+				break;
+			}
+			int common = commonLength(child.label, link, pos);
+			if (common < child.label.length()) {
+				LinkNode split = new LinkNode(child.label.substring(0, common));
+				child.label = child.label.substring(common);
+				split.children.put(child.label.charAt(0), child);
+				node.children.put(split.label.charAt(0), split);
+				child = split;
+			}
+			node = child;
+			pos += common;
+		}
+		if (node.tools.isEmpty() || node.tools.get(node.tools.size() - 1) != i) {
+			node.tools.add(i);
+		}
+	}
+
+	private static int commonLength(String label, String link, int linkFrom) {
+		int common = 0;
+		while (common < label.length() && linkFrom + common < link.length() && label.charAt(common) == link.charAt(linkFrom + common)) {
+			++common;
+		}
+		return common;
+	}
+
+	// links found by walking down the tree along link are its prefixes, links in the subtree where link ends are extensions of it,
+	// and in both cases the rest not in common can contain at most one slash
+	private static void getLinks(LinkNode root, String link, TreeSet<Integer> candidates) {
+		int[] slashesAfter = new int[link.length() + 1];
+		for (int i = link.length() - 1; i >= 0; --i) {
+			slashesAfter[i] = slashesAfter[i + 1] + (link.charAt(i) == '/' ? 1 : 0);
+		}
+		LinkNode node = root;
+		int pos = 0;
+		while (true) {
+			if (slashesAfter[pos] <= 1) {
+				candidates.addAll(node.tools);
+			}
+			if (pos == link.length()) {
+				for (LinkNode child : node.children.values()) {
+					getLinkExtensions(child, 0, 0, candidates);
+				}
+				return;
+			}
+			LinkNode child = node.children.get(link.charAt(pos));
+			if (child == null) {
+				return;
+			}
+			int common = commonLength(child.label, link, pos);
+			if (pos + common == link.length() && common < child.label.length()) {
+				getLinkExtensions(child, common, 0, candidates);
+				return;
+			}
+			if (common < child.label.length()) {
+				return;
+			}
+			node = child;
+			pos += common;
+		}
+	}
+
+	private static void getLinkExtensions(LinkNode node, int labelFrom, int slashes, TreeSet<Integer> candidates) {
+		for (int i = labelFrom; i < node.label.length(); ++i) {
+			if (node.label.charAt(i) == '/') {
+				++slashes;
+			}
+		}
+		if (slashes > 1) {
+			return;
+		}
+		candidates.addAll(node.tools);
+		for (LinkNode child : node.children.values()) {
+			getLinkExtensions(child, 0, slashes, candidates);
+		}
+	}
+
+	private static List<Integer> get(Map<String, List<Integer>> index, String key) {
+		List<Integer> tools = index.get(key);
+		if (tools == null) {
+			return Collections.emptyList();
+		}
+		return tools;
+	}
+
+	public List<Tool> getBiotools() {
+		return biotools;
+	}
+
+	public int size() {
+		return biotools.size();
+	}
+
+	public List<List<String>> getNamesExtracted() {
+		return namesExtracted;
+	}
+
+	public List<String> getNamesProcessed() {
+		return namesProcessed;
+	}
+
+	public List<List<String>> getLinks() {
+		return links;
+	}
+
+	// bio.tools entries having a publication with a PMID, PMCID or DOI of pubIds
+	public TreeSet<Integer> getPublicationMatches(PubIds pubIds) {
+		TreeSet<Integer> matches = new TreeSet<>();
+		if (!pubIds.getPmid().isEmpty()) {
+			matches.addAll(get(pmids, pubIds.getPmid()));
+		}
+		if (!pubIds.getPmcid().isEmpty()) {
+			matches.addAll(get(pmcids, pubIds.getPmcid()));
+		}
+		if (!pubIds.getDoi().isEmpty()) {
+			matches.addAll(get(dois, pubIds.getDoi()));
+		}
+		return matches;
+	}
+
+	// bio.tools entries with name exactly equal to name
+	public List<Integer> getNameMatches(String name) {
+		return get(names, name);
+	}
+
+	// bio.tools entries with version-trimmed processed name equal to nameProcessed or with version-trimmed alphanumeric biotoolsID equal to biotoolsIdCompare
+	public TreeSet<Integer> getNameProcessedMatches(String nameProcessed, String biotoolsIdCompare) {
+		TreeSet<Integer> matches = new TreeSet<>();
+		matches.addAll(get(namesProcessedIndex, nameProcessed));
+		matches.addAll(get(biotoolsIds, biotoolsIdCompare));
+		return matches;
+	}
+
+	// bio.tools entries whose version-trimmed extracted name contains the word
+	public List<Integer> getNameWordMatches(String word) {
+		return get(nameWords, word);
+	}
+
+	// bio.tools entries that can be matched to linkTrimmed in Pass2.linksMatch:
+	// a link is equal to linkTrimmed (ignoring case) or, with lowest subdomains removed, one of them starts with the other and the rest contains at most one slash
+	public TreeSet<Integer> getLinkCandidates(String linkTrimmed) {
+		TreeSet<Integer> candidates = new TreeSet<>();
+		candidates.addAll(get(linksCaseless, Common.foldCase(linkTrimmed)));
+		String link = Pass2.removeLowestSubdomain(linkTrimmed);
+		if (!Pass2.isLinkMatchExcluded(link)) {
+			getLinks(linksTrimmed, link, candidates);
+		}
+		return candidates;
+	}
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import org.edamontology.edammap.core.input.Json;
+import org.edamontology.edammap.core.input.json.Credit;
+import org.edamontology.edammap.core.input.json.DocumentationType;
+import org.edamontology.edammap.core.input.json.DownloadType;
+import org.edamontology.edammap.core.input.json.Link;
+import org.edamontology.edammap.core.input.json.LinkDownload;
+import org.edamontology.edammap.core.input.json.LinkType;
+import org.edamontology.edammap.core.input.json.Publication;
+import org.edamontology.edammap.core.input.json.Tool;
+import org.edamontology.edammap.core.query.QueryType;
+
+// compact binary copy of the fields of bio.tools entries used by Pass2 (names, biotoolsIDs, descriptions, homepages, links, downloads, documentation, licenses, languages, publication IDs and credits),
+// written next to the bio.tools JSON file and loaded instead of it, if it was made from the current JSON file
+// layout: header, string table (offsets into UTF-8 bytes, each distinct string stored once), tool table (offsets into records of string indexes and counts)
+// a missing string or list is stored as -1, so that loaded entries have null in the same places as entries loaded from JSON
+public final class BiotoolsSnapshot {
+
+	private static final Logger logger = LogManager.getLogger();
+
+	private static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+	private static final int MAGIC = 0x50325453;
+	private static final int VERSION = 2;
+
+	private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4;
+
+	private BiotoolsSnapshot() {}
+
+	public static Path getPath(Path biotoolsPath) {
+		return biotoolsPath.resolveSibling(biotoolsPath.getFileName().toString() + SNAPSHOT_EXTENSION);
+	}
+
+	private static final class Writer {
+		private final Map<String, Integer> strings = new HashMap<>();
+		private final List<String> stringList = new ArrayList<>();
+		private int[] records = new int[1024];
+		private int recordsSize = 0;
+
+		private void add(int value) {
+			if (recordsSize == records.length) {
+				records = Arrays.copyOf(records, records.length * 2);
+			}
+			records[recordsSize++] = value;
+		}
+
+		private void add(String s) {
+			if (s == null) {
+				add(-1);
+				return;
+			}
+			Integer index = strings.get(s);
+			if (index == null) {
+				index = stringList.size();
+				strings.put(s, index);
+				stringList.add(s);
+			}
+			add(index);
+		}
+
+		private void add(Enum<?> e) {
+			add(e != null ? e.name() : null);
+		}
+
+		private void add(Tool biotool) {
+			add(biotool.getName());
+			add(biotool.getBiotoolsID());
+			add(biotool.getDescription());
+			add(biotool.getHomepage());
+			add(biotool.getHomepage_status());
+			add(biotool.getLicense());
+			if (biotool.getLanguage() == null) {
+				add(-1);
+			} else {
+				add(biotool.getLanguage().size());
+				for (String language : biotool.getLanguage()) {
+					add(language);
+				}
+			}
+			if (biotool.getLink() == null) {
+				add(-1);
+			} else {
+				add(biotool.getLink().size());
+				for (Link<LinkType> link : biotool.getLink()) {
+					add(link.getUrl());
+					addTypes(link.getType());
+				}
+			}
+			if (biotool.getDownload() == null) {
+				add(-1);
+			} else {
+				add(biotool.getDownload().size());
+				for (LinkDownload download : biotool.getDownload()) {
+					add(download.getUrl());
+					add(download.getType());
+				}
+			}
+			if (biotool.getDocumentation() == null) {
+				add(-1);
+			} else {
+				add(biotool.getDocumentation().size());
+				for (Link<DocumentationType> documentation : biotool.getDocumentation()) {
+					add(documentation.getUrl());
+					addTypes(documentation.getType());
+				}
+			}
+			if (biotool.getPublication() == null) {
+				add(-1);
+			} else {
+				add(biotool.getPublication().size());
+				for (Publication publication : biotool.getPublication()) {
+					add(publication.getPmid());
+					add(publication.getPmcid());
+					add(publication.getDoi());
+				}
+			}
+			if (biotool.getCredit() == null) {
+				add(-1);
+			} else {
+				add(biotool.getCredit().size());
+				for (Credit credit : biotool.getCredit()) {
+					add(credit.getName());
+					add(credit.getEmail());
+					add(credit.getUrl());
+					add(credit.getOrcidid());
+				}
+			}
+		}
+
+		private void addTypes(List<? extends Enum<?>> types) {
+			if (types == null) {
+				add(-1);
+			} else {
+				add(types.size());
+				for (Enum<?> type : types) {
+					add(type);
+				}
+			}
+		}
+	}
+
+	private static final class Reader {
+		private final ByteBuffer buffer;
+		private final String[] strings;
+		private int pos;
+
+		private Reader(ByteBuffer buffer, String[] strings, int pos) {
+			this.buffer = buffer;
+			this.strings = strings;
+			this.pos = pos;
+		}
+
+		private int nextInt() {
+			int value = buffer.getInt(pos);
+			pos += 4;
+			return value;
+		}
+
+		private String nextString() {
+			int index = nextInt();
+			return index >= 0 ? strings[index] : null;
+		}
+
+		private <T extends Enum<T>> T nextEnum(Class<T> type) {
+			String name = nextString();
+			return name != null ? Enum.valueOf(type, name) : null;
+		}
+
+		private <T extends Enum<T>> List<T> nextTypes(Class<T> type) {
+			int size = nextInt();
+			if (size < 0) {
+				return null;
+			}
+			List<T> types = new ArrayList<>(size);
+			for (int i = 0; i < size; ++i) {
+				types.add(nextEnum(type));
+			}
+			return types;
+		}
+
+		private Tool nextTool() {
+			Tool biotool = new Tool();
+			biotool.setName(nextString());
+			biotool.setBiotoolsID(nextString());
+			biotool.setDescription(nextString());
+			biotool.setHomepage(nextString());
+			biotool.setHomepage_status(nextInt());
+			biotool.setLicense(nextString());
+			int size = nextInt();
+			if (size >= 0) {
+				List<String> languages = new ArrayList<>(size);
+				for (int i = 0; i < size; ++i) {
+					languages.add(nextString());
+				}
+				biotool.setLanguage(languages);
+			}
+			size = nextInt();
+			if (size >= 0) {
+				List<Link<LinkType>> links = new ArrayList<>(size);
+				for (int i = 0; i < size; ++i) {
+					Link<LinkType> link = new Link<>();
+					link.setUrl(nextString());
+					link.setType(nextTypes(LinkType.class));
+					links.add(link);
+				}
+				biotool.setLink(links);
+			}
+			size = nextInt();
+			if (size >= 0) {
+				List<LinkDownload> downloads = new ArrayList<>(size);
+				for (int i = 0; i < size; ++i) {
+					LinkDownload download = new LinkDownload();
+					download.setUrl(nextString());
+					download.setType(nextEnum(DownloadType.class));
+					downloads.add(download);
+				}
+				biotool.setDownload(downloads);
+			}
+			size = nextInt();
+			if (size >= 0) {
+				List<Link<DocumentationType>> documentations = new ArrayList<>(size);
+				for (int i = 0; i < size; ++i) {
+					Link<DocumentationType> documentation = new Link<>();
+					documentation.setUrl(nextString());
+					documentation.setType(nextTypes(DocumentationType.class));
+					documentations.add(documentation);
+				}
+				biotool.setDocumentation(documentations);
+			}
+			size = nextInt();
+			if (size >= 0) {
+				List<Publication> publications = new ArrayList<>(size);
+				for (int i = 0; i < size; ++i) {
+					Publication publication = new Publication();
+					publication.setPmid(nextString());
+					publication.setPmcid(nextString());
+					publication.setDoi(nextString());
+					publications.add(publication);
+				}
+				biotool.setPublication(publications);
+			}
+			size = nextInt();
+			if (size >= 0) {
+				List<Credit> credits = new ArrayList<>(size);
+				for (int i = 0; i < size; ++i) {
+					Credit credit = new Credit();
+					credit.setName(nextString());
+					credit.setEmail(nextString());
+					credit.setUrl(nextString());
+					credit.setOrcidid(nextString());
+					credits.add(credit);
+				}
+				biotool.setCredit(credits);
+			}
+			return biotool;
+		}
+	}
+
+	// the size and modification time of biotoolsPath are stored, so that a snapshot left over from an older JSON file is not used
+	public static void write(List<Tool> biotools, Path biotoolsPath, String logPrefix) throws IOException {
+		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
+		Path snapshotPath = getPath(biotoolsPath);
+		logger.info(mainMarker, "{}Writing snapshot of {} bio.tools entries to {}", logPrefix, biotools.size(), snapshotPath.toString());
+
+		Writer writer = new Writer();
+		int[] toolOffsets = new int[biotools.size() + 1];
+		for (int i = 0; i < biotools.size(); ++i) {
+			toolOffsets[i] = writer.recordsSize;
+			writer.add(biotools.get(i));
+		}
+		toolOffsets[biotools.size()] = writer.recordsSize;
+
+		byte[][] stringBytes = new byte[writer.stringList.size()][];
+		for (int i = 0; i < stringBytes.length; ++i) {
+			stringBytes[i] = writer.stringList.get(i).getBytes(StandardCharsets.UTF_8);
+		}
+
+		Path tmpPath = Files.createTempFile(snapshotPath.toAbsolutePath().getParent(), "biotools-", ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(Files.size(biotoolsPath));
+				out.writeLong(Files.getLastModifiedTime(biotoolsPath).toMillis());
+				out.writeInt(stringBytes.length);
+				out.writeInt(biotools.size());
+				int stringOffset = 0;
+				for (byte[] bytes : stringBytes) {
+					out.writeInt(stringOffset);
+					stringOffset += bytes.length;
+				}
+				out.writeInt(stringOffset);
+				for (byte[] bytes : stringBytes) {
+					out.write(bytes);
+				}
+				for (int toolOffset : toolOffsets) {
+					out.writeInt(toolOffset);
+				}
+				for (int i = 0; i < writer.recordsSize; ++i) {
+					out.writeInt(writer.records[i]);
+				}
+			}
+			Files.move(tmpPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmpPath);
+		}
+	}
+
+	// null if there is no snapshot for biotoolsPath or it was not made from the current biotoolsPath
+	public static List<Tool> load(Path biotoolsPath) throws IOException {
+		Path snapshotPath = getPath(biotoolsPath);
+		if (!Files.isReadable(snapshotPath) || !Files.isReadable(biotoolsPath)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE) {
+				return null;
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+					|| buffer.getLong(8) != Files.size(biotoolsPath) || buffer.getLong(16) != Files.getLastModifiedTime(biotoolsPath).toMillis()) {
+				return null;
+			}
+			int stringCount = buffer.getInt(24);
+			int toolCount = buffer.getInt(28);
+
+			int stringOffsetsPos = HEADER_SIZE;
+			int stringBytesPos = stringOffsetsPos + (stringCount + 1) * 4;
+			String[] strings = new String[stringCount];
+			byte[] bytes = new byte[buffer.getInt(stringOffsetsPos + stringCount * 4)];
+			buffer.position(stringBytesPos);
+			buffer.get(bytes);
+			for (int i = 0; i < stringCount; ++i) {
+				int from = buffer.getInt(stringOffsetsPos + i * 4);
+				int to = buffer.getInt(stringOffsetsPos + (i + 1) * 4);
+				strings[i] = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+			}
+
+			int toolOffsetsPos = stringBytesPos + bytes.length;
+			int recordsPos = toolOffsetsPos + (toolCount + 1) * 4;
+			List<Tool> biotools = new ArrayList<>(toolCount);
+			for (int i = 0; i < toolCount; ++i) {
+				Reader reader = new Reader(buffer, strings, recordsPos + buffer.getInt(toolOffsetsPos + i * 4) * 4);
+				biotools.add(reader.nextTool());
+			}
+			return biotools;
+		}
+	}
+
+	// bio.tools content from the snapshot if it is current, otherwise from the JSON file
+	@SuppressWarnings("unchecked")
+	public static List<Tool> loadBiotools(Path biotoolsPath, int timeout, String userAgent, String logPrefix) throws IOException, ParseException {
+		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
+		List<Tool> biotools = load(biotoolsPath);
+		if (biotools != null) {
+			logger.info(mainMarker, "{}Loaded {} bio.tools entries from snapshot {}", logPrefix, biotools.size(), getPath(biotoolsPath).toString());
+			return biotools;
+		}
+		logger.info(mainMarker, "{}Loading all bio.tools content from {}", logPrefix, biotoolsPath.toString());
+		return (List<Tool>) Json.load(biotoolsPath.toString(), QueryType.biotools, timeout, userAgent);
+	}
+}
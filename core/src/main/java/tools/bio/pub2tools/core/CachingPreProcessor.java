@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.edamontology.edammap.core.preprocessing.PreProcessor;
+import org.edamontology.edammap.core.preprocessing.PreProcessorArgs;
+
+// PreProcessor whose results of extract, process and sentences are looked up from and stored to a PreProcessorCache
+// returned lists are always new copies, so callers can modify these like the ones returned by PreProcessor
+public class CachingPreProcessor extends PreProcessor {
+
+	private static final char SEPARATOR = '\u0000';
+	private static final char LIST_SEPARATOR = '\u0001';
+
+	private final PreProcessorCache cache;
+
+	private final String argsKey;
+
+	public CachingPreProcessor(PreProcessorArgs args, PreProcessorCache cache) throws IOException {
+		this(args, PreProcessor.getStopwords(args.getStopwords()), cache);
+	}
+
+	// results are keyed by the content of stopwords, not only by the Stopwords of args, as any list of stopwords can be given here
+	public CachingPreProcessor(PreProcessorArgs args, List<String> stopwords, PreProcessorCache cache) {
+		super(args, stopwords);
+		this.cache = cache;
+		this.argsKey = argsKey(args) + " " + Integer.toHexString(stopwords != null ? stopwords.hashCode() : 0);
+	}
+
+	// all args influencing the output of PreProcessor
+	public static String argsKey(PreProcessorArgs args) {
+		return args.isNumbers() + " " + args.getStopwords() + " " + args.isStemming() + " " + args.getMinLength();
+	}
+
+	private String key(String method, String input) {
+		return argsKey + SEPARATOR + method + SEPARATOR + input;
+	}
+
+	public PreProcessorCache getCache() {
+		return cache;
+	}
+
+	@Override
+	public List<String> extract(String input) {
+		if (input == null) {
+			return super.extract(input);
+		}
+		String key = key("extract", input);
+		List<List<String>> value = cache.get(key);
+		if (value == null) {
+			List<String> extracted = super.extract(input);
+			value = Arrays.asList(new ArrayList<>(extracted));
+			cache.put(key, value);
+			return extracted;
+		}
+		return new ArrayList<>(value.get(0));
+	}
+
+	@Override
+	public List<String> process(String input) {
+		if (input == null) {
+			return super.process(input);
+		}
+		String key = key("process", input);
+		List<List<String>> value = cache.get(key);
+		if (value == null) {
+			List<String> processed = super.process(input);
+			value = Arrays.asList(new ArrayList<>(processed));
+			cache.put(key, value);
+			return processed;
+		}
+		return new ArrayList<>(value.get(0));
+	}
+
+	// extracted is modified in place by PreProcessor (to keep it aligned with the processed tokens),
+	// so its state after processing is also cached and replayed into extracted on a hit
+	@Override
+	public List<String> process(String input, List<String> extracted) {
+		if (input == null || extracted == null) {
+			return super.process(input, extracted);
+		}
+		String key = key("processExtracted", input) + SEPARATOR + String.join(String.valueOf(LIST_SEPARATOR), extracted);
+		List<List<String>> value = cache.get(key);
+		if (value == null) {
+			List<String> processed = super.process(input, extracted);
+			value = Arrays.asList(new ArrayList<>(extracted), new ArrayList<>(processed));
+			cache.put(key, value);
+			return processed;
+		}
+		extracted.clear();
+		extracted.addAll(value.get(0));
+		return new ArrayList<>(value.get(1));
+	}
+
+	@Override
+	public List<String> sentences(String input) {
+		if (input == null) {
+			return super.sentences(input);
+		}
+		String key = key("sentences", input);
+		List<List<String>> value = cache.get(key);
+		if (value == null) {
+			List<String> sentences = super.sentences(input);
+			value = Arrays.asList(new ArrayList<>(sentences));
+			cache.put(key, value);
+			return sentences;
+		}
+		return new ArrayList<>(value.get(0));
+	}
+}
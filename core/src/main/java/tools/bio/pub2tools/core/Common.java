@@ -19,12 +19,20 @@
 
 package tools.bio.pub2tools.core;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -48,6 +56,7 @@ public final class Common {
 	public static final String WEB_FILE = "web.txt";
 	public static final String DOC_FILE = "doc.txt";
 	public static final String PASS1_FILE = "pass1.json";
+	public static final String PREPROCESSOR_CACHE_FILE = "preprocessor_cache.json";
 	static final String RESULTS_FILE = "results.csv";
 	static final String DIFF_FILE = "diff.csv";
 	public static final String NEW_FILE = "new.json";
@@ -138,6 +147,17 @@ public final class Common {
 
 	static final int LINK_MATCH_DISPLAY_LIMIT = 5;
 
+	// if path is null, what is written is discarded
+	static BufferedWriter newWriter(Path path) throws IOException {
+		if (path == null) {
+			return new BufferedWriter(Writer.nullWriter());
+		}
+		CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+		encoder.onMalformedInput(CodingErrorAction.REPLACE);
+		encoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), encoder));
+	}
+
 	static String prependHttp(String url) {
 		if (!SCHEMA_START.matcher(url).find()) {
 			return "http://" + url;
@@ -179,56 +199,17 @@ public final class Common {
 		}
 	}
 
-	static boolean isAcronym(String acronym, String phrase, boolean allWords) {
-		acronym = acronym.trim();
-		phrase = phrase.trim().replaceAll("-", " ");
-		boolean patternValid = false;
-		String acronymPattern = "(?i)";
-		if (allWords) {
-			acronymPattern += "^";
-		} else {
-			acronymPattern += "(^| )";
-		}
-		if (phrase.indexOf(" ") > -1 && acronym.indexOf(" ") < 0) {
-			for (int i = 0; i < acronym.length(); ++i) {
-				String c = String.valueOf(acronym.charAt(i));
-				if (USE_IN_PATTERN.matcher(c).matches()) {
-					if (patternValid) {
-						if (allWords) {
-							acronymPattern += "[^ ]* *";
-						} else {
-							acronymPattern += "([^ ]*|.* )";
-						}
-					}
-					patternValid = true;
-					acronymPattern += "[^ \\p{L}\\p{N}]*(\\p{L}+(?=\\p{Lu}))?" + c;
-				}
-			}
-		}
-		if (allWords) {
-			acronymPattern += "[^ ]*$";
-		}
-		if (!patternValid) {
-			return false;
-		}
-		Matcher acronymMatcher = Pattern.compile(acronymPattern).matcher(phrase);
-		if (acronymMatcher.find()) {
-			if (phrase.substring(acronymMatcher.start(), acronymMatcher.end()).trim().indexOf(" ") > -1) {
-				return true;
-			} else {
-				if (phrase.substring(acronymMatcher.end() - 1, acronymMatcher.end()).equals(" ")) {
-					if (acronymMatcher.end() - 2 >= 0) {
-						return isAcronym(acronym, phrase.substring(0, acronymMatcher.end() - 2) + phrase.substring(acronymMatcher.end() - 1), allWords);
-					} else {
-						return false;
-					}
-				} else {
-					return isAcronym(acronym, phrase.substring(0, acronymMatcher.end() - 1) + phrase.substring(acronymMatcher.end()), allWords);
-				}
-			}
-		} else {
-			return false;
+	// two strings are equal ignoring case exactly when their folded forms are equal, same as in String.equalsIgnoreCase
+	static String foldCase(String s) {
+		char[] chars = s.toCharArray();
+		for (int i = 0; i < chars.length; ++i) {
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
 		}
+		return new String(chars);
+	}
+
+	static boolean isAcronym(String acronym, String phrase, boolean allWords) {
+		return AcronymMatcher.isAcronym(acronym, phrase, allWords);
 	}
 
 	static String toolTitlePrune(List<String> toolTitleExtracted) {
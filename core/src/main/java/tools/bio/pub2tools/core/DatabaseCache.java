@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.edamontology.pubfetcher.core.db.Database;
+import org.edamontology.pubfetcher.core.db.webpage.Webpage;
+
+// bounded cache of webpages and docs got from a PubFetcher Database, so that the same entry is not deserialised again for each lookup
+// entries are never changed in the cache, so webpages and docs got from it must not be modified
+// the lock is only held for accessing the map, entries are loaded from the Database outside of it, with concurrent gets of the same entry waiting for the one load
+public class DatabaseCache {
+
+	private final Database db;
+
+	private final int size;
+
+	// missing entries are cached as empty
+	private final Map<String, CompletableFuture<Optional<Webpage>>> entries;
+
+	public DatabaseCache(Database db, int size) {
+		this.db = db;
+		this.size = size;
+		this.entries = new LinkedHashMap<String, CompletableFuture<Optional<Webpage>>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Optional<Webpage>>> eldest) {
+				return size() > DatabaseCache.this.size;
+			}
+		};
+	}
+
+	private static String key(String url, boolean doc, boolean finalUrl) {
+		return (doc ? "d" : "w") + (finalUrl ? "f" : "-") + url;
+	}
+
+	private Webpage get(String url, boolean doc, boolean finalUrl) {
+		String key = key(url, doc, finalUrl);
+		CompletableFuture<Optional<Webpage>> entry;
+		boolean load = false;
+		synchronized (entries) {
+			entry = entries.get(key);
+			if (entry == null) {
+				entry = new CompletableFuture<>();
+				load = true;
+				if (size > 0) {
+					entries.put(key, entry);
+				}
+			}
+		}
+		if (load) {
+			try {
+				entry.complete(Optional.ofNullable(doc ? db.getDoc(url, finalUrl) : db.getWebpage(url, finalUrl)));
+			} catch (RuntimeException | Error e) {
+				// not cached, so that the next get tries loading again
+				synchronized (entries) {
+					entries.remove(key, entry);
+				}
+				entry.completeExceptionally(e);
+				throw e;
+			}
+		}
+		return entry.join().orElse(null);
+	}
+
+	public Webpage getWebpage(String url, boolean finalUrl) {
+		return get(url, false, finalUrl);
+	}
+
+	public Webpage getDoc(String url, boolean finalUrl) {
+		return get(url, true, finalUrl);
+	}
+
+	// load the webpages (or docs, if doc is true) of all urls at once, only the given keys are loaded, so callers must prefetch exactly what they will read
+	public void prefetch(Collection<String> urls, boolean doc, boolean finalUrl) {
+		for (String url : urls) {
+			get(url, doc, finalUrl);
+		}
+	}
+
+	public Database getDatabase() {
+		return db;
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+}
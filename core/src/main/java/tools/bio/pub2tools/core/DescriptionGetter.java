@@ -30,7 +30,6 @@ import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import org.edamontology.pubfetcher.core.db.Database;
 import org.edamontology.pubfetcher.core.db.webpage.Webpage;
 import org.edamontology.pubfetcher.core.scrape.Scrape;
 
@@ -137,7 +136,7 @@ public final class DescriptionGetter {
 		return Pattern.compile("(?i)" + name).matcher(description).find();
 	}
 
-	private static void descriptionsFromWebpage(List<Description> descriptions, String url, Database db, Scrape scrape, int minLength, String name, Boolean doc, PreProcessor preProcessor) {
+	private static void descriptionsFromWebpage(List<Description> descriptions, String url, DatabaseCache db, Scrape scrape, int minLength, String name, Boolean doc, PreProcessor preProcessor) {
 		boolean hasScrape = scrape.getWebpage(url) != null;
 		Webpage webpage = null;
 		if (doc == null || !doc) {
@@ -239,7 +238,7 @@ public final class DescriptionGetter {
 		}
 	}
 
-	private static String getDescription(List<Description> descriptions, String homepage, Set<BiotoolsLink<LinkType>> linkLinks, Set<BiotoolsLink<DocumentationType>> documentationLinks, Set<BiotoolsLink<DownloadType>> downloadLinks, Database db, Scrape scrape, int minLength, int maxLength, String name, PreProcessor preProcessor) {
+	private static String getDescription(List<Description> descriptions, String homepage, Set<BiotoolsLink<LinkType>> linkLinks, Set<BiotoolsLink<DocumentationType>> documentationLinks, Set<BiotoolsLink<DownloadType>> downloadLinks, DatabaseCache db, Scrape scrape, int minLength, int maxLength, String name, PreProcessor preProcessor) {
 		if (!homepage.isEmpty()) {
 			descriptionsFromWebpage(descriptions, homepage, db, scrape, minLength, name, null, preProcessor);
 		}
@@ -273,7 +272,7 @@ public final class DescriptionGetter {
 		return !description.isEmpty() ? description + "." : "";
 	}
 
-	static String get(Suggestion2 suggestion, boolean include, boolean homepageBroken, boolean homepageMissing, List<Tool> biotools, Result2 result, String homepage, Set<BiotoolsLink<LinkType>> linkLinks, Set<BiotoolsLink<DocumentationType>> documentationLinks, Set<BiotoolsLink<DownloadType>> downloadLinks, Database db, Scrape scrape, String name, PreProcessor preProcessor) {
+	static String get(Suggestion2 suggestion, boolean include, boolean homepageBroken, boolean homepageMissing, List<Tool> biotools, Result2 result, String homepage, Set<BiotoolsLink<LinkType>> linkLinks, Set<BiotoolsLink<DocumentationType>> documentationLinks, Set<BiotoolsLink<DownloadType>> downloadLinks, DatabaseCache db, Scrape scrape, String name, PreProcessor preProcessor) {
 		List<String> messages = new ArrayList<>();
 		if (suggestion == null || !include) {
 			messages.add("NOT INCLUDED!");
@@ -26,7 +26,6 @@ import java.util.List;
 import java.util.Set;
 
 import org.edamontology.pubfetcher.core.common.PubFetcher;
-import org.edamontology.pubfetcher.core.db.Database;
 import org.edamontology.pubfetcher.core.db.publication.CorrespAuthor;
 import org.edamontology.pubfetcher.core.db.webpage.Webpage;
 
@@ -40,7 +39,7 @@ import org.edamontology.edammap.core.input.json.Tool;
 
 public final class DiffGetter {
 
-	private static boolean linksEqual(String addLink, String addLinkTrimmed, String biotoolsLink, Database db, boolean addLinkDoc, boolean biotoolsLinkDoc) {
+	private static boolean linksEqual(String addLink, String addLinkTrimmed, String biotoolsLink, DatabaseCache db, boolean addLinkDoc, boolean biotoolsLinkDoc) {
 		String biotoolsLinkTrimmed = Common.trimUrl(biotoolsLink);
 		if (addLinkTrimmed.equals(biotoolsLinkTrimmed)) {
 			return true;
@@ -84,7 +83,7 @@ public final class DiffGetter {
 		return false;
 	}
 
-	private static void addHomepageToLinks(List<BiotoolsLink<LinkType>> linkLinks, List<BiotoolsLink<DownloadType>> downloadLinks, List<BiotoolsLink<DocumentationType>> documentationLinks, Set<BiotoolsLink<LinkType>> links, Set<BiotoolsLink<DownloadType>> downloads, Set<BiotoolsLink<DocumentationType>> documentations, Database db, boolean biotoolsHomepage) {
+	private static void addHomepageToLinks(List<BiotoolsLink<LinkType>> linkLinks, List<BiotoolsLink<DownloadType>> downloadLinks, List<BiotoolsLink<DocumentationType>> documentationLinks, Set<BiotoolsLink<LinkType>> links, Set<BiotoolsLink<DownloadType>> downloads, Set<BiotoolsLink<DocumentationType>> documentations, DatabaseCache db, boolean biotoolsHomepage) {
 		boolean found = false;
 		if (!linkLinks.isEmpty()) {
 			for (BiotoolsLink<LinkType> link : links) {
@@ -119,7 +118,7 @@ public final class DiffGetter {
 		}
 	}
 
-	static Diff makeDiff(double scoreScore2, Set<Integer> possiblyRelated, List<Tool> biotools, int existing, List<PubIds> publications, Collection<PubIds> addPublications, String modifyName, String homepage, Set<BiotoolsLink<LinkType>> links, Set<BiotoolsLink<DownloadType>> downloads, Set<BiotoolsLink<DocumentationType>> documentations, Provenance license, List<Provenance> languages, List<CorrespAuthor> credits, Database db) {
+	static Diff makeDiff(double scoreScore2, Set<Integer> possiblyRelated, List<Tool> biotools, int existing, List<PubIds> publications, Collection<PubIds> addPublications, String modifyName, String homepage, Set<BiotoolsLink<LinkType>> links, Set<BiotoolsLink<DownloadType>> downloads, Set<BiotoolsLink<DocumentationType>> documentations, Provenance license, List<Provenance> languages, List<CorrespAuthor> credits, DatabaseCache db) {
 		Diff diff = new Diff();
 
 		diff.setScoreScore2(scoreScore2);
@@ -20,6 +20,7 @@
 package tools.bio.pub2tools.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,10 +32,22 @@ public class Language {
 	private static final Pattern CPP = Pattern.compile("(?i)(^|[" + License.START_CHARS + "]|[" + License.SEPARATOR_CHARS + "])C [+][+]([" + License.END_CHARS + "]|[" + License.SEPARATOR_CHARS + "]|$)");
 	private static final Pattern SQL = Pattern.compile("(?i)(^|[" + License.START_CHARS + "]|[" + License.SEPARATOR_CHARS + "])(MySQL|PostgreSQL|SQLite)([" + License.END_CHARS + "]|[" + License.SEPARATOR_CHARS + "]|$)");
 	private static final Pattern HYPHEN_CDR = Pattern.compile("(?i)-(C|D|R)([" + License.END_CHARS + "]|[" + License.SEPARATOR_CHARS + "]|$)");
-	private static final Pattern KEYWORD_REQUIRED = Pattern.compile("(?i)^(C|D|R|Forth|PyMOL|Scheme|Shell)$");
-	private static final Pattern R = Pattern.compile("(?i)^(bioconductor|bioconductor\\.org|www\\.bioconductor\\.org|shiny|cran|cran\\.r)$");
-	private static final Pattern PYTHON = Pattern.compile("(?i)^(pypi|pypi\\.org|pypi\\.python\\.org|ipython|numpy|scipy|django|python2|python3)$");
-	private static final Pattern JAVA = Pattern.compile("(?i)^(apps\\.cytoscape\\.org|biojava)$");
+	static final Pattern KEYWORD_REQUIRED = Pattern.compile("(?i)^(C|D|R|Forth|PyMOL|Scheme|Shell)$");
+	static final String[] R_ALIASES = { "bioconductor", "bioconductor.org", "www.bioconductor.org", "shiny", "cran", "cran.r" };
+	static final String[] PYTHON_ALIASES = { "pypi", "pypi.org", "pypi.python.org", "ipython", "numpy", "scipy", "django", "python2", "python3" };
+	static final String[] JAVA_ALIASES = { "apps.cytoscape.org", "biojava" };
+	private static final Pattern R = aliasPattern(R_ALIASES);
+	private static final Pattern PYTHON = aliasPattern(PYTHON_ALIASES);
+	private static final Pattern JAVA = aliasPattern(JAVA_ALIASES);
+
+	// the regex chars of License, unescaped
+	private static final String SEPARATORS = License.SEPARATOR_CHARS.replace("\\", "");
+	private static final String STARTS = License.START_CHARS.replace("\\", "");
+	private static final String ENDS = License.END_CHARS.replace("\\", "");
+
+	private static Pattern aliasPattern(String[] aliases) {
+		return Pattern.compile("(?i)^(" + Arrays.stream(aliases).map(a -> Pattern.quote(a)).collect(Collectors.joining("|")) + ")$");
+	}
 
 	public static class LanguageSearch {
 
@@ -42,15 +55,68 @@ public class Language {
 
 		public LanguageSearch(String languageSearch) {
 			languageSearch = Common.WHITESPACE.matcher(languageSearch).replaceAll(" ");
-			languageSearch = CPP.matcher(languageSearch).replaceAll("$1C++$2");
-			languageSearch = SQL.matcher(languageSearch).replaceAll("$1SQL$3");
-			languageSearch = HYPHEN_CDR.matcher(languageSearch).replaceAll("$1$2");
+			// the patterns can't match without these
+			if (languageSearch.contains("++")) {
+				languageSearch = CPP.matcher(languageSearch).replaceAll("$1C++$2");
+			}
+			if (containsSql(languageSearch)) {
+				languageSearch = SQL.matcher(languageSearch).replaceAll("$1SQL$3");
+			}
+			if (languageSearch.indexOf('-') > -1) {
+				languageSearch = HYPHEN_CDR.matcher(languageSearch).replaceAll("$1$2");
+			}
 			languageSearch = languageSearch.trim();
-			for (String part : License.SEPARATOR.split(languageSearch)) {
-				part = License.START.matcher(part).replaceFirst("");
-				part = License.END.matcher(part).replaceFirst("");
-				parts.add(part);
+			split(languageSearch);
+		}
+
+		private static boolean containsSql(String languageSearch) {
+			for (int i = 0; i + 3 <= languageSearch.length(); ++i) {
+				if (languageSearch.regionMatches(true, i, "SQL", 0, 3)) {
+					return true;
+				}
 			}
+			return false;
+		}
+
+		// same as splitting with License.SEPARATOR (where trailing empty parts are dropped)
+		// and removing License.START and License.END from each part, but without regexes
+		private void split(String languageSearch) {
+			List<String> split = new ArrayList<>();
+			int from = 0;
+			boolean separated = false;
+			for (int i = 0; i < languageSearch.length(); ) {
+				if (SEPARATORS.indexOf(languageSearch.charAt(i)) > -1) {
+					split.add(languageSearch.substring(from, i));
+					while (i < languageSearch.length() && SEPARATORS.indexOf(languageSearch.charAt(i)) > -1) {
+						++i;
+					}
+					from = i;
+					separated = true;
+				} else {
+					++i;
+				}
+			}
+			split.add(languageSearch.substring(from));
+			if (separated) {
+				while (!split.isEmpty() && split.get(split.size() - 1).isEmpty()) {
+					split.remove(split.size() - 1);
+				}
+			}
+			for (String part : split) {
+				int start = 0;
+				while (start < part.length() && STARTS.indexOf(part.charAt(start)) > -1) {
+					++start;
+				}
+				int end = part.length();
+				while (end > start && ENDS.indexOf(part.charAt(end - 1)) > -1) {
+					--end;
+				}
+				parts.add(part.substring(start, end));
+			}
+		}
+
+		List<String> getParts() {
+			return parts;
 		}
 
 		public List<String> getMatches(List<Language> languages, boolean definitelyContainsLanguage, List<String> languageKeywords) {
@@ -132,4 +198,8 @@ public class Language {
 	public String getOriginal() {
 		return original;
 	}
+
+	List<String> getParts() {
+		return parts;
+	}
 }
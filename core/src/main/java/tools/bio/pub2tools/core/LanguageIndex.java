@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import tools.bio.pub2tools.core.Language.LanguageSearch;
+
+// languages indexed by their first word (ignoring case) and by their aliases, and language keywords as a set,
+// so that the languages of a search are found in one pass over its parts
+public class LanguageIndex {
+
+	private final List<Language> languages;
+
+	private final List<List<String>> partsFolded = new ArrayList<>();
+
+	private final boolean[] keywordRequired;
+
+	private final Map<String, List<Integer>> firstParts = new HashMap<>();
+
+	// aliases are matched case-insensitively only in ASCII, so are stored in lower case
+	private final Map<String, List<Integer>> aliases = new HashMap<>();
+
+	private final Set<String> keywords = new HashSet<>();
+
+	public LanguageIndex(List<Language> languages, List<String> languageKeywords) {
+		this.languages = languages;
+		this.keywordRequired = new boolean[languages.size()];
+		for (int i = 0; i < languages.size(); ++i) {
+			List<String> parts = languages.get(i).getParts();
+			List<String> folded = new ArrayList<>();
+			for (String part : parts) {
+				folded.add(Common.foldCase(part));
+			}
+			partsFolded.add(folded);
+			if (parts.isEmpty() || parts.get(0).equals("Other")) {
+				continue;
+			}
+			keywordRequired[i] = Language.KEYWORD_REQUIRED.matcher(parts.get(0)).matches();
+			put(firstParts, folded.get(0), i);
+			if (parts.get(0).equals("R")) {
+				putAliases(Language.R_ALIASES, i);
+			} else if (parts.get(0).equals("Python")) {
+				putAliases(Language.PYTHON_ALIASES, i);
+			} else if (parts.get(0).equals("Java")) {
+				putAliases(Language.JAVA_ALIASES, i);
+			}
+		}
+		for (String languageKeyword : languageKeywords) {
+			keywords.add(Common.foldCase(languageKeyword));
+		}
+	}
+
+	private static void put(Map<String, List<Integer>> index, String key, int i) {
+		List<Integer> indexes = index.get(key);
+		if (indexes == null) {
+			indexes = new ArrayList<>();
+			index.put(key, indexes);
+		}
+		indexes.add(i);
+	}
+
+	private void putAliases(String[] languageAliases, int i) {
+		for (String alias : languageAliases) {
+			put(aliases, alias.toLowerCase(Locale.ROOT), i);
+		}
+	}
+
+	// same as new LanguageSearch(languageSearch).getMatches(languages, definitelyContainsLanguage, languageKeywords)
+	public List<String> getMatches(String languageSearch, boolean definitelyContainsLanguage) {
+		List<String> parts = new LanguageSearch(languageSearch).getParts();
+		List<String> folded = new ArrayList<>(parts.size());
+		for (String part : parts) {
+			folded.add(Common.foldCase(part));
+		}
+
+		// index of the first part where each language is found, in the order found
+		Map<Integer, Integer> found = new HashMap<>();
+		List<Integer> matched = new ArrayList<>();
+		for (int i = 0; i < parts.size(); ++i) {
+			List<Integer> candidates = firstParts.get(folded.get(i));
+			if (candidates != null) {
+				for (int language : candidates) {
+					if (!found.containsKey(language) && matches(language, parts, folded, i, definitelyContainsLanguage)) {
+						found.put(language, i);
+						matched.add(language);
+					}
+				}
+			}
+			String alias = asciiLowerCase(parts.get(i));
+			if (alias != null) {
+				List<Integer> aliased = aliases.get(alias);
+				if (aliased != null) {
+					for (int language : aliased) {
+						if (!found.containsKey(language)) {
+							found.put(language, i);
+							matched.add(language);
+						}
+					}
+				}
+			}
+		}
+
+		// ordered by part index and then by order in languages, same as in LanguageSearch.getMatches
+		matched.sort(Comparator.<Integer>comparingInt(language -> found.get(language)).thenComparingInt(language -> language));
+		List<String> matches = new ArrayList<>(matched.size());
+		for (int language : matched) {
+			matches.add(languages.get(language).getOriginal());
+		}
+		return matches;
+	}
+
+	private boolean matches(int language, List<String> parts, List<String> folded, int i, boolean definitelyContainsLanguage) {
+		List<String> languageParts = languages.get(language).getParts();
+		List<String> languageFolded = partsFolded.get(language);
+		if (languageParts.get(0).equals("Scheme") && !parts.get(i).equals(languageParts.get(0))) {
+			return false;
+		}
+		int j = 1;
+		for (; j < languageParts.size(); ++j) {
+			if (i + j >= parts.size() || !folded.get(i + j).equals(languageFolded.get(j))) {
+				return false;
+			}
+		}
+		if (!definitelyContainsLanguage && keywordRequired[language]) {
+			for (int k = (i - 4 < 0 ? 0 : i - 4); k < (i + j + 4 > parts.size() ? parts.size() : i + j + 4); ++k) {
+				if (k >= i && k < i + j) continue;
+				if (keywords.contains(folded.get(k))) {
+					return true;
+				}
+			}
+			return false;
+		}
+		return true;
+	}
+
+	private static String asciiLowerCase(String part) {
+		for (int i = 0; i < part.length(); ++i) {
+			if (part.charAt(i) >= 128) {
+				return null;
+			}
+		}
+		return part.toLowerCase(Locale.ROOT);
+	}
+}
@@ -46,7 +46,7 @@ public class License {
 	static final Pattern START = Pattern.compile("^[" + START_CHARS + "]+");
 	static final Pattern END = Pattern.compile("[" + END_CHARS + "]+$");
 	private static final Pattern ACRONYM = Pattern.compile("^(\\p{Lu}+)[^\\p{N}]*$");
-	private static final Pattern LICENSE = Pattern.compile("(?i)Licen[sc]");
+	static final Pattern LICENSE = Pattern.compile("(?i)Licen[sc]");
 	private static final Pattern NUMBER = Pattern.compile("\\p{N}");
 
 	public static class LicenseSearch {
@@ -106,6 +106,30 @@ public class License {
 			return false;
 		}
 
+		List<String> getParts() {
+			return parts;
+		}
+
+		// acronyms of 3 to 7 letters that can be matched to the first part of a license when definitelyContainsLicense, same as in License.match
+		List<String> getAcronyms() {
+			List<String> acronyms = new ArrayList<>();
+			String acronym = "";
+			for (String part : parts) {
+				Matcher acronymMatcher = ACRONYM.matcher(part);
+				if (!acronymMatcher.find()) {
+					break;
+				}
+				acronym += acronymMatcher.group(1);
+				if (acronym.length() > 7) {
+					break;
+				}
+				if (acronym.length() >= 3) {
+					acronyms.add(acronym);
+				}
+			}
+			return acronyms;
+		}
+
 		public License bestMatch(List<License> licenses, boolean definitelyContainsLicense) {
 			License bestLicense = null;
 			Match bestMatch = new Match();
@@ -310,4 +334,9 @@ public class License {
 	public String getOriginal() {
 		return original;
 	}
+
+	// a license can only be matched if its first part is found in the search (ignoring case) or is an acronym of the search
+	String getFirstPart() {
+		return parts.isEmpty() ? null : parts.get(0);
+	}
 }
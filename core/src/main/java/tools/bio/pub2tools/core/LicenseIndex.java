@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import tools.bio.pub2tools.core.License.LicenseSearch;
+
+// licenses indexed by their first part (ignoring case), so that LicenseSearch.bestMatch is only done against the licenses that can match the search
+public class LicenseIndex {
+
+	private final List<License> licenses;
+
+	private final Map<String, List<Integer>> firstParts = new HashMap<>();
+
+	// first parts of licenses containing "GPL", as only these can be matched without "Licen[sc]" in the search when not definitelyContainsLicense
+	private final List<String> gplFirstParts = new ArrayList<>();
+
+	public LicenseIndex(List<License> licenses) {
+		this.licenses = licenses;
+		for (int i = 0; i < licenses.size(); ++i) {
+			License license = licenses.get(i);
+			String firstPart = license.getFirstPart();
+			if (firstPart == null) {
+				continue;
+			}
+			String key = Common.foldCase(firstPart);
+			List<Integer> indexes = firstParts.get(key);
+			if (indexes == null) {
+				indexes = new ArrayList<>();
+				firstParts.put(key, indexes);
+			}
+			indexes.add(i);
+			if (license.getOriginal().contains("GPL") && !gplFirstParts.contains(firstPart)) {
+				gplFirstParts.add(firstPart);
+			}
+		}
+	}
+
+	public List<License> getLicenses() {
+		return licenses;
+	}
+
+	// same as new LicenseSearch(licenseSearch).bestMatch(licenses, definitelyContainsLicense)
+	public License bestMatch(String licenseSearch, boolean definitelyContainsLicense) {
+		if (!definitelyContainsLicense && !mayContainLicense(licenseSearch)) {
+			return null;
+		}
+		LicenseSearch search = new LicenseSearch(licenseSearch);
+		// candidates are matched in the order of licenses, as bestMatch keeps the first of equally good matches
+		BitSet candidates = new BitSet(licenses.size());
+		for (String part : search.getParts()) {
+			addCandidates(candidates, part);
+		}
+		if (definitelyContainsLicense) {
+			for (String acronym : search.getAcronyms()) {
+				addCandidates(candidates, acronym);
+			}
+		}
+		if (candidates.isEmpty()) {
+			return null;
+		}
+		List<License> candidateLicenses = new ArrayList<>(candidates.cardinality());
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			candidateLicenses.add(licenses.get(i));
+		}
+		return search.bestMatch(candidateLicenses, definitelyContainsLicense);
+	}
+
+	private void addCandidates(BitSet candidates, String part) {
+		List<Integer> indexes = firstParts.get(Common.foldCase(part));
+		if (indexes != null) {
+			for (int i : indexes) {
+				candidates.set(i);
+			}
+		}
+	}
+
+	// if not definitelyContainsLicense, a license other than a GPL one is only matched next to a part containing "Licen[sc]",
+	// which can't be introduced by LicenseSearch, and the parts of a search are otherwise substrings of it
+	private boolean mayContainLicense(String licenseSearch) {
+		if (License.LICENSE.matcher(licenseSearch).find()) {
+			return true;
+		}
+		for (String gplFirstPart : gplFirstParts) {
+			for (int i = 0; i + gplFirstPart.length() <= licenseSearch.length(); ++i) {
+				if (licenseSearch.regionMatches(true, i, gplFirstPart, 0, gplFirstPart.length())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
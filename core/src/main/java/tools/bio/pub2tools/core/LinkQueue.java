@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.edamontology.pubfetcher.core.db.DatabaseEntryType;
+
+// bounded queue of webpage and doc URLs found by Pass1, for fetching these while Pass1 is still running
+// the producer calls end() when done, the consumer calls abandon() if it stops early, so that the producer is not blocked forever
+public class LinkQueue {
+
+	private static final long OFFER_TIMEOUT = 1000; // ms
+
+	public static final class Link {
+		private final String url;
+		private final DatabaseEntryType type;
+
+		private Link(String url, DatabaseEntryType type) {
+			this.url = url;
+			this.type = type;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		public DatabaseEntryType getType() {
+			return type;
+		}
+	}
+
+	private static final Link END = new Link(null, null);
+
+	private final BlockingQueue<Link> queue;
+
+	private volatile boolean abandoned = false;
+
+	public LinkQueue(int capacity) {
+		queue = new ArrayBlockingQueue<>(capacity);
+	}
+
+	private void offer(Link link) throws InterruptedException {
+		while (!abandoned) {
+			if (queue.offer(link, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				return;
+			}
+		}
+	}
+
+	// type is either webpage or doc
+	public void put(String url, DatabaseEntryType type) throws InterruptedException {
+		offer(new Link(url, type));
+	}
+
+	public void end() throws InterruptedException {
+		offer(END);
+	}
+
+	// returns null, if no link arrived within timeout
+	public Link poll(long timeout) throws InterruptedException {
+		return queue.poll(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	public static boolean isEnd(Link link) {
+		return link == END;
+	}
+
+	public void abandon() {
+		abandoned = true;
+		queue.clear();
+	}
+}
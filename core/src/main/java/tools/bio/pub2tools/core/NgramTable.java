@@ -0,0 +1,231 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// n-grams of tokens interned to consecutive IDs in order of first occurrence, each with a score and the occurrences of its extracted form
+// an n-gram is keyed by the ID of its prefix n-gram (-1 for a single token) and the ID of its last token packed into a long,
+// so no strings of n-grams are built and no scores are boxed until getStrings and getScores are called
+final class NgramTable {
+
+	private final Map<String, Integer> tokenIds = new HashMap<>();
+	private final List<String> tokens = new ArrayList<>();
+
+	// open addressing with linear probing, slot holds ID + 1 of the n-gram or 0 if empty
+	private long[] keys = new long[64];
+	private int[] slots = new int[64];
+
+	private int size = 0;
+	private int[] prefixes = new int[32];
+	private int[] lasts = new int[32];
+	private double[] scores = new double[32];
+
+	// occurrences of extracted n-gram IDs, chained separately for each n-gram and for beginnings and insides of sentences
+	// occurrences are added once for each scoring of an n-gram, so occurrenceNgram also holds the order n-grams were scored in
+	private int[] withinHeads = new int[32];
+	private int[] withinTails = new int[32];
+	private int[] beginHeads = new int[32];
+	private int[] beginTails = new int[32];
+	private int occurrences = 0;
+	private int[] occurrenceExtracted = new int[64];
+	private int[] occurrenceNext = new int[64];
+	private int[] occurrenceNgram = new int[64];
+
+	int token(String token) {
+		Integer id = tokenIds.get(token);
+		if (id == null) {
+			id = tokens.size();
+			tokenIds.put(token, id);
+			tokens.add(token);
+		}
+		return id;
+	}
+
+	int ngram(int prefix, int token) {
+		long key = ((long) prefix << 32) | (token & 0xFFFFFFFFL);
+		int mask = slots.length - 1;
+		int slot = hash(key) & mask;
+		while (slots[slot] != 0) {
+			if (keys[slot] == key) {
+				return slots[slot] - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (size == prefixes.length) {
+			int capacity = size * 2;
+			prefixes = Arrays.copyOf(prefixes, capacity);
+			lasts = Arrays.copyOf(lasts, capacity);
+			scores = Arrays.copyOf(scores, capacity);
+			withinHeads = Arrays.copyOf(withinHeads, capacity);
+			withinTails = Arrays.copyOf(withinTails, capacity);
+			beginHeads = Arrays.copyOf(beginHeads, capacity);
+			beginTails = Arrays.copyOf(beginTails, capacity);
+		}
+		int id = size++;
+		prefixes[id] = prefix;
+		lasts[id] = token;
+		withinHeads[id] = -1;
+		beginHeads[id] = -1;
+		keys[slot] = key;
+		slots[slot] = id + 1;
+		// keep load factor at most 1/2
+		if (size * 2 > slots.length) {
+			rehash();
+		}
+		return id;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldSlots = slots;
+		keys = new long[oldKeys.length * 2];
+		slots = new int[oldSlots.length * 2];
+		int mask = slots.length - 1;
+		for (int i = 0; i < oldSlots.length; ++i) {
+			if (oldSlots[i] != 0) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (slots[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				slots[slot] = oldSlots[i];
+			}
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	double getScore(int id) {
+		return scores[id];
+	}
+
+	void addScore(int id, double score) {
+		scores[id] += score;
+	}
+
+	void addWithin(int id, int extracted) {
+		int occurrence = addOccurrence(id, extracted);
+		if (withinHeads[id] < 0) {
+			withinHeads[id] = occurrence;
+		} else {
+			occurrenceNext[withinTails[id]] = occurrence;
+		}
+		withinTails[id] = occurrence;
+	}
+
+	void addBegin(int id, int extracted) {
+		int occurrence = addOccurrence(id, extracted);
+		if (beginHeads[id] < 0) {
+			beginHeads[id] = occurrence;
+		} else {
+			occurrenceNext[beginTails[id]] = occurrence;
+		}
+		beginTails[id] = occurrence;
+	}
+
+	private int addOccurrence(int id, int extracted) {
+		if (occurrences == occurrenceExtracted.length) {
+			occurrenceExtracted = Arrays.copyOf(occurrenceExtracted, occurrences * 2);
+			occurrenceNext = Arrays.copyOf(occurrenceNext, occurrences * 2);
+			occurrenceNgram = Arrays.copyOf(occurrenceNgram, occurrences * 2);
+		}
+		occurrenceNgram[occurrences] = id;
+		occurrenceExtracted[occurrences] = extracted;
+		occurrenceNext[occurrences] = -1;
+		return occurrences++;
+	}
+
+	// the extracted n-gram occurring most often for each n-gram, where occurrences at beginnings of sentences are counted once per extracted form
+	// in case of equal counts, the one first occurring inside sentences, or if none then the one first occurring at beginnings, wins
+	int[] getExtracted(int extractedSize) {
+		int[] extracted = new int[size];
+		int[] counts = new int[extractedSize];
+		int[] begins = new int[extractedSize];
+		for (int id = 0; id < size; ++id) {
+			int max = 0;
+			for (int o = withinHeads[id]; o >= 0; o = occurrenceNext[o]) {
+				max = Math.max(max, ++counts[occurrenceExtracted[o]]);
+			}
+			for (int o = beginHeads[id]; o >= 0; o = occurrenceNext[o]) {
+				int e = occurrenceExtracted[o];
+				if (begins[e] != id + 1) {
+					begins[e] = id + 1;
+					max = Math.max(max, ++counts[e]);
+				}
+			}
+			extracted[id] = -1;
+			for (int o = withinHeads[id]; o >= 0 && extracted[id] < 0; o = occurrenceNext[o]) {
+				if (counts[occurrenceExtracted[o]] == max) {
+					extracted[id] = occurrenceExtracted[o];
+				}
+			}
+			for (int o = beginHeads[id]; o >= 0 && extracted[id] < 0; o = occurrenceNext[o]) {
+				if (counts[occurrenceExtracted[o]] == max) {
+					extracted[id] = occurrenceExtracted[o];
+				}
+			}
+			for (int o = withinHeads[id]; o >= 0; o = occurrenceNext[o]) {
+				counts[occurrenceExtracted[o]] = 0;
+			}
+			for (int o = beginHeads[id]; o >= 0; o = occurrenceNext[o]) {
+				counts[occurrenceExtracted[o]] = 0;
+			}
+		}
+		return extracted;
+	}
+
+	// tokens of an n-gram joined with a space, the prefix of an n-gram always has a smaller ID
+	String[] getStrings() {
+		String[] strings = new String[size];
+		for (int id = 0; id < size; ++id) {
+			if (prefixes[id] < 0) {
+				strings[id] = tokens.get(lasts[id]);
+			} else {
+				strings[id] = strings[prefixes[id]] + " " + tokens.get(lasts[id]);
+			}
+		}
+		return strings;
+	}
+
+	// merge is called for the same n-grams in the same order as when the HashMap was built up with merge while scoring,
+	// so that its bins, resizes and thereby iteration order are the same, as that decides the order of suggestions with equal score
+	// (merge adds new entries to the front of their bin and resizes only on the call after the size has grown past the threshold)
+	// the final score is merged in the first time and kept in later calls, as it is already the sum of all values added in scoring order
+	Map<String, Double> getScores(String[] strings) {
+		Map<String, Double> scoresMap = new HashMap<>();
+		for (int o = 0; o < occurrences; ++o) {
+			int id = occurrenceNgram[o];
+			scoresMap.merge(strings[id], scores[id], (oldScore, score) -> oldScore);
+		}
+		return scoresMap;
+	}
+}
@@ -21,17 +21,14 @@ package tools.bio.pub2tools.core;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.charset.CharsetEncoder;
-import java.nio.charset.CodingErrorAction;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.Normalizer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -43,19 +40,22 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 
 import org.edamontology.pubfetcher.core.common.PubFetcher;
+import org.edamontology.pubfetcher.core.db.DatabaseEntryType;
 import org.edamontology.pubfetcher.core.db.publication.CorrespAuthor;
 import org.edamontology.pubfetcher.core.db.publication.Publication;
 import org.edamontology.pubfetcher.core.db.publication.PublicationIds;
@@ -239,11 +239,8 @@ public final class Pass1 {
 		}
 	}
 
-	private static void beforeAfterScore(String key, Map<String, Double> scores, Map<String, Double> beforeAfterAdded, boolean tier1, boolean tier2, boolean tier3, boolean twice) {
-		Double newBeforeAfterAdded = beforeAfterAdded.get(key);
-		if (newBeforeAfterAdded == null) {
-			newBeforeAfterAdded = 1.0;
-		}
+	private static void beforeAfterMultiplier(int id, double[] beforeAfterAdded, boolean tier1, boolean tier2, boolean tier3, boolean twice, Analysis analysis) {
+		double newBeforeAfterAdded = beforeAfterAdded[id];
 		double multiplier = 1;
 		if (tier1) {
 			multiplier = TIER_1_MULTIPLIER;
@@ -259,8 +256,8 @@ public final class Pass1 {
 			multiplier = BEFORE_AFTER_LIMIT / newBeforeAfterAdded;
 		}
 		newBeforeAfterAdded *= multiplier;
-		beforeAfterAdded.put(key, newBeforeAfterAdded);
-		scores.put(key, scores.get(key) * multiplier);
+		beforeAfterAdded[id] = newBeforeAfterAdded;
+		analysis.addBeforeAfter(id, multiplier);
 	}
 
 	private static List<String> breakLinks(List<String> links, List<String> allLinks) {
@@ -512,8 +509,94 @@ public final class Pass1 {
 		return matches;
 	}
 
+	// keys of a result indexed by their form with spaces removed, built once for all links of the result
+	private static final class LinkKeys {
+		private final String[] keys;
+		private final String[] compares;
+		private final Map<String, Integer> keyIndexes = new HashMap<>();
+		private final Map<String, List<Integer>> compareIndexes = new HashMap<>();
+		// indexes of keys in order of compare and of reversed compare, to find the keys whose compare starts or ends with a string
+		private final Integer[] startOrder;
+		private final String[] starts;
+		private final Integer[] endOrder;
+		private final String[] ends;
+
+		private LinkKeys(Set<String> keySet) {
+			keys = keySet.toArray(new String[keySet.size()]);
+			compares = new String[keys.length];
+			String[] reversed = new String[keys.length];
+			for (int i = 0; i < keys.length; ++i) {
+				compares[i] = keys[i].replace(" ", "");
+				reversed[i] = new StringBuilder(compares[i]).reverse().toString();
+				keyIndexes.put(keys[i], i);
+				List<Integer> indexes = compareIndexes.get(compares[i]);
+				if (indexes == null) {
+					indexes = new ArrayList<>();
+					compareIndexes.put(compares[i], indexes);
+				}
+				indexes.add(i);
+			}
+			startOrder = new Integer[keys.length];
+			endOrder = new Integer[keys.length];
+			for (int i = 0; i < keys.length; ++i) {
+				startOrder[i] = i;
+				endOrder[i] = i;
+			}
+			Arrays.sort(startOrder, Comparator.comparing(i -> compares[i]));
+			Arrays.sort(endOrder, Comparator.comparing(i -> reversed[i]));
+			starts = new String[keys.length];
+			ends = new String[keys.length];
+			for (int i = 0; i < keys.length; ++i) {
+				starts[i] = compares[startOrder[i]];
+				ends[i] = reversed[endOrder[i]];
+			}
+		}
+
+		// keys that can be matched to fromLinkProcessed other than as an acronym:
+		// keys equal to it, or whose compare is equal to it, starts or ends with it, or is a start or end of it
+		private BitSet candidates(String fromLinkProcessed) {
+			BitSet candidates = new BitSet(keys.length);
+			Integer keyIndex = keyIndexes.get(fromLinkProcessed);
+			if (keyIndex != null) {
+				candidates.set(keyIndex);
+			}
+			for (int i = 0; i <= fromLinkProcessed.length(); ++i) {
+				addCompare(candidates, fromLinkProcessed.substring(0, i));
+				addCompare(candidates, fromLinkProcessed.substring(i));
+			}
+			addExtensions(candidates, starts, startOrder, fromLinkProcessed);
+			addExtensions(candidates, ends, endOrder, new StringBuilder(fromLinkProcessed).reverse().toString());
+			return candidates;
+		}
+
+		private void addCompare(BitSet candidates, String compare) {
+			List<Integer> indexes = compareIndexes.get(compare);
+			if (indexes != null) {
+				for (int index : indexes) {
+					candidates.set(index);
+				}
+			}
+		}
+
+		private static void addExtensions(BitSet candidates, String[] sorted, Integer[] order, String prefix) {
+			int from = 0;
+			int to = sorted.length;
+			while (from < to) {
+				int middle = (from + to) >>> 1;
+				if (sorted[middle].compareTo(prefix) < 0) {
+					from = middle + 1;
+				} else {
+					to = middle;
+				}
+			}
+			for (int i = from; i < sorted.length && sorted[i].startsWith(prefix); ++i) {
+				candidates.set(order[i]);
+			}
+		}
+	}
+
 	private static Map<String, List<String>> links(List<String> partLinks, PreProcessor preProcessor, Idf queryIdf, List<String> hostIgnore,
-			Set<String> keys, Map<String, String> processedToExtracted, List<List<String>> processed, String titleWithoutLinks, String abstractWithoutLinks,
+			LinkKeys linkKeys, Map<String, String> processedToExtracted, List<List<String>> processed, String titleWithoutLinks, String abstractWithoutLinks,
 			String toolTitle, String toolTitlePruned, String toolTitleAcronym) {
 		Map<String, List<String>> links = new LinkedHashMap<>();
 
@@ -538,117 +621,125 @@ public final class Pass1 {
 			String longestStart = "";
 			String longestEnd = "";
 
-			for (String key : keys) {
+			String fromLinkProcessedTwice = fromLinkProcessed + fromLinkProcessed;
+			BitSet candidates = linkKeys.candidates(fromLinkProcessed);
+
+			for (int k = 0; k < linkKeys.keys.length; ++k) {
+				String key = linkKeys.keys[k];
 				if (linkTwoPart && linkProcessed.equals(key)) {
 					continue;
 				}
-				if ((fromLinkProcessed + fromLinkProcessed).equals(key)) {
+				if (fromLinkProcessedTwice.equals(key)) {
 					continue;
 				}
 
-				String keyCompare = key.replaceAll(" ", "");
 				boolean found = false;
 
-				if (key.equals(fromLinkProcessed)) {
-					found = true;
-				}
-
-				if (!found && keyCompare.equals(fromLinkProcessed)) {
-					found = true;
-				}
+				// keys not in candidates can only be matched as an acronym
+				if (candidates.get(k)) {
+					String keyCompare = linkKeys.compares[k];
 
-				String keyExtracted = processedToExtracted.get(key);
-				String keyExtractedLower = keyExtracted.toLowerCase(Locale.ROOT);
-
-				if (!found && !key.contains(" ") && keyCompare.startsWith(fromLinkProcessed)) {
-					int keyExtractedIndex = 0;
-					for (int i = 0; i < fromLinkProcessed.length(); ++i) {
-						while (keyExtractedIndex < keyExtractedLower.length() && fromLinkProcessed.charAt(i) != keyExtractedLower.charAt(keyExtractedIndex)) {
-							++keyExtractedIndex;
-						}
-						if (keyExtractedIndex < keyExtractedLower.length()) {
-							++keyExtractedIndex;
-						} else {
-							break;
-						}
+					if (key.equals(fromLinkProcessed)) {
+						found = true;
 					}
-					if (keyExtractedIndex > 0) --keyExtractedIndex;
 
-					String goodStart = keyExtracted.substring(keyExtractedIndex);
-					if (GOOD_START.matcher(goodStart).matches() && !(goodStart.length() == 2 && goodStart.charAt(1) == 's')) {
+					if (!found && keyCompare.equals(fromLinkProcessed)) {
 						found = true;
-					} else if (goodStart.length() >= 2 && goodStart.charAt(1) == '-') {
-						int hyphenBased = 0;
-						for (List<String> sentenceProcessed : processed) {
-							for (String wordProcessed : sentenceProcessed) {
-								if (wordProcessed.equals(key)) {
-									++hyphenBased;
-								}
+					}
+
+					String keyExtracted = processedToExtracted.get(key);
+					String keyExtractedLower = keyExtracted.toLowerCase(Locale.ROOT);
+
+					if (!found && !key.contains(" ") && keyCompare.startsWith(fromLinkProcessed)) {
+						int keyExtractedIndex = 0;
+						for (int i = 0; i < fromLinkProcessed.length(); ++i) {
+							while (keyExtractedIndex < keyExtractedLower.length() && fromLinkProcessed.charAt(i) != keyExtractedLower.charAt(keyExtractedIndex)) {
+								++keyExtractedIndex;
+							}
+							if (keyExtractedIndex < keyExtractedLower.length()) {
+								++keyExtractedIndex;
+							} else {
+								break;
 							}
 						}
-						if (hyphenBased > 1) {
+						if (keyExtractedIndex > 0) --keyExtractedIndex;
+
+						String goodStart = keyExtracted.substring(keyExtractedIndex);
+						if (GOOD_START.matcher(goodStart).matches() && !(goodStart.length() == 2 && goodStart.charAt(1) == 's')) {
 							found = true;
+						} else if (goodStart.length() >= 2 && goodStart.charAt(1) == '-') {
+							int hyphenBased = 0;
+							for (List<String> sentenceProcessed : processed) {
+								for (String wordProcessed : sentenceProcessed) {
+									if (wordProcessed.equals(key)) {
+										++hyphenBased;
+									}
+								}
+							}
+							if (hyphenBased > 1) {
+								found = true;
+							}
 						}
 					}
-				}
 
-				if (!found && !key.contains(" ") && keyCompare.endsWith(fromLinkProcessed) && !LINK_TWO_PART.matcher(keyExtracted).matches()) {
-					int keyExtractedIndex = keyExtractedLower.length() - 1;
-					for (int i = fromLinkProcessed.length() - 1; i >= 0; --i) {
-						while (keyExtractedIndex >= 0 && fromLinkProcessed.charAt(i) != keyExtractedLower.charAt(keyExtractedIndex)) {
-							--keyExtractedIndex;
-						}
-						if (keyExtractedIndex >= 0) {
-							--keyExtractedIndex;
-						} else {
-							break;
+					if (!found && !key.contains(" ") && keyCompare.endsWith(fromLinkProcessed) && !LINK_TWO_PART.matcher(keyExtracted).matches()) {
+						int keyExtractedIndex = keyExtractedLower.length() - 1;
+						for (int i = fromLinkProcessed.length() - 1; i >= 0; --i) {
+							while (keyExtractedIndex >= 0 && fromLinkProcessed.charAt(i) != keyExtractedLower.charAt(keyExtractedIndex)) {
+								--keyExtractedIndex;
+							}
+							if (keyExtractedIndex >= 0) {
+								--keyExtractedIndex;
+							} else {
+								break;
+							}
 						}
-					}
-					if (keyExtractedIndex < keyExtractedLower.length()) ++keyExtractedIndex;
-					if (keyExtractedIndex < keyExtractedLower.length()) ++keyExtractedIndex;
+						if (keyExtractedIndex < keyExtractedLower.length()) ++keyExtractedIndex;
+						if (keyExtractedIndex < keyExtractedLower.length()) ++keyExtractedIndex;
 
-					String goodEnd = keyExtracted.substring(0, keyExtractedIndex);
-					if (GOOD_END.matcher(goodEnd).matches()) {
-						found = true;
+						String goodEnd = keyExtracted.substring(0, keyExtractedIndex);
+						if (GOOD_END.matcher(goodEnd).matches()) {
+							found = true;
+						}
 					}
-				}
 
-				if (!found && key.contains(" ") && keyCompare.startsWith(fromLinkProcessed)) {
-					if (GOOD_START_MULTI.matcher(keyExtracted).matches()) {
-						String[] words = keyExtracted.split(" ");
-						String patternString = "";
-						for (int i = 0; i < words.length; ++i) {
-							String firstLetter = words[i].substring(0, 1);
-							patternString += Common.USE_IN_PATTERN.matcher(firstLetter).matches() ? firstLetter : ".";
-							if (words[i].length() > 1) {
-								patternString += "[^ ]*";
-								String lastLetter = words[i].substring(words[i].length() - 1, words[i].length());
-								patternString += Common.USE_IN_PATTERN.matcher(lastLetter).matches() ? lastLetter : ".";
-							}
-							if (i < words.length - 1) {
-								patternString += "([ ./]+)";
+					if (!found && key.contains(" ") && keyCompare.startsWith(fromLinkProcessed)) {
+						if (GOOD_START_MULTI.matcher(keyExtracted).matches()) {
+							String[] words = keyExtracted.split(" ");
+							String patternString = "";
+							for (int i = 0; i < words.length; ++i) {
+								String firstLetter = words[i].substring(0, 1);
+								patternString += Common.USE_IN_PATTERN.matcher(firstLetter).matches() ? firstLetter : ".";
+								if (words[i].length() > 1) {
+									patternString += "[^ ]*";
+									String lastLetter = words[i].substring(words[i].length() - 1, words[i].length());
+									patternString += Common.USE_IN_PATTERN.matcher(lastLetter).matches() ? lastLetter : ".";
+								}
+								if (i < words.length - 1) {
+									patternString += "([ ./]+)";
+								}
 							}
-						}
 
-						Pattern pattern = Pattern.compile(patternString);
-						if (pattern.matcher(titleWithoutLinks).find() || pattern.matcher(abstractWithoutLinks).find()) {
-							found = true;
+							Pattern pattern = Pattern.compile(patternString);
+							if (pattern.matcher(titleWithoutLinks).find() || pattern.matcher(abstractWithoutLinks).find()) {
+								found = true;
+							}
 						}
 					}
-				}
 
-				if (!found && fromLinkProcessed.startsWith(keyCompare)) {
-					if (TO_LINK.matcher(keyExtracted).matches() && !NOT_TO_LINK.matcher(keyExtracted).matches()) {
-						if (key.length() > longestStart.length()) {
-							longestStart = key;
+					if (!found && fromLinkProcessed.startsWith(keyCompare)) {
+						if (TO_LINK.matcher(keyExtracted).matches() && !NOT_TO_LINK.matcher(keyExtracted).matches()) {
+							if (key.length() > longestStart.length()) {
+								longestStart = key;
+							}
 						}
 					}
-				}
 
-				if (!found && fromLinkProcessed.endsWith(keyCompare)) {
-					if (TO_LINK.matcher(keyExtracted).matches() && !NOT_TO_LINK.matcher(keyExtracted).matches()) {
-						if (key.length() > longestEnd.length()) {
-							longestEnd = key;
+					if (!found && fromLinkProcessed.endsWith(keyCompare)) {
+						if (TO_LINK.matcher(keyExtracted).matches() && !NOT_TO_LINK.matcher(keyExtracted).matches()) {
+							if (key.length() > longestEnd.length()) {
+								longestEnd = key;
+							}
 						}
 					}
 				}
@@ -826,9 +917,35 @@ public final class Pass1 {
 		return links;
 	}
 
-	private static void makeResult(List<Result1> results, Publication publication,
-			String title, String titleRest,	int toolTitleSize, String toolTitleExtractedOriginal, String toolTitle, String toolTitlePruned, String toolTitleAcronym, List<String> toolTitleOthers, List<String> toolTitleProcessedOthers,
-			List<String> hostIgnore, List<String> beforeTier1, List<String> beforeTier2, List<String> beforeTier3, List<String> afterTier1, List<String> afterTier2, List<String> afterTier3,
+	// publication-level part of makeResult, which is the same for all tool title variants of a publication:
+	// sentences, their n-gram scores and extracted forms, multipliers from before and after words and links of the publication
+	private static final class Analysis {
+		private String theAbstract;
+		private String titleWithoutLinks;
+		private String abstractWithoutLinks;
+		private List<List<String>> processed;
+		private NgramTable processedTable;
+		private String[] processedStrings;
+		private Map<String, String> processedToExtracted;
+		// in order of application, as toolTitleScore and the multipliers from before and after words don't commute
+		private int beforeAfterSize = 0;
+		private int[] beforeAfterIds = new int[16];
+		private double[] beforeAfterMultipliers = new double[16];
+		private List<String> titleAbstractLinks;
+		private List<String> fulltextLinks;
+
+		private void addBeforeAfter(int id, double multiplier) {
+			if (beforeAfterSize == beforeAfterIds.length) {
+				beforeAfterIds = Arrays.copyOf(beforeAfterIds, beforeAfterSize * 2);
+				beforeAfterMultipliers = Arrays.copyOf(beforeAfterMultipliers, beforeAfterSize * 2);
+			}
+			beforeAfterIds[beforeAfterSize] = id;
+			beforeAfterMultipliers[beforeAfterSize] = multiplier;
+			++beforeAfterSize;
+		}
+	}
+
+	private static Analysis analyse(Publication publication, String title, String titleRest, TierWords tierWords,
 			PreProcessor preProcessor, Idf idf, String nameProvided, List<String> webpageUrlsProvided) {
 		String theAbstract = publication.getAbstract().getContent();
 		if (webpageUrlsProvided != null && !webpageUrlsProvided.isEmpty()) {
@@ -854,184 +971,174 @@ public final class Pass1 {
 			processed.add(sentenceProcessed);
 		}
 
-		Map<String, Double> scores = new HashMap<>();
-		Map<String, String> processedToExtracted = new HashMap<>();
-
-		Map<String, Set<String>> processedToExtractedBegin = new HashMap<>();
-		Map<String, List<String>> processedToExtractedWithin = new HashMap<>();
+		NgramTable processedTable = new NgramTable();
+		NgramTable extractedTable = new NgramTable();
+		int[][] processedUnigrams = new int[processed.size()][];
+		int[][] processedBigrams = new int[processed.size()][];
 
 		for (int i = 0; i < processed.size(); ++i) {
 			List<String> sentenceExtracted = extracted.get(i);
 			List<String> sentenceProcessed = processed.get(i);
+			int[] extractedTokens = new int[sentenceProcessed.size()];
+			int[] processedTokens = new int[sentenceProcessed.size()];
+			for (int k = 0; k < sentenceProcessed.size(); ++k) {
+				extractedTokens[k] = extractedTable.token(sentenceExtracted.get(k));
+				processedTokens[k] = processedTable.token(sentenceProcessed.get(k));
+			}
+			// IDs of n-grams of current length j + 1 starting at each position, extended by one token for the next length
+			int[] extractedIds = new int[sentenceProcessed.size()];
+			int[] processedIds = new int[sentenceProcessed.size()];
 			for (int j = 0; j < COMPOUND_WORDS; ++j) {
 				for (int k = 0; k < sentenceProcessed.size() - j; ++k) {
-					String wordExtracted = sentenceExtracted.get(k);
-					String wordProcessed = sentenceProcessed.get(k);
-					for (int l = k + 1; l <= k + j; ++l) wordExtracted += " " + sentenceExtracted.get(l);
-					for (int l = k + 1; l <= k + j; ++l) wordProcessed += " " + sentenceProcessed.get(l);
-					Double value;
+					extractedIds[k] = extractedTable.ngram(j == 0 ? -1 : extractedIds[k], extractedTokens[k + j]);
+					processedIds[k] = processedTable.ngram(j == 0 ? -1 : processedIds[k], processedTokens[k + j]);
+					double value;
 					if (j == 0) {
 						value = Math.pow(idf.getIdf(sentenceProcessed.get(k)), Common.QUERY_IDF_SCALING);
 					} else {
-						value = scores.get(sentenceProcessed.get(k));
-						for (int l = k + 1; l <= k + j; ++l) value *= scores.get(sentenceProcessed.get(l));
+						value = processedTable.getScore(processedUnigrams[i][k]);
+						for (int l = k + 1; l <= k + j; ++l) value *= processedTable.getScore(processedUnigrams[i][l]);
 						value /= COMPOUND_DIVIDER;
 					}
-					scores.merge(wordProcessed, value, Double::sum);
+					processedTable.addScore(processedIds[k], value);
 					if (i == 0 || k == 0) {
-						Set<String> wordsExtracted = processedToExtractedBegin.get(wordProcessed);
-						if (wordsExtracted == null) {
-							wordsExtracted = new LinkedHashSet<>();
-							processedToExtractedBegin.put(wordProcessed, wordsExtracted);
-						}
-						wordsExtracted.add(wordExtracted);
+						processedTable.addBegin(processedIds[k], extractedIds[k]);
 					} else {
-						List<String> wordsExtracted = processedToExtractedWithin.get(wordProcessed);
-						if (wordsExtracted == null) {
-							wordsExtracted = new ArrayList<>();
-							processedToExtractedWithin.put(wordProcessed, wordsExtracted);
-						}
-						wordsExtracted.add(wordExtracted);
+						processedTable.addWithin(processedIds[k], extractedIds[k]);
 					}
 				}
-			}
-		}
-
-		// put within before begin so that in case of equality option from within wins (because order-preserving sets)
-		Set<String> processedToExtractedKeys = new LinkedHashSet<>();
-		processedToExtractedKeys.addAll(processedToExtractedWithin.keySet());
-		processedToExtractedKeys.addAll(processedToExtractedBegin.keySet());
-		for (String key : processedToExtractedKeys) {
-			Map<String, Integer> extractedCount = new LinkedHashMap<>();
-			List<String> extractedWithins = processedToExtractedWithin.get(key);
-			if (extractedWithins != null) {
-				for (String extractedWithin : extractedWithins) {
-					extractedCount.merge(extractedWithin, 1, Integer::sum);
-				}
-			}
-			Set<String> extractedBegins = processedToExtractedBegin.get(key);
-			if (extractedBegins != null) {
-				for (String extractedBegin : extractedBegins) {
-					extractedCount.merge(extractedBegin, 1, Integer::sum);
+				if (j == 0) {
+					processedUnigrams[i] = processedIds.clone();
+				} else if (j == 1) {
+					processedBigrams[i] = processedIds.clone();
 				}
 			}
-			extractedCount = extractedCount.entrySet().stream()
-				.sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
-				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (k, v) -> { throw new AssertionError(); }, LinkedHashMap::new));
-			processedToExtracted.put(key, extractedCount.keySet().iterator().next());
 		}
 
-		if (toolTitle != null && !toolTitle.isEmpty() && toolTitlePruned != null && !toolTitlePruned.isEmpty()) {
-			boolean existing = toolTitleScore(toolTitle, preProcessor, scores, processedToExtracted, false);
-			if (!existing && !toolTitlePruned.equals(toolTitle)) {
-				toolTitleScore(toolTitlePruned, preProcessor, scores, processedToExtracted, true);
-			}
-		}
-		if (toolTitleAcronym != null && !toolTitleAcronym.isEmpty()) {
-			toolTitleScore(toolTitleAcronym, preProcessor, scores, processedToExtracted, false);
-		}
+		String[] processedStrings = processedTable.getStrings();
+		String[] extractedStrings = extractedTable.getStrings();
 
-		Map<String, Double> beforeAfterAdded = new HashMap<>();
+		Map<String, String> processedToExtracted = new HashMap<>();
+		int[] processedExtracted = processedTable.getExtracted(extractedTable.size());
+		for (int id = 0; id < processedStrings.length; ++id) {
+			processedToExtracted.put(processedStrings[id], extractedStrings[processedExtracted[id]]);
+		}
+
+		Analysis analysis = new Analysis();
+		analysis.theAbstract = theAbstract;
+		analysis.titleWithoutLinks = titleWithoutLinks;
+		analysis.abstractWithoutLinks = abstractWithoutLinks;
+		analysis.processed = processed;
+		analysis.processedTable = processedTable;
+		analysis.processedStrings = processedStrings;
+		analysis.processedToExtracted = processedToExtracted;
+
+		// indexed by IDs of processedTable, as all before and after words and compounds are among its unigrams and bigrams
+		double[] beforeAfterAdded = new double[processedTable.size()];
+		Arrays.fill(beforeAfterAdded, 1.0);
 		for (int i = 0; i < processed.size(); ++i) {
 			List<String> sentenceProcessed = processed.get(i);
+			int[] unigrams = processedUnigrams[i];
+			int[] bigrams = processedBigrams[i];
 			boolean acronymsDone = false;
 			List<Integer> acronyms = null;
 			for (int j = 0; j < sentenceProcessed.size(); ++j) {
 				String wordProcessed = sentenceProcessed.get(j);
-				boolean inBeforeTier1 = beforeTier1.contains(wordProcessed);
-				boolean inBeforeTier2 = beforeTier2.contains(wordProcessed);
-				boolean inBeforeTier3 = beforeTier3.contains(wordProcessed);
+				int tiers = tierWords.get(wordProcessed);
+				boolean inBeforeTier1 = (tiers & TierWords.BEFORE_TIER1) != 0;
+				boolean inBeforeTier2 = (tiers & TierWords.BEFORE_TIER2) != 0;
+				boolean inBeforeTier3 = (tiers & TierWords.BEFORE_TIER3) != 0;
 				if (j + 1 < sentenceProcessed.size() && (inBeforeTier1 || inBeforeTier2 || inBeforeTier3)) {
 					if (!acronymsDone) {
 						acronyms = acronyms(titleAbstractSentences.get(i), preProcessor);
 						acronymsDone = true;
 					}
 					boolean acronymFound = false;
-					String acronym = null;
+					int acronym = -1;
 					if (acronyms.contains(j + 1)) {
-						acronym = sentenceProcessed.get(j + 1);
+						acronym = unigrams[j + 1];
 						acronymFound = true;
 					} else if (acronyms.contains(-(j + 1))) {
-						acronym = sentenceProcessed.get(j + 1);
+						acronym = unigrams[j + 1];
 						acronymFound = true;
 					} else if (j + 2 < sentenceProcessed.size()) {
 						if (acronyms.contains(j + 2)) {
-							acronym = sentenceProcessed.get(j + 2);
+							acronym = unigrams[j + 2];
 							acronymFound = true;
 						} else if (acronyms.contains(-(j + 2))) {
-							acronym = sentenceProcessed.get(j + 2);
+							acronym = unigrams[j + 2];
 							acronymFound = true;
 						}
 					}
 					if (acronymFound) {
-						beforeAfterScore(acronym, scores, beforeAfterAdded, inBeforeTier1, inBeforeTier2, inBeforeTier3, true);
+						beforeAfterMultiplier(acronym, beforeAfterAdded, inBeforeTier1, inBeforeTier2, inBeforeTier3, true, analysis);
 					} else {
-						String nextWord = sentenceProcessed.get(j + 1);
-						beforeAfterScore(nextWord, scores, beforeAfterAdded, inBeforeTier1, inBeforeTier2, inBeforeTier3, false);
+						int nextWord = unigrams[j + 1];
+						beforeAfterMultiplier(nextWord, beforeAfterAdded, inBeforeTier1, inBeforeTier2, inBeforeTier3, false, analysis);
 						if (j + 2 < sentenceProcessed.size()) {
 							acronymFound = false;
 							for (int k = 1; k <= COMPOUND_WORDS && j + 2 + k < sentenceProcessed.size(); ++k) {
 								if (acronyms.contains(-(j + 2 + k))) {
-									String nextNextWord = sentenceProcessed.get(j + 2 + k);
-									beforeAfterScore(nextNextWord, scores, beforeAfterAdded, inBeforeTier1, inBeforeTier2, inBeforeTier3, false);
+									int nextNextWord = unigrams[j + 2 + k];
+									beforeAfterMultiplier(nextNextWord, beforeAfterAdded, inBeforeTier1, inBeforeTier2, inBeforeTier3, false, analysis);
 									acronymFound = true;
 									break;
 								}
 							}
 							if (!acronymFound) {
-								String nextNextWord = sentenceProcessed.get(j + 2);
-								beforeAfterScore(nextNextWord, scores, beforeAfterAdded, inBeforeTier1, inBeforeTier2, inBeforeTier3, false);
-								String nextCompoundWord = nextWord + " " + nextNextWord;
-								beforeAfterScore(nextCompoundWord, scores, beforeAfterAdded, inBeforeTier1, inBeforeTier2, inBeforeTier3, false);
+								int nextNextWord = unigrams[j + 2];
+								beforeAfterMultiplier(nextNextWord, beforeAfterAdded, inBeforeTier1, inBeforeTier2, inBeforeTier3, false, analysis);
+								int nextCompoundWord = bigrams[j + 1];
+								beforeAfterMultiplier(nextCompoundWord, beforeAfterAdded, inBeforeTier1, inBeforeTier2, inBeforeTier3, false, analysis);
 							}
 						}
 					}
 				}
-				boolean inAfterTier1 = afterTier1.contains(wordProcessed);
-				boolean inAfterTier2 = afterTier2.contains(wordProcessed);
-				boolean inAfterTier3 = afterTier3.contains(wordProcessed);
+				boolean inAfterTier1 = (tiers & TierWords.AFTER_TIER1) != 0;
+				boolean inAfterTier2 = (tiers & TierWords.AFTER_TIER2) != 0;
+				boolean inAfterTier3 = (tiers & TierWords.AFTER_TIER3) != 0;
 				if (j - 1 >= 0 && (inAfterTier1 || inAfterTier2 || inAfterTier3)) {
 					if (!acronymsDone) {
 						acronyms = acronyms(titleAbstractSentences.get(i), preProcessor);
 						acronymsDone = true;
 					}
 					boolean acronymFound = false;
-					String acronym = null;
+					int acronym = -1;
 					if (acronyms.contains(j - 1)) {
-						acronym = sentenceProcessed.get(j - 1);
+						acronym = unigrams[j - 1];
 						acronymFound = true;
 					} else if (acronyms.contains(-(j - 1))) {
-						acronym = sentenceProcessed.get(j - 1);
+						acronym = unigrams[j - 1];
 						acronymFound = true;
 					} else if (j - 2 >= 0) {
 						if (acronyms.contains(j - 2)) {
-							acronym = sentenceProcessed.get(j - 2);
+							acronym = unigrams[j - 2];
 							acronymFound = true;
 						} else if (acronyms.contains(-(j - 2))) {
-							acronym = sentenceProcessed.get(j - 2);
+							acronym = unigrams[j - 2];
 							acronymFound = true;
 						}
 					}
 					if (acronymFound) {
-						beforeAfterScore(acronym, scores, beforeAfterAdded, inAfterTier1, inAfterTier2, inAfterTier3, true);
+						beforeAfterMultiplier(acronym, beforeAfterAdded, inAfterTier1, inAfterTier2, inAfterTier3, true, analysis);
 					} else {
-						String nextWord = sentenceProcessed.get(j - 1);
-						beforeAfterScore(nextWord, scores, beforeAfterAdded, inAfterTier1, inAfterTier2, inAfterTier3, false);
+						int nextWord = unigrams[j - 1];
+						beforeAfterMultiplier(nextWord, beforeAfterAdded, inAfterTier1, inAfterTier2, inAfterTier3, false, analysis);
 						if (j - 2 >= 0) {
 							acronymFound = false;
 							for (int k = 1; k <= COMPOUND_WORDS && j - 2 - k >= 0; ++k) {
 								if (acronyms.contains(-(j - 2 - k))) {
-									String nextNextWord = sentenceProcessed.get(j - 2 - k);
-									beforeAfterScore(nextNextWord, scores, beforeAfterAdded, inAfterTier1, inAfterTier2, inAfterTier3, false);
+									int nextNextWord = unigrams[j - 2 - k];
+									beforeAfterMultiplier(nextNextWord, beforeAfterAdded, inAfterTier1, inAfterTier2, inAfterTier3, false, analysis);
 									acronymFound = true;
 									break;
 								}
 							}
 							if (!acronymFound) {
-								String nextNextWord = sentenceProcessed.get(j - 2);
-								beforeAfterScore(nextNextWord, scores, beforeAfterAdded, inAfterTier1, inAfterTier2, inAfterTier3, false);
-								String nextCompoundWord = nextNextWord + " " + nextWord;
-								beforeAfterScore(nextCompoundWord, scores, beforeAfterAdded, inAfterTier1, inAfterTier2, inAfterTier3, false);
+								int nextNextWord = unigrams[j - 2];
+								beforeAfterMultiplier(nextNextWord, beforeAfterAdded, inAfterTier1, inAfterTier2, inAfterTier3, false, analysis);
+								int nextCompoundWord = bigrams[j - 2];
+								beforeAfterMultiplier(nextCompoundWord, beforeAfterAdded, inAfterTier1, inAfterTier2, inAfterTier3, false, analysis);
 							}
 						}
 					}
@@ -1109,12 +1216,51 @@ public final class Pass1 {
 			}
 		}
 
+		analysis.titleAbstractLinks = titleAbstractLinks;
+		analysis.fulltextLinks = fulltextLinks;
+
+		return analysis;
+	}
+
+	private static void makeResult(List<Result1> results, Publication publication, Analysis analysis,
+			String title, int toolTitleSize, String toolTitleExtractedOriginal, String toolTitle, String toolTitlePruned, String toolTitleAcronym, List<String> toolTitleOthers, List<String> toolTitleProcessedOthers,
+			List<String> hostIgnore,
+			PreProcessor preProcessor, Idf idf, String nameProvided, List<String> webpageUrlsProvided) {
+		String theAbstract = analysis.theAbstract;
+		String titleWithoutLinks = analysis.titleWithoutLinks;
+		String abstractWithoutLinks = analysis.abstractWithoutLinks;
+		List<List<String>> processed = analysis.processed;
+
+		// a new map for each variant, built the same way as the map of analysed scores would be
+		Map<String, Double> scores = analysis.processedTable.getScores(analysis.processedStrings);
+		Map<String, String> processedToExtracted = new HashMap<>(analysis.processedToExtracted);
+
+		if (toolTitle != null && !toolTitle.isEmpty() && toolTitlePruned != null && !toolTitlePruned.isEmpty()) {
+			boolean existing = toolTitleScore(toolTitle, preProcessor, scores, processedToExtracted, false);
+			if (!existing && !toolTitlePruned.equals(toolTitle)) {
+				toolTitleScore(toolTitlePruned, preProcessor, scores, processedToExtracted, true);
+			}
+		}
+		if (toolTitleAcronym != null && !toolTitleAcronym.isEmpty()) {
+			toolTitleScore(toolTitleAcronym, preProcessor, scores, processedToExtracted, false);
+		}
+
+		for (int i = 0; i < analysis.beforeAfterSize; ++i) {
+			String key = analysis.processedStrings[analysis.beforeAfterIds[i]];
+			scores.put(key, scores.get(key) * analysis.beforeAfterMultipliers[i]);
+		}
+
+		List<String> titleAbstractLinks = new ArrayList<>(analysis.titleAbstractLinks);
+		List<String> fulltextLinks = new ArrayList<>(analysis.fulltextLinks);
+
+		LinkKeys linkKeys = (titleAbstractLinks.isEmpty() && fulltextLinks.isEmpty() ? null : new LinkKeys(scores.keySet()));
+
 		Map<String, List<String>> linksAbstract = links(titleAbstractLinks, preProcessor, idf, hostIgnore,
-			scores.keySet(), processedToExtracted, processed, titleWithoutLinks, abstractWithoutLinks,
+			linkKeys, processedToExtracted, processed, titleWithoutLinks, abstractWithoutLinks,
 			toolTitle, toolTitlePruned, toolTitleAcronym);
 
 		Map<String, List<String>> linksFulltext = links(fulltextLinks, preProcessor, idf, hostIgnore,
-			scores.keySet(), processedToExtracted, processed, titleWithoutLinks, abstractWithoutLinks,
+			linkKeys, processedToExtracted, processed, titleWithoutLinks, abstractWithoutLinks,
 			toolTitle, toolTitlePruned, toolTitleAcronym);
 
 		for (Map.Entry<String, List<String>> linkEntry : linksAbstract.entrySet()) {
@@ -1458,26 +1604,245 @@ public final class Pass1 {
 		results.add(result);
 	}
 
+	private static void divideLinks(Result1 result, List<String> webpages, List<String> docs) {
+		for (Suggestion1 suggestion : result.getSuggestions()) {
+			List<BiotoolsLink<LinkType>> linkLinks = new ArrayList<>();
+			List<BiotoolsLink<DownloadType>> downloadLinks = new ArrayList<>();
+			List<BiotoolsLink<DocumentationType>> documentationLinks = new ArrayList<>();
+			Common.makeBiotoolsLinks(suggestion.getLinksAbstract(), linkLinks, downloadLinks, documentationLinks);
+			Common.makeBiotoolsLinks(suggestion.getLinksFulltext(), linkLinks, downloadLinks, documentationLinks);
+			linkLinks.forEach(link -> webpages.add(link.getUrl()));
+			downloadLinks.forEach(link -> webpages.add(link.getUrl()));
+			documentationLinks.forEach(link -> docs.add(link.getUrl()));
+		}
+	}
+
+	// links are put to the queue in the same form as they are written to web.txt and doc.txt
+	private static void putLinks(LinkQueue linkQueue, List<Result1> results) throws InterruptedException {
+		for (Result1 result : results) {
+			List<String> webpages = new ArrayList<>();
+			List<String> docs = new ArrayList<>();
+			divideLinks(result, webpages, docs);
+			for (String webpage : webpages) {
+				linkQueue.put(Common.SCHEMA_START.matcher(webpage).find() ? webpage : "http://" + webpage, DatabaseEntryType.webpage);
+			}
+			for (String doc : docs) {
+				linkQueue.put(Common.SCHEMA_START.matcher(doc).find() ? doc : "http://" + doc, DatabaseEntryType.doc);
+			}
+		}
+	}
+
+	private static List<String> schemaLinks(List<String> links) {
+		List<String> schemaLinks = new ArrayList<>(links.size());
+		for (String link : links) {
+			schemaLinks.add(Common.prependHttp(link));
+		}
+		return schemaLinks;
+	}
+
 	private static void writeLinks(Writer writer, List<String> links) throws IOException {
 		for (String link : links) {
-			if (!Common.SCHEMA_START.matcher(link).find()) {
-				writer.write("http://");
-			}
 			writer.write(link);
 			writer.write("\n");
 		}
 	}
 
-	public static void run(Path outputPath, PreProcessor preProcessor, String logPrefix, Idf idfProvided, List<Publication> publicationsProvided, String nameProvided, List<String> webpageUrlsProvided) throws IOException {
+	private static void makeResults(List<Result1> results, Publication publication, boolean lengthLimits,
+			List<String> hostIgnore, TierWords tierWords,
+			PreProcessor preProcessor, Idf idf, String nameProvided, List<String> webpageUrlsProvided) {
+		if (publication.getAbstract().getSize() > ABSTRACT_MAX_LENGTH && lengthLimits) {
+			logger.info("Skipping publication {}, as length of abstract ({}) is larger than allowed ({})", publication.toStringId(), publication.getAbstract().getSize(), ABSTRACT_MAX_LENGTH);
+			return;
+		}
+		if (publication.getFulltext().getSize() > FULLTEXT_MAX_LENGTH && lengthLimits) {
+			logger.info("Skipping publication {}, as length of fulltext ({}) is larger than allowed ({})", publication.toStringId(), publication.getFulltext().getSize(), FULLTEXT_MAX_LENGTH);
+			return;
+		}
+
+		List<String> toolTitleExtractedOriginal = new ArrayList<>();
+		List<String> toolTitle = new ArrayList<>();
+		List<String> toolTitlePruned = new ArrayList<>();
+		String toolTitleAcronym = null;
+		long toolTitleWordsTotal = 0;
+
+		String title = publication.getTitle().getContent();
+		String titleRest = title;
+
+		int from = 0;
+		Matcher matcher = Common.TITLE_SEPARATOR.matcher(title);
+
+		while (from < title.length() && matcher.find(from)) {
+			String currentToolTitleString = title.substring(from, matcher.start()).trim();
+			if (TOOL_TITLE_INVALID.matcher(currentToolTitleString).matches()) {
+				from = matcher.end();
+				continue;
+			}
+
+			List<String> currentToolTitleExtractedOriginal = new ArrayList<>();
+			List<String> currentToolTitle = new ArrayList<>();
+			List<String> currentToolTitlePruned = new ArrayList<>();
+			String currentToolTitleAcronym = null;
+			long currentToolTitleWordsTotal = 0;
+
+			Integer firstAcronymIndex = firstAcronymIndex(currentToolTitleString, preProcessor);
+			if (!TOOL_TITLE_SEPARATOR.matcher(currentToolTitleString).find() || firstAcronymIndex != null || currentToolTitleString.split(" ").length > TOOL_TITLE_SEPARATOR_MAX_WORDS) {
+				List<String> currentToolTitleExtracted = preProcessor.extract(currentToolTitleString);
+				currentToolTitleExtractedOriginal.add(String.join(" ", currentToolTitleExtracted));
+				preProcessor.process(currentToolTitleString, currentToolTitleExtracted); // align indexes
+				if (firstAcronymIndex != null) {
+					currentToolTitleAcronym = currentToolTitleExtracted.remove(firstAcronymIndex.intValue());
+				}
+				currentToolTitle.add(String.join(" ", currentToolTitleExtracted));
+				currentToolTitlePruned.add(Common.toolTitlePrune(currentToolTitleExtracted));
+				currentToolTitleWordsTotal += currentToolTitleExtracted.size();
+			} else {
+				for (String currentToolTitleStringPart : TOOL_TITLE_SEPARATOR_ALL.split(currentToolTitleString)) {
+					List<String> currentToolTitleExtracted = preProcessor.extract(currentToolTitleStringPart);
+					currentToolTitleExtractedOriginal.add(String.join(" ", currentToolTitleExtracted));
+					preProcessor.process(currentToolTitleStringPart, currentToolTitleExtracted); // align indexes
+					currentToolTitle.add(String.join(" ", currentToolTitleExtracted));
+					currentToolTitlePruned.add(Common.toolTitlePrune(currentToolTitleExtracted));
+					currentToolTitleWordsTotal += currentToolTitleExtracted.size();
+				}
+			}
+
+			if (currentToolTitleWordsTotal < toolTitleWordsTotal || toolTitle.isEmpty()) {
+				toolTitleExtractedOriginal = currentToolTitleExtractedOriginal;
+				toolTitle = currentToolTitle;
+				toolTitlePruned = currentToolTitlePruned;
+				toolTitleAcronym = currentToolTitleAcronym;
+				toolTitleWordsTotal = currentToolTitleWordsTotal;
+				titleRest = title.substring(0, from).trim() + " " + title.substring(matcher.start()).trim();
+			}
+
+			from = matcher.end();
+		}
+
+		if (from == 0) {
+			List<String> toolTitleExtractedStandalone = preProcessor.extract(title);
+			String toolTitleExtractedOriginalStandalone = String.join(" ", toolTitleExtractedStandalone);
+			preProcessor.process(title, toolTitleExtractedStandalone); // align indexes
+			String toolTitlePrunedStandalone = Common.toolTitlePrune(toolTitleExtractedStandalone);
+			if (toolTitlePrunedStandalone.length() <= TOOL_TITLE_STANDALONE_MAX_CHARS) {
+				toolTitleExtractedOriginal.add(toolTitleExtractedOriginalStandalone);
+				toolTitle.add(String.join(" ", toolTitleExtractedStandalone));
+				toolTitlePruned.add(toolTitlePrunedStandalone);
+				titleRest = "";
+			}
+		}
+
+		// the tool title variants only differ in the scores of their tool title
+		Analysis analysis = analyse(publication, title, titleRest, tierWords, preProcessor, idf, nameProvided, webpageUrlsProvided);
+
+		if (!toolTitle.isEmpty()) {
+			List<String> toolTitleProcessed = new ArrayList<>();
+			for (int i = 0; i < toolTitle.size(); ++i) {
+				toolTitleProcessed.add(String.join(" ", preProcessor.process(toolTitle.get(i))));
+			}
+			List<String> toolTitleProcessedDone = new ArrayList<>();
+			for (int i = 0; i < toolTitleProcessed.size(); ++i) {
+				if (!toolTitleProcessedDone.contains(toolTitleProcessed.get(i))) {
+					List<String> toolTitleOthers = new ArrayList<>();
+					for (int j = 0; j < toolTitle.size(); ++j) {
+						if (!toolTitle.get(i).equals(toolTitle.get(j))) {
+							toolTitleOthers.add(toolTitle.get(j));
+						}
+					}
+					List<String> toolTitleProcessedOthers = new ArrayList<>();
+					for (int j = 0; j < toolTitleProcessed.size(); ++j) {
+						if (!toolTitleProcessed.get(i).equals(toolTitleProcessed.get(j))) {
+							toolTitleProcessedOthers.add(toolTitleProcessed.get(j));
+						}
+					}
+					makeResult(results, publication, analysis,
+						title, toolTitle.size(), toolTitleExtractedOriginal.get(i), toolTitle.get(i), toolTitlePruned.get(i), toolTitleAcronym, toolTitleOthers, toolTitleProcessedOthers,
+						hostIgnore,
+						preProcessor, idf, nameProvided, webpageUrlsProvided);
+					toolTitleProcessedDone.add(toolTitleProcessed.get(i));
+				}
+			}
+		} else {
+			makeResult(results, publication, analysis,
+				title, 0, null, null, null, null, null, null,
+				hostIgnore,
+				preProcessor, idf, nameProvided, webpageUrlsProvided);
+		}
+	}
+
+	private static void makeResultsParallel(List<Result1> results, List<Publication> publications, boolean lengthLimits,
+			List<String> hostIgnore, TierWords tierWords,
+			List<PreProcessor> preProcessors, Idf idf, String nameProvided, List<String> webpageUrlsProvided, LinkQueue linkQueue) throws IOException {
+		// results of each publication are kept separately and concatenated in publication order,
+		// so that the sorted results are the same as when made sequentially
+		List<List<Result1>> publicationResults = new ArrayList<>(Collections.nCopies(publications.size(), null));
+		AtomicInteger publicationNext = new AtomicInteger(0);
+		AtomicInteger publicationDone = new AtomicInteger(0);
+		long start = System.currentTimeMillis();
+
+		ExecutorService executor = Executors.newFixedThreadPool(preProcessors.size());
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (PreProcessor preProcessor : preProcessors) {
+				futures.add(executor.submit(() -> {
+					int publicationIndex;
+					while ((publicationIndex = publicationNext.getAndIncrement()) < publications.size()) {
+						List<Result1> publicationResult = new ArrayList<>();
+						makeResults(publicationResult, publications.get(publicationIndex), lengthLimits,
+							hostIgnore, tierWords,
+							preProcessor, idf, nameProvided, webpageUrlsProvided);
+						publicationResults.set(publicationIndex, publicationResult);
+						if (linkQueue != null) {
+							putLinks(linkQueue, publicationResult);
+						}
+						System.err.print(PubFetcher.progress(publicationDone.incrementAndGet(), publications.size(), start) + "  \r");
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while making results", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			} else {
+				throw new IOException(e.getCause());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		for (List<Result1> publicationResult : publicationResults) {
+			results.addAll(publicationResult);
+		}
+	}
+
+	public static List<Result1> run(Path outputPath, PreProcessor preProcessor, String logPrefix, Idf idfProvided, List<Publication> publicationsProvided, String nameProvided, List<String> webpageUrlsProvided) throws IOException {
+		return run(outputPath, Collections.singletonList(preProcessor), true, null, logPrefix, idfProvided, publicationsProvided, nameProvided, webpageUrlsProvided);
+	}
+
+	// if linkQueue is not null, webpage and doc links of results are put there as soon as all results of a publication are made
+	// the written pass1 results are also returned, so that pass2 run in the same process can take these without reading pass1.json
+	public static List<Result1> run(Path outputPath, List<PreProcessor> preProcessors, boolean pass1Pretty, LinkQueue linkQueue, String logPrefix, Idf idfProvided, List<Publication> publicationsProvided, String nameProvided, List<String> webpageUrlsProvided) throws IOException {
+		return make(outputPath, preProcessors, pass1Pretty, linkQueue, logPrefix, idfProvided, publicationsProvided, nameProvided, webpageUrlsProvided).getResults();
+	}
+
+	// nothing is read from or written to files, results and links to fetch are only returned
+	public static Pass1Output run(PreProcessor preProcessor, String logPrefix, Idf idf, List<Publication> publications, String nameProvided, List<String> webpageUrlsProvided) throws IOException {
+		return make(null, Collections.singletonList(preProcessor), false, null, logPrefix, idf, publications, nameProvided, webpageUrlsProvided);
+	}
+
+	// if outputPath is null, then idfProvided and publicationsProvided must not be null and nothing is written
+	private static Pass1Output make(Path outputPath, List<PreProcessor> preProcessors, boolean pass1Pretty, LinkQueue linkQueue, String logPrefix, Idf idfProvided, List<Publication> publicationsProvided, String nameProvided, List<String> webpageUrlsProvided) throws IOException {
 		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
 
 		List<String> hostIgnore = PubFetcher.getResource(Pass1.class, "pass1/host_ignore.txt");
-		List<String> beforeTier1 = PubFetcher.getResource(Pass1.class, "pass1/before_tier1.txt");
-		List<String> beforeTier2 = PubFetcher.getResource(Pass1.class, "pass1/before_tier2.txt");
-		List<String> beforeTier3 = PubFetcher.getResource(Pass1.class, "pass1/before_tier3.txt");
-		List<String> afterTier1 = PubFetcher.getResource(Pass1.class, "pass1/after_tier1.txt");
-		List<String> afterTier2 = PubFetcher.getResource(Pass1.class, "pass1/after_tier2.txt");
-		List<String> afterTier3 = PubFetcher.getResource(Pass1.class, "pass1/after_tier3.txt");
+		TierWords tierWords = TierWords.get();
 
 		Idf idf;
 		if (idfProvided != null) {
@@ -1498,149 +1863,42 @@ public final class Pass1 {
 			publications = new LinkedHashSet<>(PubFetcher.getPublications(dbFile, Collections.singletonList(pubFile), Common.PUB_FILE));
 		}
 
-		Path webPath = PubFetcher.outputPath(outputPath.resolve(Common.WEB_FILE).toString());
-		Path docPath = PubFetcher.outputPath(outputPath.resolve(Common.DOC_FILE).toString());
-		Path pass1Path = PubFetcher.outputPath(outputPath.resolve(Common.PASS1_FILE).toString());
+		Path webPath = (outputPath != null ? PubFetcher.outputPath(outputPath.resolve(Common.WEB_FILE).toString()) : null);
+		Path docPath = (outputPath != null ? PubFetcher.outputPath(outputPath.resolve(Common.DOC_FILE).toString()) : null);
+		Path pass1Path = (outputPath != null ? PubFetcher.outputPath(outputPath.resolve(Common.PASS1_FILE).toString()) : null);
 
 		List<Result1> results = new ArrayList<>();
 
 		logger.info(mainMarker, "{}Making results from {} publications", logPrefix, publications.size());
 
-		CharsetEncoder webEncoder = StandardCharsets.UTF_8.newEncoder();
-		webEncoder.onMalformedInput(CodingErrorAction.REPLACE);
-		webEncoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
-
-		CharsetEncoder docEncoder = StandardCharsets.UTF_8.newEncoder();
-		docEncoder.onMalformedInput(CodingErrorAction.REPLACE);
-		docEncoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
-
-		CharsetEncoder pass1Encoder = StandardCharsets.UTF_8.newEncoder();
-		pass1Encoder.onMalformedInput(CodingErrorAction.REPLACE);
-		pass1Encoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
-
-		try (BufferedWriter webWriter = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(webPath), webEncoder));
-				BufferedWriter docWriter = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(docPath), docEncoder));
-				BufferedWriter pass1Writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(pass1Path), pass1Encoder))) {
-
-			int publicationIndex = 0;
-			long start = System.currentTimeMillis();
-			for (Publication publication : publications) {
-				++publicationIndex;
-				System.err.print(PubFetcher.progress(publicationIndex, publications.size(), start) + "  \r");
-
-				if (publication.getAbstract().getSize() > ABSTRACT_MAX_LENGTH && publicationsProvided == null) {
-					logger.info("Skipping publication {}, as length of abstract ({}) is larger than allowed ({})", publication.toStringId(), publication.getAbstract().getSize(), ABSTRACT_MAX_LENGTH);
-					continue;
-				}
-				if (publication.getFulltext().getSize() > FULLTEXT_MAX_LENGTH && publicationsProvided == null) {
-					logger.info("Skipping publication {}, as length of fulltext ({}) is larger than allowed ({})", publication.toStringId(), publication.getFulltext().getSize(), FULLTEXT_MAX_LENGTH);
-					continue;
-				}
-
-				List<String> toolTitleExtractedOriginal = new ArrayList<>();
-				List<String> toolTitle = new ArrayList<>();
-				List<String> toolTitlePruned = new ArrayList<>();
-				String toolTitleAcronym = null;
-				long toolTitleWordsTotal = 0;
-
-				String title = publication.getTitle().getContent();
-				String titleRest = title;
-
-				int from = 0;
-				Matcher matcher = Common.TITLE_SEPARATOR.matcher(title);
-
-				while (from < title.length() && matcher.find(from)) {
-					String currentToolTitleString = title.substring(from, matcher.start()).trim();
-					if (TOOL_TITLE_INVALID.matcher(currentToolTitleString).matches()) {
-						from = matcher.end();
-						continue;
-					}
-
-					List<String> currentToolTitleExtractedOriginal = new ArrayList<>();
-					List<String> currentToolTitle = new ArrayList<>();
-					List<String> currentToolTitlePruned = new ArrayList<>();
-					String currentToolTitleAcronym = null;
-					long currentToolTitleWordsTotal = 0;
-
-					Integer firstAcronymIndex = firstAcronymIndex(currentToolTitleString, preProcessor);
-					if (!TOOL_TITLE_SEPARATOR.matcher(currentToolTitleString).find() || firstAcronymIndex != null || currentToolTitleString.split(" ").length > TOOL_TITLE_SEPARATOR_MAX_WORDS) {
-						List<String> currentToolTitleExtracted = preProcessor.extract(currentToolTitleString);
-						currentToolTitleExtractedOriginal.add(String.join(" ", currentToolTitleExtracted));
-						preProcessor.process(currentToolTitleString, currentToolTitleExtracted); // align indexes
-						if (firstAcronymIndex != null) {
-							currentToolTitleAcronym = currentToolTitleExtracted.remove(firstAcronymIndex.intValue());
-						}
-						currentToolTitle.add(String.join(" ", currentToolTitleExtracted));
-						currentToolTitlePruned.add(Common.toolTitlePrune(currentToolTitleExtracted));
-						currentToolTitleWordsTotal += currentToolTitleExtracted.size();
-					} else {
-						for (String currentToolTitleStringPart : TOOL_TITLE_SEPARATOR_ALL.split(currentToolTitleString)) {
-							List<String> currentToolTitleExtracted = preProcessor.extract(currentToolTitleStringPart);
-							currentToolTitleExtractedOriginal.add(String.join(" ", currentToolTitleExtracted));
-							preProcessor.process(currentToolTitleStringPart, currentToolTitleExtracted); // align indexes
-							currentToolTitle.add(String.join(" ", currentToolTitleExtracted));
-							currentToolTitlePruned.add(Common.toolTitlePrune(currentToolTitleExtracted));
-							currentToolTitleWordsTotal += currentToolTitleExtracted.size();
-						}
-					}
-
-					if (currentToolTitleWordsTotal < toolTitleWordsTotal || toolTitle.isEmpty()) {
-						toolTitleExtractedOriginal = currentToolTitleExtractedOriginal;
-						toolTitle = currentToolTitle;
-						toolTitlePruned = currentToolTitlePruned;
-						toolTitleAcronym = currentToolTitleAcronym;
-						toolTitleWordsTotal = currentToolTitleWordsTotal;
-						titleRest = title.substring(0, from).trim() + " " + title.substring(matcher.start()).trim();
-					}
+		try (BufferedWriter webWriter = Common.newWriter(webPath);
+				BufferedWriter docWriter = Common.newWriter(docPath);
+				BufferedWriter pass1Writer = Common.newWriter(pass1Path)) {
 
-					from = matcher.end();
-				}
-
-				if (from == 0) {
-					List<String> toolTitleExtractedStandalone = preProcessor.extract(title);
-					String toolTitleExtractedOriginalStandalone = String.join(" ", toolTitleExtractedStandalone);
-					preProcessor.process(title, toolTitleExtractedStandalone); // align indexes
-					String toolTitlePrunedStandalone = Common.toolTitlePrune(toolTitleExtractedStandalone);
-					if (toolTitlePrunedStandalone.length() <= TOOL_TITLE_STANDALONE_MAX_CHARS) {
-						toolTitleExtractedOriginal.add(toolTitleExtractedOriginalStandalone);
-						toolTitle.add(String.join(" ", toolTitleExtractedStandalone));
-						toolTitlePruned.add(toolTitlePrunedStandalone);
-						titleRest = "";
-					}
-				}
-
-				if (!toolTitle.isEmpty()) {
-					List<String> toolTitleProcessed = new ArrayList<>();
-					for (int i = 0; i < toolTitle.size(); ++i) {
-						toolTitleProcessed.add(String.join(" ", preProcessor.process(toolTitle.get(i))));
-					}
-					List<String> toolTitleProcessedDone = new ArrayList<>();
-					for (int i = 0; i < toolTitleProcessed.size(); ++i) {
-						if (!toolTitleProcessedDone.contains(toolTitleProcessed.get(i))) {
-							List<String> toolTitleOthers = new ArrayList<>();
-							for (int j = 0; j < toolTitle.size(); ++j) {
-								if (!toolTitle.get(i).equals(toolTitle.get(j))) {
-									toolTitleOthers.add(toolTitle.get(j));
-								}
-							}
-							List<String> toolTitleProcessedOthers = new ArrayList<>();
-							for (int j = 0; j < toolTitleProcessed.size(); ++j) {
-								if (!toolTitleProcessed.get(i).equals(toolTitleProcessed.get(j))) {
-									toolTitleProcessedOthers.add(toolTitleProcessed.get(j));
-								}
-							}
-							makeResult(results, publication,
-								title, titleRest, toolTitle.size(), toolTitleExtractedOriginal.get(i), toolTitle.get(i), toolTitlePruned.get(i), toolTitleAcronym, toolTitleOthers, toolTitleProcessedOthers,
-								hostIgnore, beforeTier1, beforeTier2, beforeTier3, afterTier1, afterTier2, afterTier3,
-								preProcessor, idf, nameProvided, webpageUrlsProvided);
-							toolTitleProcessedDone.add(toolTitleProcessed.get(i));
+			if (preProcessors.size() > 1) {
+				logger.info(mainMarker, "{}Using {} threads", logPrefix, preProcessors.size());
+				makeResultsParallel(results, new ArrayList<>(publications), publicationsProvided == null,
+					hostIgnore, tierWords,
+					preProcessors, idf, nameProvided, webpageUrlsProvided, linkQueue);
+			} else {
+				int publicationIndex = 0;
+				long start = System.currentTimeMillis();
+				for (Publication publication : publications) {
+					++publicationIndex;
+					System.err.print(PubFetcher.progress(publicationIndex, publications.size(), start) + "  \r");
+
+					int resultsSize = results.size();
+					makeResults(results, publication, publicationsProvided == null,
+						hostIgnore, tierWords,
+						preProcessors.get(0), idf, nameProvided, webpageUrlsProvided);
+					if (linkQueue != null) {
+						try {
+							putLinks(linkQueue, results.subList(resultsSize, results.size()));
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							throw new IOException("Interrupted while making results", e);
 						}
 					}
-				} else {
-					makeResult(results, publication,
-						title, titleRest, 0, null, null, null, null, null, null,
-						hostIgnore, beforeTier1, beforeTier2, beforeTier3, afterTier1, afterTier2, afterTier3,
-						preProcessor, idf, nameProvided, webpageUrlsProvided);
 				}
 			}
 
@@ -1654,16 +1912,7 @@ public final class Pass1 {
 
 			logger.info(mainMarker, "{}Dividing links to webpages and docs", logPrefix);
 			for (Result1 result : results) {
-				for (Suggestion1 suggestion : result.getSuggestions()) {
-					List<BiotoolsLink<LinkType>> linkLinks = new ArrayList<>();
-					List<BiotoolsLink<DownloadType>> downloadLinks = new ArrayList<>();
-					List<BiotoolsLink<DocumentationType>> documentationLinks = new ArrayList<>();
-					Common.makeBiotoolsLinks(suggestion.getLinksAbstract(), linkLinks, downloadLinks, documentationLinks);
-					Common.makeBiotoolsLinks(suggestion.getLinksFulltext(), linkLinks, downloadLinks, documentationLinks);
-					linkLinks.forEach(link -> webpages.add(link.getUrl()));
-					downloadLinks.forEach(link -> webpages.add(link.getUrl()));
-					documentationLinks.forEach(link -> docs.add(link.getUrl()));
-				}
+				divideLinks(result, webpages, docs);
 			}
 			if (webpageUrlsProvided != null && !webpageUrlsProvided.isEmpty()) {
 				List<String> webpageUrlsProvidedNotAdded = new ArrayList<>();
@@ -1699,16 +1948,23 @@ public final class Pass1 {
 				}
 			}
 
-			logger.info(mainMarker, "{}Writing {} webpage URLs to {}", logPrefix, webpages.size(), webPath.toString());
-			writeLinks(webWriter, webpages);
-			logger.info(mainMarker, "{}Writing {} doc URLs to {}", logPrefix, docs.size(), docPath.toString());
-			writeLinks(docWriter, docs);
+			Pass1Output output = new Pass1Output(results, schemaLinks(webpages), schemaLinks(docs));
+
+			if (outputPath != null) {
+				logger.info(mainMarker, "{}Writing {} webpage URLs to {}", logPrefix, webpages.size(), webPath.toString());
+				writeLinks(webWriter, output.getWebpageUrls());
+				logger.info(mainMarker, "{}Writing {} doc URLs to {}", logPrefix, docs.size(), docPath.toString());
+				writeLinks(docWriter, output.getDocUrls());
+
+				logger.info(mainMarker, "{}Writing {} pass1 results to {}", logPrefix, results.size(), pass1Path.toString());
+				try (Pass1Writer pass1ResultsWriter = new Pass1Writer(pass1Writer, pass1Pretty)) {
+					for (Result1 result : results) {
+						pass1ResultsWriter.write(result);
+					}
+				}
+			}
 
-			logger.info(mainMarker, "{}Writing {} pass1 results to {}", logPrefix, results.size(), pass1Path.toString());
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.enable(SerializationFeature.INDENT_OUTPUT);
-			mapper.enable(SerializationFeature.CLOSE_CLOSEABLE);
-			mapper.writeValue(pass1Writer, results);
+			return output;
 		}
 	}
 }
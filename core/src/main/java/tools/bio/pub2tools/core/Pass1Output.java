@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.util.List;
+
+// sorted results of pass1 and the webpage and doc URLs to fetch for pass2, the same as written to pass1.json, web.txt and doc.txt
+public class Pass1Output {
+
+	private final List<Result1> results;
+
+	private final List<String> webpageUrls;
+
+	private final List<String> docUrls;
+
+	public Pass1Output(List<Result1> results, List<String> webpageUrls, List<String> docUrls) {
+		this.results = results;
+		this.webpageUrls = webpageUrls;
+		this.docUrls = docUrls;
+	}
+
+	public List<Result1> getResults() {
+		return results;
+	}
+
+	public List<String> getWebpageUrls() {
+		return webpageUrls;
+	}
+
+	public List<String> getDocUrls() {
+		return docUrls;
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// reads pass1 results from a JSON array one result at a time, making a pass2 result of each,
+// so that the whole list of pass1 results is never in memory
+public class Pass1Reader implements Iterator<Result2>, Closeable {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final JsonParser parser;
+
+	private boolean next = false;
+
+	private boolean end = false;
+
+	private int count = 0;
+
+	public Pass1Reader(Path pass1Path) throws IOException {
+		parser = mapper.getFactory().createParser(pass1Path.toFile());
+		try {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new JsonParseException(parser, "Expected an array of pass1 results in " + pass1Path.toString());
+			}
+		} catch (IOException e) {
+			parser.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (!next && !end) {
+			try {
+				JsonToken token = parser.nextToken();
+				if (token == JsonToken.START_OBJECT) {
+					next = true;
+				} else if (token == JsonToken.END_ARRAY) {
+					end = true;
+				} else {
+					throw new JsonParseException(parser, "Expected a pass1 result, got " + token);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return next;
+	}
+
+	@Override
+	public Result2 next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		next = false;
+		try {
+			Result1 result1 = mapper.readValue(parser, Result1.class);
+			++count;
+			return new Result2(result1);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// number of pass1 results read so far
+	public int getCount() {
+		return count;
+	}
+
+	@Override
+	public void close() throws IOException {
+		parser.close();
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// writes pass1 results as a JSON array one result at a time, the output being the same as when serialising the whole list
+public class Pass1Writer implements Closeable {
+
+	private final JsonGenerator generator;
+
+	private int count = 0;
+
+	public Pass1Writer(Writer writer, boolean pretty) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		generator = mapper.getFactory().createGenerator(writer);
+		if (pretty) {
+			generator.useDefaultPrettyPrinter();
+		}
+		generator.writeStartArray();
+	}
+
+	public void write(Result1 result) throws IOException {
+		generator.writeObject(result);
+		++count;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	@Override
+	public void close() throws IOException {
+		generator.writeEndArray();
+		generator.close();
+	}
+}
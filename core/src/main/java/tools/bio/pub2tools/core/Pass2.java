@@ -21,12 +21,9 @@ package tools.bio.pub2tools.core;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
-import java.nio.charset.CharsetEncoder;
-import java.nio.charset.CodingErrorAction;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -42,15 +39,16 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
@@ -66,7 +64,6 @@ import org.edamontology.pubfetcher.core.db.webpage.Webpage;
 import org.edamontology.pubfetcher.core.scrape.Scrape;
 
 import org.edamontology.edammap.core.idf.Idf;
-import org.edamontology.edammap.core.input.Json;
 import org.edamontology.edammap.core.input.json.Credit;
 import org.edamontology.edammap.core.input.json.DocumentationType;
 import org.edamontology.edammap.core.input.json.DownloadType;
@@ -76,10 +73,6 @@ import org.edamontology.edammap.core.input.json.LinkDownload;
 import org.edamontology.edammap.core.input.json.LinkType;
 import org.edamontology.edammap.core.input.json.Tool;
 import org.edamontology.edammap.core.preprocessing.PreProcessor;
-import org.edamontology.edammap.core.query.QueryType;
-
-import tools.bio.pub2tools.core.Language.LanguageSearch;
-import tools.bio.pub2tools.core.License.LicenseSearch;
 
 public final class Pass2 {
 
@@ -119,7 +112,9 @@ public final class Pass2 {
 
 	private static final int NAME_WORD_MATCH_LIMIT = 5;
 
-	private static final Pattern NOT_ALPHANUM = Pattern.compile("[^\\p{L}\\p{N}]");
+	private static final int DATABASE_CACHE_SIZE = 1000;
+
+	static final Pattern NOT_ALPHANUM = Pattern.compile("[^\\p{L}\\p{N}]");
 
 	private static final Pattern HOMEPAGE_EXCLUDE = Pattern.compile("(?i)^(https?://)?(www\\.)?(clinicaltrials\\.gov|osf\\.io|annualreviews\\.org|w3\\.org|creativecommons\\.org|data\\.mendeley\\.com|ncbi\\.nlm\\.nih\\.gov/.+=GSE[0-9]+)([^\\p{L}]|$)");
 	private static final Pattern JOURNAL_EXCLUDE = Pattern.compile("(?i)^(Systematic reviews|The Cochrane Database of Systematic Reviews|Annual review of .*)$");
@@ -145,7 +140,28 @@ public final class Pass2 {
 		"current_license", "modify_license", "current_languages", "add_languages", "current_credits", "modify_credits", "add_credits" };
 	private static final String DOCS_OUTPUT = "https://pub2tools.readthedocs.io/en/latest/output.html#";
 
-	private static boolean isBroken(String url, Database db) {
+	// the webpages and docs removeBroken reads for the given links of a suggestion
+	private static void prefetchLinks(List<BiotoolsLink<LinkType>> linkLinks, List<BiotoolsLink<DownloadType>> downloadLinks, List<BiotoolsLink<DocumentationType>> documentationLinks, DatabaseCache db) {
+		db.prefetch(linkLinks.stream().map(l -> l.getUrl()).collect(Collectors.toList()), false, true);
+		db.prefetch(downloadLinks.stream().map(l -> l.getUrl()).collect(Collectors.toList()), false, true);
+		db.prefetch(documentationLinks.stream().map(l -> l.getUrl()).collect(Collectors.toList()), true, true);
+	}
+
+	// the webpages and docs writeResult always reads for the licenses and languages of the first suggestion of result
+	private static void prefetchResult(Result2 result, DatabaseCache db) {
+		if (result.getSuggestions().isEmpty()) {
+			return;
+		}
+		Suggestion2 suggestion = result.getSuggestions().get(0);
+		if (!suggestion.isHomepageBroken() && !suggestion.isHomepageMissing() && !suggestion.getHomepage().isEmpty()) {
+			db.prefetch(Collections.singletonList(suggestion.getHomepage()), false, false);
+		}
+		db.prefetch(suggestion.getLinkLinks().stream().map(l -> l.getUrl()).collect(Collectors.toList()), false, true);
+		db.prefetch(suggestion.getDownloadLinks().stream().map(l -> l.getUrl()).collect(Collectors.toList()), false, true);
+		db.prefetch(suggestion.getDocumentationLinks().stream().map(l -> l.getUrl()).collect(Collectors.toList()), true, true);
+	}
+
+	private static boolean isBroken(String url, DatabaseCache db) {
 		if (db.getWebpage(url, false) != null && !db.getWebpage(url, false).isBroken()) {
 			return false;
 		}
@@ -171,7 +187,7 @@ public final class Pass2 {
 		return false;
 	}
 
-	private static String removeLowestSubdomain(String urlTrimmed) {
+	static String removeLowestSubdomain(String urlTrimmed) {
 		int slash = urlTrimmed.indexOf('/');
 		int firstDot = urlTrimmed.indexOf('.');
 		if (firstDot >= 0) {
@@ -185,16 +201,82 @@ public final class Pass2 {
 		return urlTrimmed;
 	}
 
-	private static void linksMatch(Map<Integer, List<String>> linkMatchMap, String suggestionLink, Suggestion2 suggestion, List<List<String>> queryLinks) {
+	private static void mergeResult(Result2 resultI, Result2 resultJ) {
+		resultI.addPubIds(resultJ.getPubIds().get(0));
+
+		resultI.addTitle(resultJ.getTitle().get(0));
+		resultI.addToolTitleOthers(resultJ.getToolTitleOthers().get(0));
+		resultI.addToolTitleExtractedOriginal(resultJ.getToolTitleExtractedOriginal().get(0));
+		resultI.addToolTitle(resultJ.getToolTitle().get(0));
+		resultI.addToolTitlePruned(resultJ.getToolTitlePruned().get(0));
+		resultI.addToolTitleAcronym(resultJ.getToolTitleAcronym().get(0));
+		resultI.addAbstractSentences(resultJ.getAbstractSentences().get(0));
+		resultI.addOa(resultJ.isOa().get(0));
+		resultI.addPreprint(resultJ.isPreprint().get(0));
+		resultI.addJournalTitle(resultJ.getJournalTitle().get(0));
+		resultI.addPubDate(resultJ.getPubDate().get(0));
+		resultI.addPubDateHuman(resultJ.getPubDateHuman().get(0));
+		resultI.addCitationsCount(resultJ.getCitationsCount().get(0));
+		resultI.addCitationsTimestamp(resultJ.getCitationsTimestamp().get(0));
+		resultI.addCitationsTimestampHuman(resultJ.getCitationsTimestampHuman().get(0));
+
+		resultI.addCorrespAuthor(resultJ.getCorrespAuthor().get(0));
+
+		for (Iterator<Suggestion2> iterI = resultI.getSuggestions().iterator(); iterI.hasNext(); ) {
+			Suggestion2 suggestionI = iterI.next();
+			for (Iterator<Suggestion2> iterJ = resultJ.getSuggestions().iterator(); iterJ.hasNext(); ) {
+				Suggestion2 suggestionJ = iterJ.next();
+				if (suggestionI.getExtracted().equals(suggestionJ.getExtracted())) {
+					if (suggestionI.compareTo(suggestionJ) > 0) {
+						suggestionJ.addLinksAbstract(suggestionI.getLinksAbstract());
+						suggestionJ.addLinksFulltext(suggestionI.getLinksFulltext());
+						iterI.remove();
+					} else {
+						suggestionI.addLinksAbstract(suggestionJ.getLinksAbstract());
+						suggestionI.addLinksFulltext(suggestionJ.getLinksFulltext());
+						iterJ.remove();
+					}
+					break;
+				}
+			}
+		}
+		for (Suggestion2 suggestionJ : resultJ.getSuggestions()) {
+			resultI.addSuggestion(suggestionJ);
+		}
+		Collections.sort(resultI.getSuggestions());
+
+		resultI.addLeftoverLinksAbstract(resultJ.getLeftoverLinksAbstract().get(0));
+		resultI.addLeftoverLinksFulltext(resultJ.getLeftoverLinksFulltext().get(0));
+	}
+
+	static boolean isLinkMatchExcluded(String linkTrimmed) {
+		return linkTrimmed.startsWith("GITHUB.IO") || linkTrimmed.startsWith("SOURCEFORGE.NET")
+			|| linkTrimmed.startsWith("READTHEDOCS.IO") || linkTrimmed.startsWith("R-PROJECT.ORG");
+	}
+
+	private static Set<PubIds> notMatch(List<PubIds> pubIds, Set<PubIds> publicationMatch) {
+		Set<PubIds> notMatch = null;
+		for (PubIds pubId : pubIds) {
+			if (publicationMatch == null || !publicationMatch.contains(pubId)) {
+				if (notMatch == null) {
+					notMatch = new LinkedHashSet<>();
+				}
+				notMatch.add(pubId);
+			}
+		}
+		return notMatch;
+	}
+
+	private static void linksMatch(Map<Integer, List<String>> linkMatchMap, String suggestionLink, Suggestion2 suggestion, BiotoolsIndex biotoolsIndex) {
 		suggestionLink = Common.trimUrl(suggestionLink);
-		for (int j = 0; j < queryLinks.size(); ++j) {
+		for (int j : biotoolsIndex.getLinkCandidates(suggestionLink)) {
 			if (suggestion.getPublicationAndNameExisting() != null && suggestion.getPublicationAndNameExisting().contains(j)
 					|| suggestion.getNameExistingSomePublicationDifferent() != null && suggestion.getNameExistingSomePublicationDifferent().contains(j)
 					|| suggestion.getSomePublicationExistingNameDifferent() != null && suggestion.getSomePublicationExistingNameDifferent().contains(j)) {
 				continue;
 			}
 			List<String> matchedLinks = null;
-			for (String queryLink : queryLinks.get(j)) {
+			for (String queryLink : biotoolsIndex.getLinks().get(j)) {
 				if (suggestionLink.equalsIgnoreCase(queryLink)) {
 					if (matchedLinks == null) {
 						matchedLinks = new ArrayList<>();
@@ -213,8 +295,7 @@ public final class Pass2 {
 						matchedLink = suggestionLinkTrimmed;
 					}
 					if (rest != null) {
-						if (!suggestionLinkTrimmed.startsWith("GITHUB.IO") && !suggestionLinkTrimmed.startsWith("SOURCEFORGE.NET")
-								&& !suggestionLinkTrimmed.startsWith("READTHEDOCS.IO") && !suggestionLinkTrimmed.startsWith("R-PROJECT.ORG")) {
+						if (!isLinkMatchExcluded(suggestionLinkTrimmed)) {
 							int slash = rest.indexOf('/');
 							if (slash < 0 || rest.indexOf('/', slash + 1) < 0) {
 								if (matchedLinks == null) {
@@ -237,7 +318,7 @@ public final class Pass2 {
 		}
 	}
 
-	private static <T> void removeBroken(List<BiotoolsLink<T>> links, Set<BiotoolsLink<?>> broken, Database db, boolean doc, String name) {
+	private static <T> void removeBroken(List<BiotoolsLink<T>> links, Set<BiotoolsLink<?>> broken, DatabaseCache db, boolean doc, String name) {
 		for (Iterator<BiotoolsLink<T>> it = links.iterator(); it.hasNext(); ) {
 			BiotoolsLink<T> link = it.next();
 			boolean removed = false;
@@ -263,7 +344,7 @@ public final class Pass2 {
 		}
 	}
 
-	private static String chooseHomepage(List<String> links, List<BiotoolsLink<LinkType>> linkLinks, List<BiotoolsLink<DocumentationType>> documentationLinks, Database db) {
+	private static String chooseHomepage(List<String> links, List<BiotoolsLink<LinkType>> linkLinks, List<BiotoolsLink<DocumentationType>> documentationLinks, DatabaseCache db) {
 		for (Iterator<BiotoolsLink<LinkType>> it = linkLinks.iterator(); it.hasNext(); ) {
 			BiotoolsLink<LinkType> linkLink = it.next();
 			if (linkLink.getType() == LinkType.OTHER) {
@@ -325,7 +406,7 @@ public final class Pass2 {
 		return removeIndex;
 	}
 
-	private static String currentHomepage(Tool biotool, Database db) {
+	private static String currentHomepage(Tool biotool, DatabaseCache db) {
 		String homepage = biotool.getHomepage();
 		if (biotool.getHomepage_status() != 0) {
 			homepage += " (homepage_status: " + biotool.getHomepage_status() + ")";
@@ -414,7 +495,8 @@ public final class Pass2 {
 		return result.getNameWordMatch().stream().map(e -> biotools.get(e)).map(q -> q.getBiotoolsID() + " (" + q.getName() + ")").collect(Collectors.toList());
 	}
 
-	private static List<Integer> addDiffTool(Suggestion2 suggestion, boolean include, Result2 result, Database db, List<Tool> biotools, PreProcessor preProcessor, List<Diff> diffs, List<Tool> tools,
+	// diffs are added to diffs in the order they are made, the caller groups them with DiffGetter.addDiff
+	private static List<Integer> addDiffTool(Suggestion2 suggestion, boolean include, Result2 result, DatabaseCache db, List<Tool> biotools, PreProcessor preProcessor, List<Diff> diffs, List<Tool> tools,
 			String name, String description, String homepage, boolean homepageBroken, boolean homepageMissing, Set<BiotoolsLink<LinkType>> linkLinks, Set<BiotoolsLink<DownloadType>> downloadLinks, Set<BiotoolsLink<DocumentationType>> documentationLinks,
 			Provenance bestLicense, Provenance bestAbstractLicense, List<Provenance> allLanguages, List<Provenance> abstractLanguagesUnique, List<CorrespAuthor> credits, boolean includeAll) {
 		double scoreScore2 = suggestion.getScore2() < 0 ? suggestion.getScore() + 10000 : suggestion.getScore2();
@@ -515,9 +597,9 @@ public final class Pass2 {
 					continue;
 				}
 				if (suggestion.confident()) {
-					DiffGetter.addDiff(diffs, DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getPublicationAndNameExisting().get(i), result.getPubIds(), null, null, homepage, linkLinks, downloadLinks, documentationLinks, bestLicense, allLanguages, credits, db));
+					diffs.add(DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getPublicationAndNameExisting().get(i), result.getPubIds(), null, null, homepage, linkLinks, downloadLinks, documentationLinks, bestLicense, allLanguages, credits, db));
 				} else {
-					DiffGetter.addDiff(diffs, DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getPublicationAndNameExisting().get(i), result.getPubIds(), null, null, null, null, null, null, bestAbstractLicense, abstractLanguagesUnique, credits, db));
+					diffs.add(DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getPublicationAndNameExisting().get(i), result.getPubIds(), null, null, null, null, null, null, bestAbstractLicense, abstractLanguagesUnique, credits, db));
 				}
 				existing.add(suggestion.getPublicationAndNameExisting().get(i));
 			}
@@ -528,9 +610,9 @@ public final class Pass2 {
 					continue;
 				}
 				if (suggestion.confident()) {
-					DiffGetter.addDiff(diffs, DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getNameExistingSomePublicationDifferent().get(i), result.getPubIds(), suggestion.getNameExistingSomePublicationDifferentPubIds().get(i), null, homepage, linkLinks, downloadLinks, documentationLinks, bestLicense, allLanguages, credits, db));
+					diffs.add(DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getNameExistingSomePublicationDifferent().get(i), result.getPubIds(), suggestion.getNameExistingSomePublicationDifferentPubIds().get(i), null, homepage, linkLinks, downloadLinks, documentationLinks, bestLicense, allLanguages, credits, db));
 				} else {
-					DiffGetter.addDiff(diffs, DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getNameExistingSomePublicationDifferent().get(i), result.getPubIds(), suggestion.getNameExistingSomePublicationDifferentPubIds().get(i), null, null, null, null, null, bestAbstractLicense, abstractLanguagesUnique, credits, db));
+					diffs.add(DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getNameExistingSomePublicationDifferent().get(i), result.getPubIds(), suggestion.getNameExistingSomePublicationDifferentPubIds().get(i), null, null, null, null, null, bestAbstractLicense, abstractLanguagesUnique, credits, db));
 				}
 				existing.add(suggestion.getNameExistingSomePublicationDifferent().get(i));
 			}
@@ -541,20 +623,20 @@ public final class Pass2 {
 					continue;
 				}
 				if (suggestion.confident()) {
-					DiffGetter.addDiff(diffs, DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getSomePublicationExistingNameDifferent().get(i), result.getPubIds(), suggestion.getSomePublicationExistingNameDifferentPubIds().get(i), name, homepage, linkLinks, downloadLinks, documentationLinks, bestLicense, allLanguages, credits, db));
+					diffs.add(DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getSomePublicationExistingNameDifferent().get(i), result.getPubIds(), suggestion.getSomePublicationExistingNameDifferentPubIds().get(i), name, homepage, linkLinks, downloadLinks, documentationLinks, bestLicense, allLanguages, credits, db));
 				} else {
-					DiffGetter.addDiff(diffs, DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getSomePublicationExistingNameDifferent().get(i), result.getPubIds(), suggestion.getSomePublicationExistingNameDifferentPubIds().get(i), null, null, null, null, null, bestAbstractLicense, abstractLanguagesUnique, credits, db));
+					diffs.add(DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getSomePublicationExistingNameDifferent().get(i), result.getPubIds(), suggestion.getSomePublicationExistingNameDifferentPubIds().get(i), null, null, null, null, null, bestAbstractLicense, abstractLanguagesUnique, credits, db));
 				}
 				existing.add(suggestion.getSomePublicationExistingNameDifferent().get(i));
 			}
 		}
 
 		for (Integer i : nameExistingPublicationDifferentAddToDiff) {
-			DiffGetter.addDiff(diffs, DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getNameExistingPublicationDifferent().get(i), result.getPubIds(), suggestion.getNameExistingPublicationDifferentPubIds().get(i), null, homepage, linkLinks, downloadLinks, documentationLinks, bestLicense, allLanguages, credits, db));
+			diffs.add(DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, suggestion.getNameExistingPublicationDifferent().get(i), result.getPubIds(), suggestion.getNameExistingPublicationDifferentPubIds().get(i), null, homepage, linkLinks, downloadLinks, documentationLinks, bestLicense, allLanguages, credits, db));
 			existing.add(suggestion.getNameExistingPublicationDifferent().get(i));
 		}
 		for (Integer i : nameMatchAddToDiff) {
-			DiffGetter.addDiff(diffs, DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, result.getNameMatch().get(i), null, result.getPubIds(), name, homepage, linkLinks, downloadLinks, documentationLinks, bestLicense, allLanguages, credits, db));
+			diffs.add(DiffGetter.makeDiff(scoreScore2, possiblyRelated, biotools, result.getNameMatch().get(i), null, result.getPubIds(), name, homepage, linkLinks, downloadLinks, documentationLinks, bestLicense, allLanguages, credits, db));
 			existing.add(result.getNameMatch().get(i));
 		}
 
@@ -697,8 +779,18 @@ public final class Pass2 {
 		return notPattern;
 	}
 
-	private static void writeResult(Result2 result, Database db, Writer resultsWriter,
-			List<Tool> biotools, List<License> licenses, List<Language> languages, List<String> languageKeywords, Scrape scrape, PreProcessor preProcessor,
+	// provenances of a language already present are added to it, otherwise the language is added in order
+	private static void addLanguage(Map<String, Provenance> languages, Provenance language) {
+		Provenance existing = languages.get(language.getObject());
+		if (existing != null) {
+			existing.addProvenances(language.getProvenances());
+		} else {
+			languages.put(language.getObject(), language);
+		}
+	}
+
+	private static void writeResult(Result2 result, DatabaseCache db, Writer resultsWriter,
+			List<Tool> biotools, LicenseIndex licenses, LanguageIndex languages, Scrape scrape, PreProcessor preProcessor,
 			List<Diff> diffs, List<Tool> tools, List<Pattern> notAbstract, List<Pattern> notTitle, boolean includeAll) throws IOException {
 
 		final String name;
@@ -773,7 +865,7 @@ public final class Pass2 {
 			List<String> abstractSentences = result.getAbstractSentences().get(i);
 			String provenance = result.getPubIds().get(i).toString();
 			abstractLicenses.add(abstractSentences.stream()
-				.map(s -> new LicenseSearch(s).bestMatch(licenses, false))
+				.map(s -> licenses.bestMatch(s, false))
 				.filter(l -> l != null)
 				.map(l -> new Provenance(l.getOriginal(), provenance))
 				.collect(Collectors.toList()));
@@ -781,7 +873,7 @@ public final class Pass2 {
 
 		List<Provenance> allLicenses = new ArrayList<>();
 		for (Provenance webpageLicense : webpageLicenses) {
-			License l = new LicenseSearch(webpageLicense.getObject()).bestMatch(licenses, true);
+			License l = licenses.bestMatch(webpageLicense.getObject(), true);
 			if (l != null) {
 				allLicenses.add(new Provenance(l.getOriginal(), webpageLicense.getProvenances()));
 			}
@@ -870,59 +962,31 @@ public final class Pass2 {
 			List<String> abstractSentences = result.getAbstractSentences().get(i);
 			String provenance = result.getPubIds().get(i).toString();
 			abstractLanguages.add(abstractSentences.stream()
-				.map(s -> new LanguageSearch(s).getMatches(languages, false, languageKeywords))
+				.map(s -> languages.getMatches(s, false))
 				.flatMap(l -> l.stream().map(s -> new Provenance(s, provenance)))
 				.collect(Collectors.toList()));
 		}
-		List<Provenance> abstractLanguagesUnique = new ArrayList<>();
+		Map<String, Provenance> abstractLanguagesUniqueMap = new LinkedHashMap<>();
 		for (List<Provenance> ls : abstractLanguages) {
 			for (Provenance l : ls) {
-				boolean found = false;
-				for (Provenance unique : abstractLanguagesUnique) {
-					if (l.getObject().equals(unique.getObject())) {
-						unique.addProvenances(l.getProvenances());
-						found = true;
-						break;
-					}
-				}
-				if (!found) {
-					abstractLanguagesUnique.add(l);
-				}
+				addLanguage(abstractLanguagesUniqueMap, l);
 			}
 		}
+		List<Provenance> abstractLanguagesUnique = new ArrayList<>(abstractLanguagesUniqueMap.values());
 
 		webpageLanguages = webpageLanguages.stream()
-			.flatMap(s -> new LanguageSearch(s.getObject()).getMatches(languages, true, languageKeywords).stream().map(l -> new Provenance(l, s.getProvenances())))
+			.flatMap(s -> languages.getMatches(s.getObject(), true).stream().map(l -> new Provenance(l, s.getProvenances())))
 			.collect(Collectors.toList());
-		List<Provenance> allLanguages = new ArrayList<>();
+		Map<String, Provenance> allLanguagesMap = new LinkedHashMap<>();
 		for (Provenance l : webpageLanguages) {
-			boolean found = false;
-			for (Provenance all : allLanguages) {
-				if (l.getObject().equals(all.getObject())) {
-					all.addProvenances(l.getProvenances());
-					found = true;
-					break;
-				}
-			}
-			if (!found) {
-				allLanguages.add(l);
-			}
+			addLanguage(allLanguagesMap, l);
 		}
 		for (List<Provenance> ls : abstractLanguages) {
 			for (Provenance l : ls) {
-				boolean found = false;
-				for (Provenance all : allLanguages) {
-					if (l.getObject().equals(all.getObject())) {
-						all.addProvenances(l.getProvenances());
-						found = true;
-						break;
-					}
-				}
-				if (!found) {
-					allLanguages.add(l);
-				}
+				addLanguage(allLanguagesMap, l);
 			}
 		}
+		List<Provenance> allLanguages = new ArrayList<>(allLanguagesMap.values());
 
 		List<CorrespAuthor> credits = new ArrayList<>();
 		for (List<CorrespAuthor> correspAuthor : result.getCorrespAuthor()) {
@@ -1247,15 +1311,233 @@ public final class Pass2 {
 		writeField(resultsWriter, credits.stream().map(ca -> ca.toString()).collect(Collectors.joining(" | ")), true);
 	}
 
-	@SuppressWarnings("unchecked")
+	// finds the existing bio.tools entries matching result by publication IDs, names and links (the phase of run after merging results)
+	static void findExisting(Result2 result, List<Tool> biotools, BiotoolsIndex biotoolsIndex) {
+		Map<Integer, Set<PubIds>> publicationMatches = new HashMap<>();
+		for (PubIds pubIds : result.getPubIds()) {
+			for (Integer j : biotoolsIndex.getPublicationMatches(pubIds)) {
+				Set<PubIds> publicationMatch = publicationMatches.get(j);
+				if (publicationMatch == null) {
+					publicationMatch = new HashSet<>();
+					publicationMatches.put(j, publicationMatch);
+				}
+				publicationMatch.add(pubIds);
+			}
+		}
+		Map<Integer, Set<PubIds>> notMatches = new HashMap<>();
+		for (int i = 0; i < result.getSuggestions().size(); ++i) {
+			Suggestion2 suggestion = result.getSuggestions().get(i);
+			List<Integer> publicationAndNameExisting = null;
+			List<Integer> nameExistingSomePublicationDifferent = null;
+			List<Set<PubIds>> nameExistingSomePublicationDifferentPubIds = null;
+			List<Integer> somePublicationExistingNameDifferent = null;
+			List<Set<PubIds>> somePublicationExistingNameDifferentPubIds = null;
+			List<Integer> nameExistingPublicationDifferent = null;
+			List<Set<PubIds>> nameExistingPublicationDifferentPubIds = null;
+			TreeSet<Integer> candidates = new TreeSet<>(publicationMatches.keySet());
+			candidates.addAll(biotoolsIndex.getNameMatches(suggestion.getExtracted()));
+			for (int j : candidates) {
+				Tool biotool = biotools.get(j);
+				boolean oneMatch = publicationMatches.containsKey(j);
+				if (!notMatches.containsKey(j)) {
+					notMatches.put(j, notMatch(result.getPubIds(), publicationMatches.get(j)));
+				}
+				boolean allMatch = (notMatches.get(j) == null);
+				if (suggestion.getExtracted().equals(biotool.getName())) {
+					if (allMatch) {
+						if (publicationAndNameExisting == null) {
+							publicationAndNameExisting = new ArrayList<>();
+						}
+						publicationAndNameExisting.add(j);
+					} else if (oneMatch) {
+						if (nameExistingSomePublicationDifferent == null) {
+							nameExistingSomePublicationDifferent = new ArrayList<>();
+						}
+						nameExistingSomePublicationDifferent.add(j);
+						if (nameExistingSomePublicationDifferentPubIds == null) {
+							nameExistingSomePublicationDifferentPubIds = new ArrayList<>();
+						}
+						nameExistingSomePublicationDifferentPubIds.add(notMatches.get(j));
+					} else {
+						if (nameExistingPublicationDifferent == null) {
+							nameExistingPublicationDifferent = new ArrayList<>();
+						}
+						nameExistingPublicationDifferent.add(j);
+						if (nameExistingPublicationDifferentPubIds == null) {
+							nameExistingPublicationDifferentPubIds = new ArrayList<>();
+						}
+						nameExistingPublicationDifferentPubIds.add(notMatches.get(j));
+					}
+				} else if (oneMatch) {
+					if (somePublicationExistingNameDifferent == null) {
+						somePublicationExistingNameDifferent = new ArrayList<>();
+					}
+					somePublicationExistingNameDifferent.add(j);
+					if (somePublicationExistingNameDifferentPubIds == null) {
+						somePublicationExistingNameDifferentPubIds = new ArrayList<>();
+					}
+					somePublicationExistingNameDifferentPubIds.add(notMatches.get(j));
+				}
+			}
+			suggestion.setPublicationAndNameExisting(publicationAndNameExisting);
+			suggestion.setNameExistingSomePublicationDifferent(nameExistingSomePublicationDifferent);
+			suggestion.setNameExistingSomePublicationDifferentPubIds(nameExistingSomePublicationDifferentPubIds);
+			suggestion.setSomePublicationExistingNameDifferent(somePublicationExistingNameDifferent);
+			suggestion.setSomePublicationExistingNameDifferentPubIds(somePublicationExistingNameDifferentPubIds);
+			suggestion.setNameExistingPublicationDifferent(nameExistingPublicationDifferent);
+			suggestion.setNameExistingPublicationDifferentPubIds(nameExistingPublicationDifferentPubIds);
+
+			if (i == 0) {
+				String suggestionProcessed = Common.BIOTOOLS_PROCESSED_VERSION_TRIM.matcher(result.getSuggestions().get(i).getProcessed()).replaceFirst("");
+				String suggestionProcessedCompare = NOT_ALPHANUM.matcher(suggestionProcessed).replaceAll("");
+				if (!suggestionProcessed.isEmpty()) {
+					for (int j : biotoolsIndex.getNameProcessedMatches(suggestionProcessed, suggestionProcessedCompare)) {
+						if ((publicationAndNameExisting == null || !publicationAndNameExisting.contains(j))
+								&& (nameExistingSomePublicationDifferent == null || !nameExistingSomePublicationDifferent.contains(j))
+								&& (somePublicationExistingNameDifferent == null || !somePublicationExistingNameDifferent.contains(j))
+								&& (nameExistingPublicationDifferent == null || !nameExistingPublicationDifferent.contains(j))) {
+							result.addNameMatch(j);
+						}
+					}
+				}
+				LinkedHashMap<Integer, List<String>> linkMatchMap = new LinkedHashMap<>();
+				for (String suggestionLink : result.getSuggestions().get(i).getLinksAbstract()) {
+					linksMatch(linkMatchMap, suggestionLink, suggestion, biotoolsIndex);
+				}
+				for (String suggestionLink : result.getSuggestions().get(i).getLinksFulltext()) {
+					linksMatch(linkMatchMap, suggestionLink, suggestion, biotoolsIndex);
+				}
+				for (Map.Entry<Integer, List<String>> linkMatchEntry : linkMatchMap.entrySet()) {
+					result.addLinkMatch(linkMatchEntry.getKey(), linkMatchEntry.getValue());
+				}
+				String suggestionExtracted = Common.BIOTOOLS_EXTRACTED_VERSION_TRIM.matcher(result.getSuggestions().get(i).getExtracted()).replaceFirst("");
+				if (!suggestionExtracted.isEmpty()) {
+					for (String suggestionExtractedWord : suggestionExtracted.split(" ")) {
+						List<Integer> nameWordMatchPart = new ArrayList<>();
+						for (int j : biotoolsIndex.getNameWordMatches(suggestionExtractedWord)) {
+							if ((publicationAndNameExisting == null || !publicationAndNameExisting.contains(j))
+									&& (nameExistingSomePublicationDifferent == null || !nameExistingSomePublicationDifferent.contains(j))
+									&& (somePublicationExistingNameDifferent == null || !somePublicationExistingNameDifferent.contains(j))
+									&& (nameExistingPublicationDifferent == null || !nameExistingPublicationDifferent.contains(j))
+									&& !result.getNameMatch().contains(j) && !result.getLinkMatch().contains(j) && !result.getNameWordMatch().contains(j)) {
+								nameWordMatchPart.add(j);
+							}
+						}
+						if (nameWordMatchPart.size() >= 1 && nameWordMatchPart.size() <= NAME_WORD_MATCH_LIMIT) {
+							for (Integer j : nameWordMatchPart) {
+								result.addNameWordMatch(j);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	// diffs of a result are added in the order made, so that diffs of the same bio.tools entry are grouped as if results were written one by one
+	private static void addDiffs(List<Diff> diffs, List<Diff> resultDiffs) {
+		for (Diff diff : resultDiffs) {
+			DiffGetter.addDiff(diffs, diff);
+		}
+	}
+
+	// output of writeResult for one result, kept until all previous results have been output, and dropped after that
+	private static final class ResultOutput {
+		private final StringWriter row = new StringWriter();
+		private final List<Diff> diffs = new ArrayList<>();
+		private final List<Tool> tools = new ArrayList<>();
+	}
+
+	private static void writeResultsParallel(List<Result2> results, DatabaseCache db, Writer resultsWriter,
+			List<Tool> biotools, LicenseIndex licenses, LanguageIndex languages, Scrape scrape, List<PreProcessor> preProcessors,
+			List<Diff> diffs, List<Tool> tools, List<Pattern> notAbstract, List<Pattern> notTitle, boolean includeAll) throws IOException {
+		// rows, diffs and new tools of each result are kept separately and output in result order,
+		// so that results, diffs and new tools are the same as when written sequentially
+		// whenever a result is done, the done results following the ones already output are output, so only results done out of order are kept
+		ResultOutput[] outputs = new ResultOutput[results.size()];
+		int[] outputNext = { 0 };
+		AtomicInteger resultNext = new AtomicInteger(0);
+		AtomicInteger resultDone = new AtomicInteger(0);
+		long start = System.currentTimeMillis();
+
+		ExecutorService executor = Executors.newFixedThreadPool(preProcessors.size());
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (PreProcessor preProcessor : preProcessors) {
+				futures.add(executor.submit(() -> {
+					int resultIndex;
+					while ((resultIndex = resultNext.getAndIncrement()) < results.size()) {
+						Result2 result = results.get(resultIndex);
+						ResultOutput output = new ResultOutput();
+						prefetchResult(result, db);
+						writeResult(result, db, output.row, biotools, licenses, languages, scrape, preProcessor, output.diffs, output.tools, notAbstract, notTitle, includeAll);
+						synchronized (outputs) {
+							outputs[resultIndex] = output;
+							while (outputNext[0] < outputs.length && outputs[outputNext[0]] != null) {
+								ResultOutput next = outputs[outputNext[0]];
+								resultsWriter.write(next.row.toString());
+								addDiffs(diffs, next.diffs);
+								tools.addAll(next.tools);
+								outputs[outputNext[0]] = null;
+								++outputNext[0];
+							}
+						}
+						System.err.print(PubFetcher.progress(resultDone.incrementAndGet(), results.size(), start) + "  \r");
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing results", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			} else if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else {
+				throw new IOException(e.getCause());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	public static List<Tool> run(Path outputPath, PreProcessor preProcessor, FetcherArgs fetcherArgs, String logPrefix, Idf idfProvided, List<Tool> biotoolsProvided, Database dbProvided, boolean includeAll, List<Publication> publicationsProvided, String nameProvided, List<String> webpageUrlsProvided) throws IOException, ParseException {
+		return run(outputPath, preProcessor, fetcherArgs, logPrefix, idfProvided, biotoolsProvided, dbProvided, null, includeAll, publicationsProvided, nameProvided, webpageUrlsProvided);
+	}
+
+	// if results1Provided is not null, pass1 results are taken from there instead of reading pass1.json
+	public static List<Tool> run(Path outputPath, PreProcessor preProcessor, FetcherArgs fetcherArgs, String logPrefix, Idf idfProvided, List<Tool> biotoolsProvided, Database dbProvided, List<Result1> results1Provided, boolean includeAll, List<Publication> publicationsProvided, String nameProvided, List<String> webpageUrlsProvided) throws IOException, ParseException {
+		return run(outputPath, preProcessor, fetcherArgs, logPrefix, idfProvided, biotoolsProvided, null, dbProvided, results1Provided, includeAll, publicationsProvided, nameProvided, webpageUrlsProvided);
+	}
+
+	// if biotoolsIndexProvided is not null, bio.tools entries are taken from it and it must have been built with a preProcessor of the same args as preProcessor
+	// if outputPath is null, then nothing is read from or written to files, so idfProvided, biotoolsProvided or biotoolsIndexProvided, dbProvided and results1Provided must not be null
+	public static List<Tool> run(Path outputPath, PreProcessor preProcessor, FetcherArgs fetcherArgs, String logPrefix, Idf idfProvided, List<Tool> biotoolsProvided, BiotoolsIndex biotoolsIndexProvided, Database dbProvided, List<Result1> results1Provided, boolean includeAll, List<Publication> publicationsProvided, String nameProvided, List<String> webpageUrlsProvided) throws IOException, ParseException {
+		return run(outputPath, Collections.singletonList(preProcessor), fetcherArgs, logPrefix, idfProvided, biotoolsProvided, biotoolsIndexProvided, dbProvided, results1Provided, includeAll, publicationsProvided, nameProvided, webpageUrlsProvided);
+	}
+
+	// if there is more than one preProcessor, results are written using a thread for each preProcessor (all of the same args)
+	public static List<Tool> run(Path outputPath, List<PreProcessor> preProcessors, FetcherArgs fetcherArgs, String logPrefix, Idf idfProvided, List<Tool> biotoolsProvided, Database dbProvided, List<Result1> results1Provided, boolean includeAll, List<Publication> publicationsProvided, String nameProvided, List<String> webpageUrlsProvided) throws IOException, ParseException {
+		return run(outputPath, preProcessors, fetcherArgs, logPrefix, idfProvided, biotoolsProvided, null, dbProvided, results1Provided, includeAll, publicationsProvided, nameProvided, webpageUrlsProvided);
+	}
+
+	private static List<Tool> run(Path outputPath, List<PreProcessor> preProcessors, FetcherArgs fetcherArgs, String logPrefix, Idf idfProvided, List<Tool> biotoolsProvided, BiotoolsIndex biotoolsIndexProvided, Database dbProvided, List<Result1> results1Provided, boolean includeAll, List<Publication> publicationsProvided, String nameProvided, List<String> webpageUrlsProvided) throws IOException, ParseException {
 		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
 
+		PreProcessor preProcessor = preProcessors.get(0);
+
 		List<String> license = PubFetcher.getResource(Pass2.class, "pass2/license.txt");
-		List<License> licenses = license.stream().map(l -> new License(l)).collect(Collectors.toList());
+		LicenseIndex licenses = new LicenseIndex(license.stream().map(l -> new License(l)).collect(Collectors.toList()));
 		List<String> language = PubFetcher.getResource(Pass2.class, "pass2/language.txt");
 		List<String> languageKeywords = PubFetcher.getResource(Pass2.class, "pass2/language_keywords.txt");
-		List<Language> languages = language.stream().map(l -> new Language(l)).collect(Collectors.toList());
+		LanguageIndex languages = new LanguageIndex(language.stream().map(l -> new Language(l)).collect(Collectors.toList()), languageKeywords);
 
 		List<Pattern> notAbstract = PubFetcher.getResource(SelectPub.class, "select/not_abstract.txt").stream().map(s -> notPattern(s)).collect(Collectors.toList());
 		List<Pattern> notTitle = PubFetcher.getResource(SelectPub.class, "select/not_title.txt").stream().map(s -> notPattern(s)).collect(Collectors.toList());
@@ -1272,47 +1554,46 @@ public final class Pass2 {
 		}
 
 		List<Tool> biotools;
-		if (biotoolsProvided != null) {
+		if (biotoolsIndexProvided != null) {
+			biotools = biotoolsIndexProvided.getBiotools();
+		} else if (biotoolsProvided != null) {
 			biotools = biotoolsProvided;
 		} else {
-			String biotoolsFile = outputPath.resolve(Common.BIOTOOLS_FILE).toString();
-			logger.info(mainMarker, "{}Loading all bio.tools content from {}", logPrefix, biotoolsFile);
-			biotools = (List<Tool>) Json.load(biotoolsFile, QueryType.biotools, fetcherArgs.getTimeout(), fetcherArgs.getPrivateArgs().getUserAgent());
+			biotools = BiotoolsSnapshot.loadBiotools(outputPath.resolve(Common.BIOTOOLS_FILE), fetcherArgs.getTimeout(), fetcherArgs.getPrivateArgs().getUserAgent(), logPrefix);
 		}
 
-		Path pass1Path = outputPath.resolve(Common.PASS1_FILE);
-		logger.info(mainMarker, "{}Loading pass1 results from {}", logPrefix, pass1Path.toString());
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.enable(SerializationFeature.CLOSE_CLOSEABLE);
-		List<Result1> results1 = mapper.readValue(pass1Path.toFile(), new TypeReference<List<Result1>>() {});
-
-		Path resultsPath = PubFetcher.outputPath(outputPath.resolve(Common.RESULTS_FILE).toString());
-		Path diffPath = PubFetcher.outputPath(outputPath.resolve(Common.DIFF_FILE).toString());
-		Path newPath = PubFetcher.outputPath(outputPath.resolve(Common.NEW_FILE).toString());
-
 		List<Result2> results = new ArrayList<>();
-		for (Result1 result1 : results1) {
-			results.add(new Result2(result1));
+		int results1Size;
+		if (results1Provided != null) {
+			for (Result1 result1 : results1Provided) {
+				results.add(new Result2(result1));
+			}
+			results1Size = results1Provided.size();
+		} else {
+			Path pass1Path = outputPath.resolve(Common.PASS1_FILE);
+			logger.info(mainMarker, "{}Loading pass1 results from {}", logPrefix, pass1Path.toString());
+			try (Pass1Reader pass1Reader = new Pass1Reader(pass1Path)) {
+				while (pass1Reader.hasNext()) {
+					results.add(pass1Reader.next());
+				}
+				results1Size = pass1Reader.getCount();
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
 		}
 
-		logger.info(mainMarker, "{}Making pass2 results from {} pass1 results", logPrefix, results1.size());
-
-		CharsetEncoder resultsEncoder = StandardCharsets.UTF_8.newEncoder();
-		resultsEncoder.onMalformedInput(CodingErrorAction.REPLACE);
-		resultsEncoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		Path resultsPath = (outputPath != null ? PubFetcher.outputPath(outputPath.resolve(Common.RESULTS_FILE).toString()) : null);
+		Path diffPath = (outputPath != null ? PubFetcher.outputPath(outputPath.resolve(Common.DIFF_FILE).toString()) : null);
+		Path newPath = (outputPath != null ? PubFetcher.outputPath(outputPath.resolve(Common.NEW_FILE).toString()) : null);
 
-		CharsetEncoder diffEncoder = StandardCharsets.UTF_8.newEncoder();
-		diffEncoder.onMalformedInput(CodingErrorAction.REPLACE);
-		diffEncoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
-
-		CharsetEncoder newEncoder = StandardCharsets.UTF_8.newEncoder();
-		newEncoder.onMalformedInput(CodingErrorAction.REPLACE);
-		newEncoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		logger.info(mainMarker, "{}Making pass2 results from {} pass1 results", logPrefix, results1Size);
 
 		Database db = (dbProvided != null ? dbProvided : new Database(outputPath.resolve(Common.DB_FILE).toString()));
-		try (BufferedWriter resultsWriter = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(resultsPath), resultsEncoder));
-				BufferedWriter diffWriter = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(diffPath), diffEncoder));
-				BufferedWriter newWriter = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(newPath), newEncoder))) {
+		// each thread writing results needs room for the entries it has prefetched, so that they are not evicted by other threads before being used
+		DatabaseCache dbCache = new DatabaseCache(db, DATABASE_CACHE_SIZE * preProcessors.size());
+		try (BufferedWriter resultsWriter = Common.newWriter(resultsPath);
+				BufferedWriter diffWriter = Common.newWriter(diffPath);
+				BufferedWriter newWriter = Common.newWriter(newPath)) {
 
 			resultsWriter.write(Arrays.stream(RESULTS_HEADER).collect(Collectors.joining("\t")) + "\n");
 			resultsWriter.write(Arrays.stream(RESULTS_HEADER).map(s -> DOCS_OUTPUT + s.replaceAll("_", "-")).collect(Collectors.joining("\t")) + "\n");
@@ -1329,7 +1610,7 @@ public final class Pass2 {
 						Suggestion2 suggestion = result.getSuggestions().get(i);
 						boolean increased = false;
 						for (String url : suggestion.getLinksAbstract()) {
-							if (!isBroken(url, db)) {
+							if (!isBroken(url, dbCache)) {
 								if (suggestion.getScore2() < 0) {
 									suggestion.setScore2(suggestion.getScore());
 								}
@@ -1355,7 +1636,7 @@ public final class Pass2 {
 						}
 						if (!increased) {
 							for (String url : suggestion.getLinksFulltext()) {
-								if (!isBroken(url, db)) {
+								if (!isBroken(url, dbCache)) {
 									if (suggestion.getScore2() < 0) {
 										suggestion.setScore2(suggestion.getScore());
 									}
@@ -1511,105 +1792,61 @@ public final class Pass2 {
 
 			logger.info(mainMarker, "{}Merging results based on same suggestions", logPrefix);
 			TreeSet<Integer> removeResult = new TreeSet<>();
-			Set<String> publicationsProvidedMerged = new HashSet<>();
-			for (int i = 0; i < results.size() - 1; ++i) {
-				if (removeResult.contains(i)) {
-					continue;
+			if (publicationsProvided != null && results.size() > 1) {
+				Set<String> publicationsProvidedMerged = new HashSet<>();
+				Result2 resultI = results.get(0);
+				PubIds pubIdsI = resultI.getPubIds().get(0);
+				for (Publication publicationProvided : publicationsProvided) {
+					if (pubIdsI.getPmid().equals(publicationProvided.getPmid().getContent()) || pubIdsI.getPmcid().equals(publicationProvided.getPmcid().getContent()) || pubIdsI.getDoi().equals(publicationProvided.getDoi().getContent())) {
+						publicationsProvidedMerged.add(pubIdsI.toString());
+						break;
+					}
 				}
-				Result2 resultI = results.get(i);
-				boolean publicationsProvidedMerge = (publicationsProvided != null && i == 0);
-				if (publicationsProvidedMerge) {
-					PubIds pubIds = resultI.getPubIds().get(0);
+				for (int j = 1; j < results.size(); ++j) {
+					Result2 resultJ = results.get(j);
+					boolean publicationProvidedMerge = false;
+					PubIds pubIds = resultJ.getPubIds().get(0);
 					for (Publication publicationProvided : publicationsProvided) {
 						if (pubIds.getPmid().equals(publicationProvided.getPmid().getContent()) || pubIds.getPmcid().equals(publicationProvided.getPmcid().getContent()) || pubIds.getDoi().equals(publicationProvided.getDoi().getContent())) {
-							publicationsProvidedMerged.add(pubIds.toString());
+							if (!publicationsProvidedMerged.contains(pubIds.toString())) {
+								publicationsProvidedMerged.add(pubIds.toString());
+								publicationProvidedMerge = true;
+							}
 							break;
 						}
 					}
-				}
-				if (publicationsProvidedMerge || !resultI.getSuggestions().isEmpty()) {
-					if (!publicationsProvidedMerge && !resultI.getSuggestions().get(0).confident()) {
-						break;
-					}
-					for (int j = i + 1; j < results.size(); ++j) {
-						if (removeResult.contains(j)) {
-							continue;
-						}
-						Result2 resultJ = results.get(j);
-						if (publicationsProvidedMerge || !resultJ.getSuggestions().isEmpty()) {
-							if (!publicationsProvidedMerge && !resultJ.getSuggestions().get(0).confident()) {
-								break;
-							}
-							boolean publicationProvidedMerge = false;
-							if (publicationsProvidedMerge) {
-								PubIds pubIds = resultJ.getPubIds().get(0);
-								for (Publication publicationProvided : publicationsProvided) {
-									if (pubIds.getPmid().equals(publicationProvided.getPmid().getContent()) || pubIds.getPmcid().equals(publicationProvided.getPmcid().getContent()) || pubIds.getDoi().equals(publicationProvided.getDoi().getContent())) {
-										if (!publicationsProvidedMerged.contains(pubIds.toString())) {
-											publicationsProvidedMerged.add(pubIds.toString());
-											publicationProvidedMerge = true;
-										}
-										break;
-									}
-								}
-							}
-							if (publicationProvidedMerge || resultI.getSuggestions().get(0).getExtracted().equals(resultJ.getSuggestions().get(0).getExtracted())) {
-								resultI.addPubIds(resultJ.getPubIds().get(0));
-
-								resultI.addTitle(resultJ.getTitle().get(0));
-								resultI.addToolTitleOthers(resultJ.getToolTitleOthers().get(0));
-								resultI.addToolTitleExtractedOriginal(resultJ.getToolTitleExtractedOriginal().get(0));
-								resultI.addToolTitle(resultJ.getToolTitle().get(0));
-								resultI.addToolTitlePruned(resultJ.getToolTitlePruned().get(0));
-								resultI.addToolTitleAcronym(resultJ.getToolTitleAcronym().get(0));
-								resultI.addAbstractSentences(resultJ.getAbstractSentences().get(0));
-								resultI.addOa(resultJ.isOa().get(0));
-								resultI.addPreprint(resultJ.isPreprint().get(0));
-								resultI.addJournalTitle(resultJ.getJournalTitle().get(0));
-								resultI.addPubDate(resultJ.getPubDate().get(0));
-								resultI.addPubDateHuman(resultJ.getPubDateHuman().get(0));
-								resultI.addCitationsCount(resultJ.getCitationsCount().get(0));
-								resultI.addCitationsTimestamp(resultJ.getCitationsTimestamp().get(0));
-								resultI.addCitationsTimestampHuman(resultJ.getCitationsTimestampHuman().get(0));
-
-								resultI.addCorrespAuthor(resultJ.getCorrespAuthor().get(0));
-
-								for (Iterator<Suggestion2> iterI = resultI.getSuggestions().iterator(); iterI.hasNext(); ) {
-									Suggestion2 suggestionI = iterI.next();
-									for (Iterator<Suggestion2> iterJ = resultJ.getSuggestions().iterator(); iterJ.hasNext(); ) {
-										Suggestion2 suggestionJ = iterJ.next();
-										if (suggestionI.getExtracted().equals(suggestionJ.getExtracted())) {
-											if (suggestionI.compareTo(suggestionJ) > 0) {
-												suggestionJ.addLinksAbstract(suggestionI.getLinksAbstract());
-												suggestionJ.addLinksFulltext(suggestionI.getLinksFulltext());
-												iterI.remove();
-											} else {
-												suggestionI.addLinksAbstract(suggestionJ.getLinksAbstract());
-												suggestionI.addLinksFulltext(suggestionJ.getLinksFulltext());
-												iterJ.remove();
-											}
-											break;
-										}
-									}
-								}
-								for (Suggestion2 suggestionJ : resultJ.getSuggestions()) {
-									resultI.addSuggestion(suggestionJ);
-								}
-								Collections.sort(resultI.getSuggestions());
-
-								resultI.addLeftoverLinksAbstract(resultJ.getLeftoverLinksAbstract().get(0));
-								resultI.addLeftoverLinksFulltext(resultJ.getLeftoverLinksFulltext().get(0));
-
-								removeResult.add(j);
-							}
-						}
+					if (publicationProvidedMerge || resultI.getSuggestions().get(0).getExtracted().equals(resultJ.getSuggestions().get(0).getExtracted())) {
+						mergeResult(resultI, resultJ);
+						removeResult.add(j);
 					}
 				}
 			}
+			// results are sorted and merging does not change the top suggestion of a result,
+			// so each confident result is merged to the first confident result with the same top suggestion
+			Map<String, Result2> mergeTo = new HashMap<>();
+			for (int i = (publicationsProvided != null ? 1 : 0); i < results.size(); ++i) {
+				if (removeResult.contains(i)) {
+					continue;
+				}
+				Result2 result = results.get(i);
+				if (result.getSuggestions().isEmpty()) {
+					continue;
+				}
+				if (!result.getSuggestions().get(0).confident()) {
+					break;
+				}
+				Result2 resultTo = mergeTo.get(result.getSuggestions().get(0).getExtracted());
+				if (resultTo == null) {
+					mergeTo.put(result.getSuggestions().get(0).getExtracted(), result);
+				} else {
+					mergeResult(resultTo, result);
+					removeResult.add(i);
+				}
+			}
 			for (Iterator<Integer> it = removeResult.descendingIterator(); it.hasNext(); ) {
 				results.remove(it.next().intValue());
 			}
-			logger.info(mainMarker, "{}Merged {} pass1 results to {} pass2 results", logPrefix, results1.size(), results.size());
+			logger.info(mainMarker, "{}Merged {} pass1 results to {} pass2 results", logPrefix, results1Size, results.size());
 
 			if (!results.isEmpty()) {
 				Result2 result = results.get(0);
@@ -1651,46 +1888,34 @@ public final class Pass2 {
 				}
 			}
 
-			logger.info(mainMarker, "{}Filling same suggestions field for non-merged results", logPrefix, results1.size(), results.size());
-			for (int i = 0; i < results.size() - 1; ++i) {
-				Result2 resultI = results.get(i);
-				if (!resultI.getSuggestions().isEmpty()) {
-					for (int j = i + 1; j < results.size(); ++j) {
-						Result2 resultJ = results.get(j);
-						if (!resultJ.getSuggestions().isEmpty()) {
-							if (resultI.getSuggestions().get(0).getExtracted().equals(resultJ.getSuggestions().get(0).getExtracted())) {
-								resultI.addSameSuggestion(resultJ.getPubIds().get(0));
-								resultJ.addSameSuggestion(resultI.getPubIds().get(0));
-							}
+			logger.info(mainMarker, "{}Filling same suggestions field for non-merged results", logPrefix, results1Size, results.size());
+			Map<String, List<Result2>> sameSuggestions = new LinkedHashMap<>();
+			for (Result2 result : results) {
+				if (!result.getSuggestions().isEmpty()) {
+					List<Result2> sameSuggestion = sameSuggestions.get(result.getSuggestions().get(0).getExtracted());
+					if (sameSuggestion == null) {
+						sameSuggestion = new ArrayList<>();
+						sameSuggestions.put(result.getSuggestions().get(0).getExtracted(), sameSuggestion);
+					}
+					sameSuggestion.add(result);
+				}
+			}
+			for (List<Result2> sameSuggestion : sameSuggestions.values()) {
+				for (Result2 resultI : sameSuggestion) {
+					for (Result2 resultJ : sameSuggestion) {
+						if (resultJ != resultI) {
+							resultI.addSameSuggestion(resultJ.getPubIds().get(0));
 						}
 					}
 				}
 			}
 
-			logger.info(mainMarker, "{}Processing bio.tools names and links", logPrefix);
-			List<List<String>> queryNamesExtracted = new ArrayList<>();
-			List<String> queryNamesProcessed = new ArrayList<>();
-			List<List<String>> queryLinks = new ArrayList<>();
-			for (Tool biotool : biotools) {
-				List<String> queryNameExtracted = preProcessor.extract(biotool.getName());
-				List<String> queryNameProcessed = preProcessor.process(biotool.getName(), queryNameExtracted);
-				queryNamesExtracted.add(Arrays.asList(Common.BIOTOOLS_EXTRACTED_VERSION_TRIM.matcher(String.join(" ", queryNameExtracted)).replaceFirst("").split(" ")));
-				queryNamesProcessed.add(Common.BIOTOOLS_PROCESSED_VERSION_TRIM.matcher(String.join(" ", queryNameProcessed)).replaceFirst(""));
-				List<String> links = new ArrayList<>();
-				links.add(biotool.getHomepage());
-				if (biotool.getLink() != null) {
-					links.addAll(biotool.getLink().stream().map(l -> l.getUrl()).collect(Collectors.toList()));
-				}
-				if (biotool.getDownload() != null) {
-					links.addAll(biotool.getDownload().stream().map(l -> l.getUrl()).collect(Collectors.toList()));
-				}
-				if (biotool.getDocumentation() != null) {
-					links.addAll(biotool.getDocumentation().stream().map(l -> l.getUrl()).collect(Collectors.toList()));
-				}
-				queryLinks.add(links.stream()
-					.map(l -> Common.trimUrl(l.trim()))
-					.filter(l -> !l.isEmpty())
-					.collect(Collectors.toList()));
+			BiotoolsIndex biotoolsIndex;
+			if (biotoolsIndexProvided != null) {
+				biotoolsIndex = biotoolsIndexProvided;
+			} else {
+				logger.info(mainMarker, "{}Processing bio.tools names and links", logPrefix);
+				biotoolsIndex = new BiotoolsIndex(biotools, preProcessor);
 			}
 
 			logger.info(mainMarker, "{}Finding existing bio.tools entries", logPrefix);
@@ -1700,146 +1925,7 @@ public final class Pass2 {
 			for (Result2 result : results) {
 				++resultIndex;
 				System.err.print(PubFetcher.progress(resultIndex, results.size(), start) + "  \r");
-
-				List<Boolean> oneMatches = new ArrayList<>();
-				List<Boolean> allMatches = new ArrayList<>();
-				List<Set<PubIds>> notMatches = new ArrayList<>();
-				for (int i = 0; i < biotools.size(); ++i) {
-					Tool biotool = biotools.get(i);
-					boolean oneMatch = false;
-					boolean allMatch = true;
-					Set<PubIds> notMatch = null;
-					for (PubIds pubIds : result.getPubIds()) {
-						boolean match = false;
-						if (biotool.getPublication() != null) {
-							for (org.edamontology.edammap.core.input.json.Publication publicationIds : biotool.getPublication()) {
-								if (!pubIds.getPmid().isEmpty() && publicationIds.getPmid() != null && publicationIds.getPmid().trim().equals(pubIds.getPmid())
-										|| !pubIds.getPmcid().isEmpty() && publicationIds.getPmcid() != null && publicationIds.getPmcid().trim().equals(pubIds.getPmcid())
-										|| !pubIds.getDoi().isEmpty() && publicationIds.getDoi() != null && PubFetcher.normaliseDoi(publicationIds.getDoi().trim()).equals(pubIds.getDoi())) {
-									match = true;
-									break;
-								}
-							}
-						}
-						if (match) {
-							oneMatch = true;
-						} else {
-							allMatch = false;
-							if (notMatch == null) {
-								notMatch = new LinkedHashSet<>();
-							}
-							notMatch.add(pubIds);
-						}
-					}
-					oneMatches.add(oneMatch);
-					allMatches.add(allMatch);
-					notMatches.add(notMatch);
-				}
-				for (int i = 0; i < result.getSuggestions().size(); ++i) {
-					Suggestion2 suggestion = result.getSuggestions().get(i);
-					List<Integer> publicationAndNameExisting = null;
-					List<Integer> nameExistingSomePublicationDifferent = null;
-					List<Set<PubIds>> nameExistingSomePublicationDifferentPubIds = null;
-					List<Integer> somePublicationExistingNameDifferent = null;
-					List<Set<PubIds>> somePublicationExistingNameDifferentPubIds = null;
-					List<Integer> nameExistingPublicationDifferent = null;
-					List<Set<PubIds>> nameExistingPublicationDifferentPubIds = null;
-					for (int j = 0; j < biotools.size(); ++j) {
-						Tool biotool = biotools.get(j);
-						if (suggestion.getExtracted().equals(biotool.getName())) {
-							if (allMatches.get(j)) {
-								if (publicationAndNameExisting == null) {
-									publicationAndNameExisting = new ArrayList<>();
-								}
-								publicationAndNameExisting.add(j);
-							} else if (oneMatches.get(j)) {
-								if (nameExistingSomePublicationDifferent == null) {
-									nameExistingSomePublicationDifferent = new ArrayList<>();
-								}
-								nameExistingSomePublicationDifferent.add(j);
-								if (nameExistingSomePublicationDifferentPubIds == null) {
-									nameExistingSomePublicationDifferentPubIds = new ArrayList<>();
-								}
-								nameExistingSomePublicationDifferentPubIds.add(notMatches.get(j));
-							} else {
-								if (nameExistingPublicationDifferent == null) {
-									nameExistingPublicationDifferent = new ArrayList<>();
-								}
-								nameExistingPublicationDifferent.add(j);
-								if (nameExistingPublicationDifferentPubIds == null) {
-									nameExistingPublicationDifferentPubIds = new ArrayList<>();
-								}
-								nameExistingPublicationDifferentPubIds.add(notMatches.get(j));
-							}
-						} else if (oneMatches.get(j)) {
-							if (somePublicationExistingNameDifferent == null) {
-								somePublicationExistingNameDifferent = new ArrayList<>();
-							}
-							somePublicationExistingNameDifferent.add(j);
-							if (somePublicationExistingNameDifferentPubIds == null) {
-								somePublicationExistingNameDifferentPubIds = new ArrayList<>();
-							}
-							somePublicationExistingNameDifferentPubIds.add(notMatches.get(j));
-						}
-					}
-					suggestion.setPublicationAndNameExisting(publicationAndNameExisting);
-					suggestion.setNameExistingSomePublicationDifferent(nameExistingSomePublicationDifferent);
-					suggestion.setNameExistingSomePublicationDifferentPubIds(nameExistingSomePublicationDifferentPubIds);
-					suggestion.setSomePublicationExistingNameDifferent(somePublicationExistingNameDifferent);
-					suggestion.setSomePublicationExistingNameDifferentPubIds(somePublicationExistingNameDifferentPubIds);
-					suggestion.setNameExistingPublicationDifferent(nameExistingPublicationDifferent);
-					suggestion.setNameExistingPublicationDifferentPubIds(nameExistingPublicationDifferentPubIds);
-
-					if (i == 0) {
-						String suggestionProcessed = Common.BIOTOOLS_PROCESSED_VERSION_TRIM.matcher(result.getSuggestions().get(i).getProcessed()).replaceFirst("");
-						String suggestionProcessedCompare = NOT_ALPHANUM.matcher(suggestionProcessed).replaceAll("");
-						if (!suggestionProcessed.isEmpty()) {
-							for (int j = 0; j < queryNamesProcessed.size(); ++j) {
-								String biotoolsIdCompare = NOT_ALPHANUM.matcher(Common.BIOTOOLS_PROCESSED_VERSION_TRIM.matcher(biotools.get(j).getBiotoolsID().toLowerCase(Locale.ROOT)).replaceFirst("")).replaceAll("");
-								if (suggestionProcessed.equals(queryNamesProcessed.get(j)) || suggestionProcessedCompare.equals(biotoolsIdCompare)) {
-									if ((publicationAndNameExisting == null || !publicationAndNameExisting.contains(j))
-											&& (nameExistingSomePublicationDifferent == null || !nameExistingSomePublicationDifferent.contains(j))
-											&& (somePublicationExistingNameDifferent == null || !somePublicationExistingNameDifferent.contains(j))
-											&& (nameExistingPublicationDifferent == null || !nameExistingPublicationDifferent.contains(j))) {
-										result.addNameMatch(j);
-									}
-								}
-							}
-						}
-						LinkedHashMap<Integer, List<String>> linkMatchMap = new LinkedHashMap<>();
-						for (String suggestionLink : result.getSuggestions().get(i).getLinksAbstract()) {
-							linksMatch(linkMatchMap, suggestionLink, suggestion, queryLinks);
-						}
-						for (String suggestionLink : result.getSuggestions().get(i).getLinksFulltext()) {
-							linksMatch(linkMatchMap, suggestionLink, suggestion, queryLinks);
-						}
-						for (Map.Entry<Integer, List<String>> linkMatchEntry : linkMatchMap.entrySet()) {
-							result.addLinkMatch(linkMatchEntry.getKey(), linkMatchEntry.getValue());
-						}
-						String suggestionExtracted = Common.BIOTOOLS_EXTRACTED_VERSION_TRIM.matcher(result.getSuggestions().get(i).getExtracted()).replaceFirst("");
-						if (!suggestionExtracted.isEmpty()) {
-							for (String suggestionExtractedWord : suggestionExtracted.split(" ")) {
-								List<Integer> nameWordMatchPart = new ArrayList<>();
-								for (int j = 0; j < queryNamesExtracted.size(); ++j) {
-									if (queryNamesExtracted.get(j).contains(suggestionExtractedWord)) {
-										if ((publicationAndNameExisting == null || !publicationAndNameExisting.contains(j))
-												&& (nameExistingSomePublicationDifferent == null || !nameExistingSomePublicationDifferent.contains(j))
-												&& (somePublicationExistingNameDifferent == null || !somePublicationExistingNameDifferent.contains(j))
-												&& (nameExistingPublicationDifferent == null || !nameExistingPublicationDifferent.contains(j))
-												&& !result.getNameMatch().contains(j) && !result.getLinkMatch().contains(j) && !result.getNameWordMatch().contains(j)) {
-											nameWordMatchPart.add(j);
-										}
-									}
-								}
-								if (nameWordMatchPart.size() >= 1 && nameWordMatchPart.size() <= NAME_WORD_MATCH_LIMIT) {
-									for (Integer j : nameWordMatchPart) {
-										result.addNameWordMatch(j);
-									}
-								}
-							}
-						}
-					}
-				}
+				findExisting(result, biotools, biotoolsIndex);
 			}
 
 			logger.info(mainMarker, "{}Dividing links", logPrefix);
@@ -1850,19 +1936,21 @@ public final class Pass2 {
 					List<BiotoolsLink<DownloadType>> downloadLinksAbstract = new ArrayList<>();
 					List<BiotoolsLink<DocumentationType>> documentationLinksAbstract = new ArrayList<>();
 					Common.makeBiotoolsLinks(suggestion.getLinksAbstract(), linkLinksAbstract, downloadLinksAbstract, documentationLinksAbstract);
-					removeBroken(linkLinksAbstract, suggestion.getBrokenLinks(), db, false, name);
-					removeBroken(downloadLinksAbstract, suggestion.getBrokenLinks(), db, false, name);
-					removeBroken(documentationLinksAbstract, suggestion.getBrokenLinks(), db, true, name);
-					String homepage = chooseHomepage(suggestion.getLinksAbstract(), linkLinksAbstract, documentationLinksAbstract, db);
 					List<BiotoolsLink<LinkType>> linkLinksFulltext = new ArrayList<>();
 					List<BiotoolsLink<DownloadType>> downloadLinksFulltext = new ArrayList<>();
 					List<BiotoolsLink<DocumentationType>> documentationLinksFulltext = new ArrayList<>();
 					Common.makeBiotoolsLinks(suggestion.getLinksFulltext(), linkLinksFulltext, downloadLinksFulltext, documentationLinksFulltext);
-					removeBroken(linkLinksFulltext, suggestion.getBrokenLinks(), db, false, name);
-					removeBroken(downloadLinksFulltext, suggestion.getBrokenLinks(), db, false, name);
-					removeBroken(documentationLinksFulltext, suggestion.getBrokenLinks(), db, true, name);
+					prefetchLinks(linkLinksAbstract, downloadLinksAbstract, documentationLinksAbstract, dbCache);
+					prefetchLinks(linkLinksFulltext, downloadLinksFulltext, documentationLinksFulltext, dbCache);
+					removeBroken(linkLinksAbstract, suggestion.getBrokenLinks(), dbCache, false, name);
+					removeBroken(downloadLinksAbstract, suggestion.getBrokenLinks(), dbCache, false, name);
+					removeBroken(documentationLinksAbstract, suggestion.getBrokenLinks(), dbCache, true, name);
+					String homepage = chooseHomepage(suggestion.getLinksAbstract(), linkLinksAbstract, documentationLinksAbstract, dbCache);
+					removeBroken(linkLinksFulltext, suggestion.getBrokenLinks(), dbCache, false, name);
+					removeBroken(downloadLinksFulltext, suggestion.getBrokenLinks(), dbCache, false, name);
+					removeBroken(documentationLinksFulltext, suggestion.getBrokenLinks(), dbCache, true, name);
 					if (homepage == null) {
-						homepage = chooseHomepage(suggestion.getLinksFulltext(), linkLinksFulltext, documentationLinksFulltext, db);
+						homepage = chooseHomepage(suggestion.getLinksFulltext(), linkLinksFulltext, documentationLinksFulltext, dbCache);
 					}
 					if (homepage == null) {
 						for (String link : suggestion.getLinksAbstract()) {
@@ -1914,16 +2002,28 @@ public final class Pass2 {
 			List<Diff> diffs = new ArrayList<>();
 			List<Tool> tools = new ArrayList<>();
 
-			logger.info(mainMarker, "{}Writing {} pass2 results to {}", logPrefix, results.size(), resultsPath.toString());
-			resultIndex = 0;
-			start = System.currentTimeMillis();
-			for (Result2 result : results) {
-				++resultIndex;
-				System.err.print(PubFetcher.progress(resultIndex, results.size(), start) + "  \r");
-				writeResult(result, db, resultsWriter, biotools, licenses, languages, languageKeywords, scrape, preProcessor, diffs, tools, notAbstract, notTitle, includeAll);
+			if (resultsPath != null) {
+				logger.info(mainMarker, "{}Writing {} pass2 results to {}", logPrefix, results.size(), resultsPath.toString());
+			}
+			if (preProcessors.size() > 1) {
+				logger.info(mainMarker, "{}Using {} threads", logPrefix, preProcessors.size());
+				writeResultsParallel(results, dbCache, resultsWriter, biotools, licenses, languages, scrape, preProcessors, diffs, tools, notAbstract, notTitle, includeAll);
+			} else {
+				resultIndex = 0;
+				start = System.currentTimeMillis();
+				for (Result2 result : results) {
+					++resultIndex;
+					System.err.print(PubFetcher.progress(resultIndex, results.size(), start) + "  \r");
+					prefetchResult(result, dbCache);
+					List<Diff> resultDiffs = new ArrayList<>();
+					writeResult(result, dbCache, resultsWriter, biotools, licenses, languages, scrape, preProcessor, resultDiffs, tools, notAbstract, notTitle, includeAll);
+					addDiffs(diffs, resultDiffs);
+				}
 			}
 
-			logger.info(mainMarker, "{}Writing {} bio.tools diffs to {}", logPrefix, diffs.size(), diffPath.toString());
+			if (diffPath != null) {
+				logger.info(mainMarker, "{}Writing {} bio.tools diffs to {}", logPrefix, diffs.size(), diffPath.toString());
+			}
 			for (Diff diff : diffs) {
 				if (!diff.include()) {
 					continue;
@@ -1941,7 +2041,7 @@ public final class Pass2 {
 				writeField(diffWriter, diff.getModifyName() != null && !diff.getModifyName().isEmpty() ? biotool.getName() : null);
 				writeField(diffWriter, diff.getModifyName());
 				writeField(diffWriter, diff.getPossiblyRelated() != null ? diff.getPossiblyRelated().stream().map(e -> biotools.get(e)).map(q -> q.getBiotoolsID() + " (" + q.getName() + ")").collect(Collectors.joining(" | ")) : null);
-				writeField(diffWriter, diff.getModifyHomepage() != null && !diff.getModifyHomepage().isEmpty() ? currentHomepage(biotool, db) : null);
+				writeField(diffWriter, diff.getModifyHomepage() != null && !diff.getModifyHomepage().isEmpty() ? currentHomepage(biotool, dbCache) : null);
 				writeField(diffWriter, diff.getModifyHomepage());
 				String linkBiotools = null;
 				if (biotool.getLink() != null && !diff.getAddLinks().isEmpty()) {
@@ -2003,8 +2103,10 @@ public final class Pass2 {
 				}
 			}
 
-			logger.info(mainMarker, "{}Writing {} new bio.tools entries to {}", logPrefix, toolsUniq.size(), newPath.toString());
-			org.edamontology.edammap.core.output.Json.outputBiotools(newWriter, toolsUniq);
+			if (newPath != null) {
+				logger.info(mainMarker, "{}Writing {} new bio.tools entries to {}", logPrefix, toolsUniq.size(), newPath.toString());
+				org.edamontology.edammap.core.output.Json.outputBiotools(newWriter, toolsUniq);
+			}
 
 			return toolsUniq;
 		} finally {
@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.edamontology.edammap.core.preprocessing.PreProcessor;
+
+// bounded cache of results of CachingPreProcessor, where least recently used entries are dropped first
+// can be shared between threads and between CachingPreProcessor instances with different PreProcessorArgs
+public class PreProcessorCache {
+
+	private static final Logger logger = LogManager.getLogger();
+
+	// increased when the keys or values made by CachingPreProcessor change
+	private static final int FORMAT = 2;
+
+	private static final String VERSION_FIELD = "version";
+	private static final String ENTRIES_FIELD = "entries";
+
+	private final int size;
+
+	private final Map<String, List<List<String>>> entries;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public PreProcessorCache(int size) {
+		this.size = size;
+		this.entries = new LinkedHashMap<String, List<List<String>>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, List<List<String>>> eldest) {
+				return size() > PreProcessorCache.this.size;
+			}
+		};
+	}
+
+	// returned value must not be modified
+	synchronized List<List<String>> get(String key) {
+		List<List<String>> value = entries.get(key);
+		if (value != null) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+		return value;
+	}
+
+	// value must not be modified afterwards
+	synchronized void put(String key, List<List<String>> value) {
+		if (size > 0) {
+			entries.put(key, value);
+		}
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public void resetCounts() {
+		hits.set(0);
+		misses.set(0);
+	}
+
+	public void logCounts(String logPrefix) {
+		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
+		long hitsCount = hits.get();
+		long missesCount = misses.get();
+		logger.info(mainMarker, "{}PreProcessor cache: {} hits, {} misses ({}% hits), {} entries", logPrefix, hitsCount, missesCount,
+			hitsCount + missesCount > 0 ? Math.round(hitsCount * 100.0 / (hitsCount + missesCount)) : 0, size());
+	}
+
+	// the saved results are only valid for the PreProcessor they were made with, so the file is tagged with its version,
+	// or with its jar (or directory) if the version is not known, and with the format of CachingPreProcessor
+	private static String version() {
+		String version = PreProcessor.class.getPackage().getImplementationVersion();
+		if (version == null) {
+			CodeSource codeSource = PreProcessor.class.getProtectionDomain().getCodeSource();
+			version = (codeSource != null && codeSource.getLocation() != null ? codeSource.getLocation().toString() : "");
+		}
+		return FORMAT + " " + version;
+	}
+
+	// entries are added in the order they are in the file, so that the last used entries will also be the last used after loading
+	// a file saved with a different version is not loaded, as its results could differ from what the PreProcessor now returns
+	public void load(Path cachePath, String logPrefix) throws IOException {
+		if (size <= 0 || !cachePath.toFile().exists()) {
+			return;
+		}
+		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
+		logger.info(mainMarker, "{}Loading PreProcessor cache from {}", logPrefix, cachePath.toString());
+		ObjectMapper mapper = new ObjectMapper();
+		JsonNode root = mapper.readTree(cachePath.toFile());
+		String version = version();
+		JsonNode fileVersion = (root != null ? root.get(VERSION_FIELD) : null);
+		if (fileVersion == null || !fileVersion.isTextual() || !fileVersion.asText().equals(version) || root.get(ENTRIES_FIELD) == null) {
+			logger.warn(mainMarker, "{}Discarding PreProcessor cache {}, as it was not saved with version {}", logPrefix, cachePath.toString(), version);
+			return;
+		}
+		Map<String, List<List<String>>> loaded = mapper.convertValue(root.get(ENTRIES_FIELD), new TypeReference<LinkedHashMap<String, List<List<String>>>>() {});
+		synchronized (this) {
+			for (Map.Entry<String, List<List<String>>> entry : loaded.entrySet()) {
+				if (!entries.containsKey(entry.getKey())) {
+					entries.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		logger.info(mainMarker, "{}Loaded {} PreProcessor cache entries", logPrefix, loaded.size());
+	}
+
+	public void save(Path cachePath, String logPrefix) throws IOException {
+		if (size <= 0) {
+			return;
+		}
+		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
+		Map<String, List<List<String>>> saved;
+		synchronized (this) {
+			saved = new LinkedHashMap<>(entries);
+		}
+		logger.info(mainMarker, "{}Writing {} PreProcessor cache entries to {}", logPrefix, saved.size(), cachePath.toString());
+		try (BufferedWriter writer = Files.newBufferedWriter(cachePath, StandardCharsets.UTF_8)) {
+			ObjectMapper mapper = new ObjectMapper();
+			mapper.disable(SerializationFeature.CLOSE_CLOSEABLE);
+			Map<String, Object> file = new LinkedHashMap<>();
+			file.put(VERSION_FIELD, version());
+			file.put(ENTRIES_FIELD, saved);
+			mapper.writeValue(writer, file);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.edamontology.pubfetcher.core.db.publication.PublicationIds;
+
+// lists of publication IDs (one list per phrase queried in SelectPub), where each PMID, PMCID and DOI is interned to an int
+// and each list is a bitmap of the interned IDs occurring in it
+public class PublicationIdsIndex {
+
+	private final Map<String, Integer> pmids = new HashMap<>();
+	private final Map<String, Integer> pmcids = new HashMap<>();
+	private final Map<String, Integer> dois = new HashMap<>();
+
+	private final List<BitSet> lists = new ArrayList<>();
+
+	public PublicationIdsIndex(List<List<PublicationIds>> idsLists) {
+		for (List<PublicationIds> ids : idsLists) {
+			BitSet list = new BitSet();
+			for (PublicationIds id : ids) {
+				if (!id.getPmid().isEmpty()) {
+					list.set(intern(pmids, id.getPmid()));
+				}
+				if (!id.getPmcid().isEmpty()) {
+					list.set(intern(pmcids, id.getPmcid()));
+				}
+				if (!id.getDoi().isEmpty()) {
+					list.set(intern(dois, id.getDoi()));
+				}
+			}
+			lists.add(list);
+		}
+	}
+
+	// PMIDs, PMCIDs and DOIs get ints from the same range, so that the same string as a PMID and as a DOI does not match
+	private int intern(Map<String, Integer> index, String key) {
+		Integer i = index.get(key);
+		if (i == null) {
+			i = pmids.size() + pmcids.size() + dois.size();
+			index.put(key, i);
+		}
+		return i;
+	}
+
+	private static int get(Map<String, Integer> index, String key) {
+		if (key.isEmpty()) {
+			return -1;
+		}
+		Integer i = index.get(key);
+		return (i != null ? i : -1);
+	}
+
+	public int size() {
+		return lists.size();
+	}
+
+	// number of lists, starting from list index from, containing an ID with the same non-empty PMID, PMCID or DOI as id
+	public int count(PublicationIds id, int from) {
+		int pmid = get(pmids, id.getPmid());
+		int pmcid = get(pmcids, id.getPmcid());
+		int doi = get(dois, id.getDoi());
+		if (pmid < 0 && pmcid < 0 && doi < 0) {
+			return 0;
+		}
+		int count = 0;
+		for (int i = from; i < lists.size(); ++i) {
+			BitSet list = lists.get(i);
+			if (pmid >= 0 && list.get(pmid) || pmcid >= 0 && list.get(pmcid) || doi >= 0 && list.get(doi)) {
+				++count;
+			}
+		}
+		return count;
+	}
+}
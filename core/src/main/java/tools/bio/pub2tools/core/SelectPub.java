@@ -26,11 +26,17 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -64,7 +70,7 @@ public class SelectPub {
 		return query;
 	}
 
-	private static List<PublicationIds> getIds(String type, String resultType, String date, String source, String search, String custom, String not, FetcherArgs fetcherArgs, String logPrefix) throws IOException, ParseException, URISyntaxException {
+	private static List<PublicationIds> getIds(SelectPubFetcher selectFetcher, String type, String resultType, String date, String source, String search, String custom, String not, FetcherArgs fetcherArgs, String logPrefix) throws IOException, ParseException, URISyntaxException {
 		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
 
 		List<PublicationIds> ids = new ArrayList<>();
@@ -78,7 +84,7 @@ public class SelectPub {
 
 		try (Fetcher fetcher = new Fetcher(fetcherArgs.getPrivateArgs())) {
 			Map<String, String> query = getQuery(resultType, cursorMark, date, source, search, custom, not, fetcherArgs);
-			Document doc = fetcher.postDoc("https://www.ebi.ac.uk/europepmc/webservices/rest/searchPOST", query, fetcherArgs);
+			Document doc = selectFetcher.postDoc(fetcher, "https://www.ebi.ac.uk/europepmc/webservices/rest/searchPOST", query, fetcherArgs);
 			if (doc == null) {
 				throw new RuntimeException("No Document returned for query " + query);
 			}
@@ -123,7 +129,7 @@ public class SelectPub {
 						System.err.print(PubFetcher.progress(pageIndex, (expectedSize - 1) / 1000 + 1, start) + "  \r");
 
 						query = getQuery(resultType, cursorMark, date, source, search, custom, not, fetcherArgs);
-						doc = fetcher.postDoc("https://www.ebi.ac.uk/europepmc/webservices/rest/searchPOST", query, fetcherArgs);
+						doc = selectFetcher.postDoc(fetcher, "https://www.ebi.ac.uk/europepmc/webservices/rest/searchPOST", query, fetcherArgs);
 					}
 				} else {
 					int expectedIndex = (expectedSize - 1) / 1000 + 1;
@@ -152,6 +158,41 @@ public class SelectPub {
 		return ids;
 	}
 
+	private static Future<List<PublicationIds>> submitIds(ExecutorService executor, SelectPubFetcher selectFetcher, String type, String resultType, String date, String source, String search, String custom, String not, FetcherArgs fetcherArgs, String logPrefix) {
+		return executor.submit(() -> getIds(selectFetcher, type, resultType, date, source, search, custom, not, fetcherArgs, logPrefix));
+	}
+
+	private static List<PublicationIds> get(Future<List<PublicationIds>> future) throws IOException, ParseException, URISyntaxException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while getting publication IDs", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else if (e.getCause() instanceof ParseException) {
+				throw (ParseException) e.getCause();
+			} else if (e.getCause() instanceof URISyntaxException) {
+				throw (URISyntaxException) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			} else {
+				throw new IOException(e.getCause());
+			}
+		}
+	}
+
+	private static List<List<PublicationIds>> getAll(List<Future<List<PublicationIds>>> futures) throws IOException, ParseException, URISyntaxException {
+		List<List<PublicationIds>> ids = new ArrayList<>();
+		for (Future<List<PublicationIds>> future : futures) {
+			ids.add(get(future));
+		}
+		return ids;
+	}
+
 	// plural is complex, this includes only what is necessary for select/tool.txt and select/tool_good.txt
 	private static String getPlural(String singular) {
 		if (singular.endsWith("x") || singular.endsWith("ch")) {
@@ -170,267 +211,204 @@ public class SelectPub {
 		return "(" + PubFetcher.getResource(SelectPub.class, "select/" + resource + ".txt").stream().map(s -> "ABSTRACT:\"" + s + "\" OR ABSTRACT:\"" + getPlural(s) + "\"").collect(Collectors.joining(" OR ")) + ")";
 	}
 
-	private static int findId(int from, int fromLast, List<List<PublicationIds>> toolIds, PublicationIds firstId) {
-		for (int i = from; i < toolIds.size() - fromLast; ++i) {
-			for (PublicationIds toolId : toolIds.get(i)) {
-				if (!toolId.getPmid().isEmpty() && toolId.getPmid().equals(firstId.getPmid())
-						|| !toolId.getPmcid().isEmpty() && toolId.getPmcid().equals(firstId.getPmcid())
-						|| !toolId.getDoi().isEmpty() && toolId.getDoi().equals(firstId.getDoi())) {
-					return i;
-				}
+	// IDs of ids found in at least k lists of index, in the order of ids
+	private static List<PublicationIds> inLists(Collection<PublicationIds> ids, PublicationIdsIndex index, int k) {
+		List<PublicationIds> found = new ArrayList<>();
+		for (PublicationIds id : ids) {
+			if (index.count(id, 0) >= k) {
+				found.add(id);
 			}
 		}
-		return -1;
+		return found;
 	}
-	private static void findIdLast(int from, List<List<PublicationIds>> toolIds, PublicationIds firstId, List<PublicationIds> ids) {
-		for (int i = from; i < toolIds.size(); ++i) {
-			for (PublicationIds toolId : toolIds.get(i)) {
-				if (!toolId.getPmid().isEmpty() && toolId.getPmid().equals(firstId.getPmid())
-						|| !toolId.getPmcid().isEmpty() && toolId.getPmcid().equals(firstId.getPmcid())
-						|| !toolId.getDoi().isEmpty() && toolId.getDoi().equals(firstId.getDoi())) {
-					ids.add(firstId);
-					return;
-				}
-			}
-		}
-	}
-
-	private static Set<PublicationIds> abstractQuery(String resultType, String date, String source, String custom, String not, FetcherArgs fetcherArgs, String logPrefix) throws IOException, ParseException, URISyntaxException {
-		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
-		logger.info(mainMarker, "{}Running abstract query for source {} and date {}", logPrefix, source, date);
-
-		String excellent = getAbstractQuery("excellent");
-		String good = getAbstractQuery("good");
-		String mediocre1 = getAbstractQuery("mediocre1");
-		String mediocre2 = getAbstractQuery("mediocre2");
-		String http = getAbstractQuery("http");
-		String toolGood = getAbstractQueryPlural("tool_good");
-		String tool = getAbstractQueryPlural("tool");
-
-		List<String> toolsGood = PubFetcher.getResource(SelectPub.class, "select/tool_good.txt");
-		List<String> tools = PubFetcher.getResource(SelectPub.class, "select/tool.txt");
-		List<String> mediocres = PubFetcher.getResource(SelectPub.class, "select/mediocre1.txt");
-		mediocres.addAll(PubFetcher.getResource(SelectPub.class, "select/mediocre2.txt"));
-
-		List<PublicationIds> excellentIds = getIds("excellent", resultType, date, source, excellent, custom, not, fetcherArgs, logPrefix);
-		List<PublicationIds> goodHttpIds = getIds("good + http", resultType, date, source, good + " AND " + http, custom, not, fetcherArgs, logPrefix);
-		List<PublicationIds> goodToolGoodIds = getIds("good + tool_good", resultType, date, source, good + " AND " + toolGood, custom, not, fetcherArgs, logPrefix);
-		List<PublicationIds> mediocre1HttpToolIds = getIds("mediocre1 + http + tool", resultType, date, source, mediocre1 + " AND " + http + " AND " + tool, custom, not, fetcherArgs, logPrefix);
-		List<PublicationIds> mediocre2HttpToolIds = getIds("mediocre2 + http + tool", resultType, date, source, mediocre2 + " AND " + http + " AND " + tool, custom, not, fetcherArgs, logPrefix);
-		List<PublicationIds> mediocre1ToolGoodToolIds = getIds("mediocre1 + tool_good + tool", resultType, date, source, mediocre1 + " AND " + toolGood + " AND " + tool, custom, not, fetcherArgs, logPrefix);
-		List<PublicationIds> mediocre2ToolGoodToolIds = getIds("mediocre2 + tool_good + tool", resultType, date, source, mediocre2 + " AND " + toolGood + " AND " + tool, custom, not, fetcherArgs, logPrefix);
-		List<PublicationIds> mediocre1GoodToolIds = getIds("mediocre1 + good + tool", resultType, date, source, mediocre1 + " AND " + good + " AND " + tool, custom, not, fetcherArgs, logPrefix);
-		List<PublicationIds> mediocre2GoodToolIds = getIds("mediocre2 + good + tool", resultType, date, source, mediocre2 + " AND " + good + " AND " + tool, custom, not, fetcherArgs, logPrefix);
-		List<PublicationIds> httpToolGoodIds = getIds("http + tool_good", resultType, date, source, http + " AND " + toolGood, custom, not, fetcherArgs, logPrefix);
-
-		List<List<PublicationIds>> toolGoodsIds = new ArrayList<>();
-		for (String t : toolsGood) {
-			toolGoodsIds.add(getIds("\"" + t + "\"", resultType, date, source, "(ABSTRACT:\"" + t + "\" OR ABSTRACT:\"" + getPlural(t) + "\")", custom, not, fetcherArgs, logPrefix));
-		}
-		List<List<PublicationIds>> toolsIds = new ArrayList<>();
-		for (String t : tools) {
-			toolsIds.add(getIds("\"" + t + "\"", resultType, date, source, "(ABSTRACT:\"" + t + "\" OR ABSTRACT:\"" + getPlural(t) + "\")", custom, not, fetcherArgs, logPrefix));
-		}
-		List<List<PublicationIds>> mediocresIds = new ArrayList<>();
-		for (String t : mediocres) {
-			mediocresIds.add(getIds("\"" + t + "\"", resultType, date, source, "(ABSTRACT:\"" + t + "\")", custom, not, fetcherArgs, logPrefix));
-		}
-
-		List<PublicationIds> goodIds = getIds("good", resultType, date, source, good, custom, not, fetcherArgs, logPrefix);
-		Set<PublicationIds> mediocreIds = new LinkedHashSet<>();
-		mediocreIds.addAll(getIds("mediocre1", resultType, date, source, mediocre1, custom, not, fetcherArgs, logPrefix));
-		mediocreIds.addAll(getIds("mediocre2", resultType, date, source, mediocre2, custom, not, fetcherArgs, logPrefix));
-		List<PublicationIds> httpIds = getIds("http", resultType, date, source, http, custom, not, fetcherArgs, logPrefix);
-		List<PublicationIds> toolGoodIds = getIds("tool_good", resultType, date, source, toolGood, custom, not, fetcherArgs, logPrefix);
 
-		logger.info(mainMarker, "{}Getting results for good + tool + tool", logPrefix);
-		List<PublicationIds> goodToolToolIds = new ArrayList<>();
-		long start = System.currentTimeMillis();
-		for (int i = 0; i < goodIds.size(); ++i) {
-			System.err.print(PubFetcher.progress(i + 1, goodIds.size(), start) + "  \r");
-			PublicationIds goodId = goodIds.get(i);
-			int j = findId(0, 1, toolsIds, goodId);
-			if (j >= 0) {
-				findIdLast(j + 1, toolsIds, goodId, goodToolToolIds);
+	// all queries are submitted at construction, to be run in parallel by executor, so that the queries of the next abstract query do not wait for the results of this one
+	private static final class AbstractQuery {
+
+		private final String date;
+		private final String source;
+		private final String logPrefix;
+
+		private final Future<List<PublicationIds>> excellentIdsFuture;
+		private final Future<List<PublicationIds>> goodHttpIdsFuture;
+		private final Future<List<PublicationIds>> goodToolGoodIdsFuture;
+		private final Future<List<PublicationIds>> mediocre1HttpToolIdsFuture;
+		private final Future<List<PublicationIds>> mediocre2HttpToolIdsFuture;
+		private final Future<List<PublicationIds>> mediocre1ToolGoodToolIdsFuture;
+		private final Future<List<PublicationIds>> mediocre2ToolGoodToolIdsFuture;
+		private final Future<List<PublicationIds>> mediocre1GoodToolIdsFuture;
+		private final Future<List<PublicationIds>> mediocre2GoodToolIdsFuture;
+		private final Future<List<PublicationIds>> httpToolGoodIdsFuture;
+		private final List<Future<List<PublicationIds>>> toolGoodsIdsFutures;
+		private final List<Future<List<PublicationIds>>> toolsIdsFutures;
+		private final List<Future<List<PublicationIds>>> mediocresIdsFutures;
+		private final Future<List<PublicationIds>> goodIdsFuture;
+		private final Future<List<PublicationIds>> mediocre1IdsFuture;
+		private final Future<List<PublicationIds>> mediocre2IdsFuture;
+		private final Future<List<PublicationIds>> httpIdsFuture;
+		private final Future<List<PublicationIds>> toolGoodIdsFuture;
+
+		private AbstractQuery(ExecutorService executor, SelectPubFetcher selectFetcher, String resultType, String date, String source, String custom, String not, FetcherArgs fetcherArgs, String logPrefix) throws IOException {
+			this.date = date;
+			this.source = source;
+			this.logPrefix = logPrefix;
+
+			Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
+			logger.info(mainMarker, "{}Running abstract query for source {} and date {}", logPrefix, source, date);
+
+			String excellent = getAbstractQuery("excellent");
+			String good = getAbstractQuery("good");
+			String mediocre1 = getAbstractQuery("mediocre1");
+			String mediocre2 = getAbstractQuery("mediocre2");
+			String http = getAbstractQuery("http");
+			String toolGood = getAbstractQueryPlural("tool_good");
+			String tool = getAbstractQueryPlural("tool");
+
+			List<String> toolsGood = PubFetcher.getResource(SelectPub.class, "select/tool_good.txt");
+			List<String> tools = PubFetcher.getResource(SelectPub.class, "select/tool.txt");
+			List<String> mediocres = PubFetcher.getResource(SelectPub.class, "select/mediocre1.txt");
+			mediocres.addAll(PubFetcher.getResource(SelectPub.class, "select/mediocre2.txt"));
+
+			excellentIdsFuture = submitIds(executor, selectFetcher, "excellent", resultType, date, source, excellent, custom, not, fetcherArgs, logPrefix);
+			goodHttpIdsFuture = submitIds(executor, selectFetcher, "good + http", resultType, date, source, good + " AND " + http, custom, not, fetcherArgs, logPrefix);
+			goodToolGoodIdsFuture = submitIds(executor, selectFetcher, "good + tool_good", resultType, date, source, good + " AND " + toolGood, custom, not, fetcherArgs, logPrefix);
+			mediocre1HttpToolIdsFuture = submitIds(executor, selectFetcher, "mediocre1 + http + tool", resultType, date, source, mediocre1 + " AND " + http + " AND " + tool, custom, not, fetcherArgs, logPrefix);
+			mediocre2HttpToolIdsFuture = submitIds(executor, selectFetcher, "mediocre2 + http + tool", resultType, date, source, mediocre2 + " AND " + http + " AND " + tool, custom, not, fetcherArgs, logPrefix);
+			mediocre1ToolGoodToolIdsFuture = submitIds(executor, selectFetcher, "mediocre1 + tool_good + tool", resultType, date, source, mediocre1 + " AND " + toolGood + " AND " + tool, custom, not, fetcherArgs, logPrefix);
+			mediocre2ToolGoodToolIdsFuture = submitIds(executor, selectFetcher, "mediocre2 + tool_good + tool", resultType, date, source, mediocre2 + " AND " + toolGood + " AND " + tool, custom, not, fetcherArgs, logPrefix);
+			mediocre1GoodToolIdsFuture = submitIds(executor, selectFetcher, "mediocre1 + good + tool", resultType, date, source, mediocre1 + " AND " + good + " AND " + tool, custom, not, fetcherArgs, logPrefix);
+			mediocre2GoodToolIdsFuture = submitIds(executor, selectFetcher, "mediocre2 + good + tool", resultType, date, source, mediocre2 + " AND " + good + " AND " + tool, custom, not, fetcherArgs, logPrefix);
+			httpToolGoodIdsFuture = submitIds(executor, selectFetcher, "http + tool_good", resultType, date, source, http + " AND " + toolGood, custom, not, fetcherArgs, logPrefix);
+
+			toolGoodsIdsFutures = new ArrayList<>();
+			for (String t : toolsGood) {
+				toolGoodsIdsFutures.add(submitIds(executor, selectFetcher, "\"" + t + "\"", resultType, date, source, "(ABSTRACT:\"" + t + "\" OR ABSTRACT:\"" + getPlural(t) + "\")", custom, not, fetcherArgs, logPrefix));
 			}
-		}
-		logger.info(mainMarker, "{}Got {} results for good + tool + tool", logPrefix, goodToolToolIds.size());
-
-		logger.info(mainMarker, "{}Getting results for mediocre + tool + tool + tool", logPrefix);
-		List<PublicationIds> mediocreToolToolToolIds = new ArrayList<>();
-		start = System.currentTimeMillis();
-		int mediocreIdsI = 0;
-		for (PublicationIds mediocreId : mediocreIds) {
-			System.err.print(PubFetcher.progress(mediocreIdsI + 1, mediocreIds.size(), start) + "  \r");
-			int j = findId(0, 2, toolsIds, mediocreId);
-			if (j >= 0) {
-				j = findId(j + 1, 1, toolsIds, mediocreId);
-				if (j >= 0) {
-					findIdLast(j + 1, toolsIds, mediocreId, mediocreToolToolToolIds);
-				}
+			toolsIdsFutures = new ArrayList<>();
+			for (String t : tools) {
+				toolsIdsFutures.add(submitIds(executor, selectFetcher, "\"" + t + "\"", resultType, date, source, "(ABSTRACT:\"" + t + "\" OR ABSTRACT:\"" + getPlural(t) + "\")", custom, not, fetcherArgs, logPrefix));
 			}
-			++mediocreIdsI;
-		}
-		logger.info(mainMarker, "{}Got {} results for mediocre + tool + tool + tool", logPrefix, mediocreToolToolToolIds.size());
-
-		logger.info(mainMarker, "{}Getting results for http + tool + tool", logPrefix);
-		List<PublicationIds> httpToolToolIds = new ArrayList<>();
-		start = System.currentTimeMillis();
-		for (int i = 0; i < httpIds.size(); ++i) {
-			System.err.print(PubFetcher.progress(i + 1, httpIds.size(), start) + "  \r");
-			PublicationIds httpId = httpIds.get(i);
-			int j = findId(0, 1, toolsIds, httpId);
-			if (j >= 0) {
-				findIdLast(j + 1, toolsIds, httpId, httpToolToolIds);
+			mediocresIdsFutures = new ArrayList<>();
+			for (String t : mediocres) {
+				mediocresIdsFutures.add(submitIds(executor, selectFetcher, "\"" + t + "\"", resultType, date, source, "(ABSTRACT:\"" + t + "\")", custom, not, fetcherArgs, logPrefix));
 			}
-		}
-		logger.info(mainMarker, "{}Got {} results for http + tool + tool", logPrefix, httpToolToolIds.size());
 
-		int toolGoodsIdsSize = 0;
-		for (List<PublicationIds> toolGoodId : toolGoodsIds) {
-			toolGoodsIdsSize += toolGoodId.size();
+			goodIdsFuture = submitIds(executor, selectFetcher, "good", resultType, date, source, good, custom, not, fetcherArgs, logPrefix);
+			mediocre1IdsFuture = submitIds(executor, selectFetcher, "mediocre1", resultType, date, source, mediocre1, custom, not, fetcherArgs, logPrefix);
+			mediocre2IdsFuture = submitIds(executor, selectFetcher, "mediocre2", resultType, date, source, mediocre2, custom, not, fetcherArgs, logPrefix);
+			httpIdsFuture = submitIds(executor, selectFetcher, "http", resultType, date, source, http, custom, not, fetcherArgs, logPrefix);
+			toolGoodIdsFuture = submitIds(executor, selectFetcher, "tool_good", resultType, date, source, toolGood, custom, not, fetcherArgs, logPrefix);
 		}
 
-		logger.info(mainMarker, "{}Getting results for tool_good + tool_good", logPrefix);
-		List<PublicationIds> toolGoodToolGoodIds = new ArrayList<>();
-		int toolGoodIndex = 0;
-		start = System.currentTimeMillis();
-		for (int i = 0; i < toolGoodsIds.size() - 1; ++i) {
-			for (PublicationIds firstToolGoodId : toolGoodsIds.get(i)) {
-				++toolGoodIndex;
-				System.err.print(PubFetcher.progress(toolGoodIndex, toolGoodsIdsSize, start) + "  \r");
-				if (!toolGoodToolGoodIds.contains(firstToolGoodId)) {
-					findIdLast(i + 1, toolGoodsIds, firstToolGoodId, toolGoodToolGoodIds);
-				}
-			}
-		}
-		logger.info(mainMarker, "{}Got {} results for tool_good + tool_good", logPrefix, toolGoodToolGoodIds.size());
-
-		logger.info(mainMarker, "{}Getting results for tool_good + tool + tool", logPrefix);
-		List<PublicationIds> toolGoodToolToolIds = new ArrayList<>();
-		start = System.currentTimeMillis();
-		for (int i = 0; i < toolGoodIds.size(); ++i) {
-			System.err.print(PubFetcher.progress(i + 1, toolGoodIds.size(), start) + "  \r");
-			PublicationIds toolGoodId = toolGoodIds.get(i);
-			int j = findId(0, 1, toolsIds, toolGoodId);
-			if (j >= 0) {
-				findIdLast(j + 1, toolsIds, toolGoodId, toolGoodToolToolIds);
-			}
-		}
-		logger.info(mainMarker, "{}Got {} results for tool_good + tool + tool", logPrefix, toolGoodToolToolIds.size());
-
-		logger.info(mainMarker, "{}Getting results for good + mediocre + mediocre + mediocre + mediocre", logPrefix);
-		List<PublicationIds> goodMediocre4Ids = new ArrayList<>();
-		start = System.currentTimeMillis();
-		for (int i = 0; i < goodIds.size(); ++i) {
-			System.err.print(PubFetcher.progress(i + 1, goodIds.size(), start) + "  \r");
-			PublicationIds goodId = goodIds.get(i);
-			int j = findId(0, 3, mediocresIds, goodId);
-			if (j >= 0) {
-				j = findId(j + 1, 2, mediocresIds, goodId);
-				if (j >= 0) {
-					j = findId(j + 1, 1, mediocresIds, goodId);
-					if (j >= 0) {
-						findIdLast(j + 1, mediocresIds, goodId, goodMediocre4Ids);
+		private Set<PublicationIds> getIds() throws IOException, ParseException, URISyntaxException {
+			Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
+
+			List<PublicationIds> excellentIds = get(excellentIdsFuture);
+			List<PublicationIds> goodHttpIds = get(goodHttpIdsFuture);
+			List<PublicationIds> goodToolGoodIds = get(goodToolGoodIdsFuture);
+			List<PublicationIds> mediocre1HttpToolIds = get(mediocre1HttpToolIdsFuture);
+			List<PublicationIds> mediocre2HttpToolIds = get(mediocre2HttpToolIdsFuture);
+			List<PublicationIds> mediocre1ToolGoodToolIds = get(mediocre1ToolGoodToolIdsFuture);
+			List<PublicationIds> mediocre2ToolGoodToolIds = get(mediocre2ToolGoodToolIdsFuture);
+			List<PublicationIds> mediocre1GoodToolIds = get(mediocre1GoodToolIdsFuture);
+			List<PublicationIds> mediocre2GoodToolIds = get(mediocre2GoodToolIdsFuture);
+			List<PublicationIds> httpToolGoodIds = get(httpToolGoodIdsFuture);
+
+			List<List<PublicationIds>> toolGoodsIds = getAll(toolGoodsIdsFutures);
+			List<List<PublicationIds>> toolsIds = getAll(toolsIdsFutures);
+			List<List<PublicationIds>> mediocresIds = getAll(mediocresIdsFutures);
+
+			List<PublicationIds> goodIds = get(goodIdsFuture);
+			Set<PublicationIds> mediocreIds = new LinkedHashSet<>();
+			mediocreIds.addAll(get(mediocre1IdsFuture));
+			mediocreIds.addAll(get(mediocre2IdsFuture));
+			List<PublicationIds> httpIds = get(httpIdsFuture);
+			List<PublicationIds> toolGoodIds = get(toolGoodIdsFuture);
+
+			PublicationIdsIndex toolGoodsIndex = new PublicationIdsIndex(toolGoodsIds);
+			PublicationIdsIndex toolsIndex = new PublicationIdsIndex(toolsIds);
+			PublicationIdsIndex mediocresIndex = new PublicationIdsIndex(mediocresIds);
+
+			logger.info(mainMarker, "{}Getting results for good + tool + tool", logPrefix);
+			List<PublicationIds> goodToolToolIds = inLists(goodIds, toolsIndex, 2);
+			logger.info(mainMarker, "{}Got {} results for good + tool + tool", logPrefix, goodToolToolIds.size());
+
+			logger.info(mainMarker, "{}Getting results for mediocre + tool + tool + tool", logPrefix);
+			List<PublicationIds> mediocreToolToolToolIds = inLists(mediocreIds, toolsIndex, 3);
+			logger.info(mainMarker, "{}Got {} results for mediocre + tool + tool + tool", logPrefix, mediocreToolToolToolIds.size());
+
+			logger.info(mainMarker, "{}Getting results for http + tool + tool", logPrefix);
+			List<PublicationIds> httpToolToolIds = inLists(httpIds, toolsIndex, 2);
+			logger.info(mainMarker, "{}Got {} results for http + tool + tool", logPrefix, httpToolToolIds.size());
+
+			logger.info(mainMarker, "{}Getting results for tool_good + tool_good", logPrefix);
+			List<PublicationIds> toolGoodToolGoodIds = new ArrayList<>();
+			Set<PublicationIds> toolGoodToolGoodIdsSet = new HashSet<>();
+			for (int i = 0; i < toolGoodsIds.size() - 1; ++i) {
+				for (PublicationIds firstToolGoodId : toolGoodsIds.get(i)) {
+					if (!toolGoodToolGoodIdsSet.contains(firstToolGoodId) && toolGoodsIndex.count(firstToolGoodId, i + 1) > 0) {
+						toolGoodToolGoodIds.add(firstToolGoodId);
+						toolGoodToolGoodIdsSet.add(firstToolGoodId);
 					}
 				}
 			}
-		}
-		logger.info(mainMarker, "{}Got {} results for good + mediocre + mediocre + mediocre + mediocre", logPrefix, goodMediocre4Ids.size());
-
-		logger.info(mainMarker, "{}Getting results for http + mediocre + mediocre + mediocre + mediocre", logPrefix);
-		List<PublicationIds> httpMediocre4Ids = new ArrayList<>();
-		start = System.currentTimeMillis();
-		for (int i = 0; i < httpIds.size(); ++i) {
-			System.err.print(PubFetcher.progress(i + 1, httpIds.size(), start) + "  \r");
-			PublicationIds httpId = httpIds.get(i);
-			int j = findId(0, 3, mediocresIds, httpId);
-			if (j >= 0) {
-				j = findId(j + 1, 2, mediocresIds, httpId);
-				if (j >= 0) {
-					j = findId(j + 1, 1, mediocresIds, httpId);
-					if (j >= 0) {
-						findIdLast(j + 1, mediocresIds, httpId, httpMediocre4Ids);
-					}
-				}
-			}
-		}
-		logger.info(mainMarker, "{}Got {} results for http + mediocre + mediocre + mediocre + mediocre", logPrefix, httpMediocre4Ids.size());
-
-		logger.info(mainMarker, "{}Getting results for tool_good + mediocre + mediocre + mediocre + mediocre", logPrefix);
-		List<PublicationIds> toolGoodMediocre4Ids = new ArrayList<>();
-		start = System.currentTimeMillis();
-		for (int i = 0; i < toolGoodIds.size(); ++i) {
-			System.err.print(PubFetcher.progress(i + 1, toolGoodIds.size(), start) + "  \r");
-			PublicationIds toolGoodId = toolGoodIds.get(i);
-			int j = findId(0, 3, mediocresIds, toolGoodId);
-			if (j >= 0) {
-				j = findId(j + 1, 2, mediocresIds, toolGoodId);
-				if (j >= 0) {
-					j = findId(j + 1, 1, mediocresIds, toolGoodId);
-					if (j >= 0) {
-						findIdLast(j + 1, mediocresIds, toolGoodId, toolGoodMediocre4Ids);
-					}
-				}
-			}
-		}
-		logger.info(mainMarker, "{}Got {} results for tool_good + mediocre + mediocre + mediocre + mediocre", logPrefix, toolGoodMediocre4Ids.size());
-
-		int toolsIdsSize = 0;
-		for (List<PublicationIds> toolId : toolsIds) {
-			toolsIdsSize += toolId.size();
-		}
-
-		logger.info(mainMarker, "{}Getting results for tool + tool + mediocre + mediocre + mediocre + mediocre", logPrefix);
-		List<PublicationIds> toolToolMediocre4Ids = new ArrayList<>();
-		int toolIndex = 0;
-		start = System.currentTimeMillis();
-		for (int i = 0; i < toolsIds.size() - 1; ++i) {
-			for (PublicationIds firstToolId : toolsIds.get(i)) {
-				++toolIndex;
-				System.err.print(PubFetcher.progress(toolIndex, toolsIdsSize, start) + "  \r");
-				if (!toolToolMediocre4Ids.contains(firstToolId)) {
-					findId(i + 1, 0, toolsIds, firstToolId);
-					if (i >= 0) {
-						int j = findId(0, 3, mediocresIds, firstToolId);
-						if (j >= 0) {
-							j = findId(j + 1, 2, mediocresIds, firstToolId);
-							if (j >= 0) {
-								j = findId(j + 1, 1, mediocresIds, firstToolId);
-								if (j >= 0) {
-									findIdLast(j + 1, mediocresIds, firstToolId, toolToolMediocre4Ids);
-								}
-							}
-						}
+			logger.info(mainMarker, "{}Got {} results for tool_good + tool_good", logPrefix, toolGoodToolGoodIds.size());
+
+			logger.info(mainMarker, "{}Getting results for tool_good + tool + tool", logPrefix);
+			List<PublicationIds> toolGoodToolToolIds = inLists(toolGoodIds, toolsIndex, 2);
+			logger.info(mainMarker, "{}Got {} results for tool_good + tool + tool", logPrefix, toolGoodToolToolIds.size());
+
+			logger.info(mainMarker, "{}Getting results for good + mediocre + mediocre + mediocre + mediocre", logPrefix);
+			List<PublicationIds> goodMediocre4Ids = inLists(goodIds, mediocresIndex, 4);
+			logger.info(mainMarker, "{}Got {} results for good + mediocre + mediocre + mediocre + mediocre", logPrefix, goodMediocre4Ids.size());
+
+			logger.info(mainMarker, "{}Getting results for http + mediocre + mediocre + mediocre + mediocre", logPrefix);
+			List<PublicationIds> httpMediocre4Ids = inLists(httpIds, mediocresIndex, 4);
+			logger.info(mainMarker, "{}Got {} results for http + mediocre + mediocre + mediocre + mediocre", logPrefix, httpMediocre4Ids.size());
+
+			logger.info(mainMarker, "{}Getting results for tool_good + mediocre + mediocre + mediocre + mediocre", logPrefix);
+			List<PublicationIds> toolGoodMediocre4Ids = inLists(toolGoodIds, mediocresIndex, 4);
+			logger.info(mainMarker, "{}Got {} results for tool_good + mediocre + mediocre + mediocre + mediocre", logPrefix, toolGoodMediocre4Ids.size());
+
+			// the second tool has never been required here (the result of looking for it in the rest of the tool lists was not checked),
+			// so a publication in any but the last tool list is enough, which is kept so that the selection of publications does not change
+			logger.info(mainMarker, "{}Getting results for tool + tool + mediocre + mediocre + mediocre + mediocre", logPrefix);
+			List<PublicationIds> toolToolMediocre4Ids = new ArrayList<>();
+			Set<PublicationIds> toolToolMediocre4IdsSet = new HashSet<>();
+			for (int i = 0; i < toolsIds.size() - 1; ++i) {
+				for (PublicationIds firstToolId : toolsIds.get(i)) {
+					if (!toolToolMediocre4IdsSet.contains(firstToolId) && mediocresIndex.count(firstToolId, 0) >= 4) {
+						toolToolMediocre4Ids.add(firstToolId);
+						toolToolMediocre4IdsSet.add(firstToolId);
 					}
 				}
 			}
+			logger.info(mainMarker, "{}Got {} results for tool + tool + mediocre + mediocre + mediocre + mediocre", logPrefix, toolToolMediocre4Ids.size());
+
+			Set<PublicationIds> ids = new LinkedHashSet<>();
+			ids.addAll(excellentIds);
+			ids.addAll(goodHttpIds);
+			ids.addAll(goodToolGoodIds);
+			ids.addAll(mediocre1HttpToolIds);
+			ids.addAll(mediocre2HttpToolIds);
+			ids.addAll(mediocre1ToolGoodToolIds);
+			ids.addAll(mediocre2ToolGoodToolIds);
+			ids.addAll(mediocre1GoodToolIds);
+			ids.addAll(mediocre2GoodToolIds);
+			ids.addAll(httpToolGoodIds);
+			ids.addAll(goodToolToolIds);
+			ids.addAll(mediocreToolToolToolIds);
+			ids.addAll(httpToolToolIds);
+			ids.addAll(toolGoodToolGoodIds);
+			ids.addAll(toolGoodToolToolIds);
+			ids.addAll(goodMediocre4Ids);
+			ids.addAll(httpMediocre4Ids);
+			ids.addAll(toolGoodMediocre4Ids);
+			ids.addAll(toolToolMediocre4Ids);
+
+			logger.info(mainMarker, "{}Abstract query for source {} and date {} returned {} results", logPrefix, source, date, ids.size());
+			return ids;
 		}
-		logger.info(mainMarker, "{}Got {} results for tool + tool + mediocre + mediocre + mediocre + mediocre", logPrefix, toolToolMediocre4Ids.size());
-
-		Set<PublicationIds> ids = new LinkedHashSet<>();
-		ids.addAll(excellentIds);
-		ids.addAll(goodHttpIds);
-		ids.addAll(goodToolGoodIds);
-		ids.addAll(mediocre1HttpToolIds);
-		ids.addAll(mediocre2HttpToolIds);
-		ids.addAll(mediocre1ToolGoodToolIds);
-		ids.addAll(mediocre2ToolGoodToolIds);
-		ids.addAll(mediocre1GoodToolIds);
-		ids.addAll(mediocre2GoodToolIds);
-		ids.addAll(httpToolGoodIds);
-		ids.addAll(goodToolToolIds);
-		ids.addAll(mediocreToolToolToolIds);
-		ids.addAll(httpToolToolIds);
-		ids.addAll(toolGoodToolGoodIds);
-		ids.addAll(toolGoodToolToolIds);
-		ids.addAll(goodMediocre4Ids);
-		ids.addAll(httpMediocre4Ids);
-		ids.addAll(toolGoodMediocre4Ids);
-		ids.addAll(toolToolMediocre4Ids);
-
-		logger.info(mainMarker, "{}Abstract query for source {} and date {} returned {} results", logPrefix, source, date, ids.size());
-		return ids;
 	}
 
 	public static String getDate(String from, String to, String month, String day, String reason) {
@@ -465,6 +443,11 @@ public class SelectPub {
 	}
 
 	public static Set<PublicationIds> select(String date, boolean disableTool, String custom, boolean disableNot, FetcherArgs fetcherArgs, String logPrefix) throws IOException, ParseException, URISyntaxException {
+		return select(date, disableTool, custom, disableNot, 1, new SelectPubFetcher(0, null, 0, false), fetcherArgs, logPrefix);
+	}
+
+	// up to threads Europe PMC queries are run in parallel, the selected IDs are the same and in the same order as with one thread
+	public static Set<PublicationIds> select(String date, boolean disableTool, String custom, boolean disableNot, int threads, SelectPubFetcher selectFetcher, FetcherArgs fetcherArgs, String logPrefix) throws IOException, ParseException, URISyntaxException {
 		Marker mainMarker = MarkerManager.getMarker(Common.MAIN_MARKER);
 
 		if (custom != null) {
@@ -484,21 +467,30 @@ public class SelectPub {
 
 		Set<PublicationIds> ids = new LinkedHashSet<>();
 
-		if (!disableTool) {
-			logger.info(mainMarker, "{}Running journal list query for date {}", logPrefix, date);
-			List<String> journalList = PubFetcher.getResource(SelectPub.class, "select/journal.txt");
-			String journalSearch = "(" + journalList.stream().map(j -> "JOURNAL:\"" + j + "\"").collect(Collectors.joining(" OR ")) + ")";
-			List<PublicationIds> idsJournal = getIds("journal list", "idlist", date, null, journalSearch, custom, null, fetcherArgs, logPrefix);
-			logger.info(mainMarker, "{}Journal list query for date {} returned {} results", logPrefix, date, idsJournal.size());
-			ids.addAll(idsJournal);
-		}
-
-		if (disableTool) {
-			ids.addAll(getIds("unrestricted (to tools) from (SRC:MED OR SRC:PMC)", "idlist", date, "(SRC:MED OR SRC:PMC)", null, custom, null, fetcherArgs, logPrefix));
-			ids.addAll(getIds("unrestricted (to tools) from (SRC:PPR)", "lite", date, "(SRC:PPR)", null, custom, null, fetcherArgs, logPrefix));
-		} else {
-			ids.addAll(abstractQuery("idlist", date, "(SRC:MED OR SRC:PMC)", custom, not, fetcherArgs, logPrefix));
-			ids.addAll(abstractQuery("lite", date, "(SRC:PPR)", custom, not, fetcherArgs, logPrefix));
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(threads, 1));
+		try {
+			if (disableTool) {
+				Future<List<PublicationIds>> idsMedPmc = submitIds(executor, selectFetcher, "unrestricted (to tools) from (SRC:MED OR SRC:PMC)", "idlist", date, "(SRC:MED OR SRC:PMC)", null, custom, null, fetcherArgs, logPrefix);
+				Future<List<PublicationIds>> idsPpr = submitIds(executor, selectFetcher, "unrestricted (to tools) from (SRC:PPR)", "lite", date, "(SRC:PPR)", null, custom, null, fetcherArgs, logPrefix);
+				ids.addAll(get(idsMedPmc));
+				ids.addAll(get(idsPpr));
+			} else {
+				// the journal query and both abstract queries are submitted before waiting for any of their results
+				logger.info(mainMarker, "{}Running journal list query for date {}", logPrefix, date);
+				List<String> journalList = PubFetcher.getResource(SelectPub.class, "select/journal.txt");
+				String journalSearch = "(" + journalList.stream().map(j -> "JOURNAL:\"" + j + "\"").collect(Collectors.joining(" OR ")) + ")";
+				Future<List<PublicationIds>> idsJournalFuture = submitIds(executor, selectFetcher, "journal list", "idlist", date, null, journalSearch, custom, null, fetcherArgs, logPrefix);
+				AbstractQuery abstractQueryMedPmc = new AbstractQuery(executor, selectFetcher, "idlist", date, "(SRC:MED OR SRC:PMC)", custom, not, fetcherArgs, logPrefix);
+				AbstractQuery abstractQueryPpr = new AbstractQuery(executor, selectFetcher, "lite", date, "(SRC:PPR)", custom, not, fetcherArgs, logPrefix);
+
+				List<PublicationIds> idsJournal = get(idsJournalFuture);
+				logger.info(mainMarker, "{}Journal list query for date {} returned {} results", logPrefix, date, idsJournal.size());
+				ids.addAll(idsJournal);
+				ids.addAll(abstractQueryMedPmc.getIds());
+				ids.addAll(abstractQueryPpr.getIds());
+			}
+		} finally {
+			executor.shutdownNow();
 		}
 
 		return ids;
@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+
+import org.edamontology.pubfetcher.core.common.FetcherArgs;
+import org.edamontology.pubfetcher.core.fetching.Fetcher;
+
+// POST requests of SelectPub, where requests to the same host are spaced by at least 1/rate seconds (if rate > 0)
+// if cachePath is not null, responses are stored there, one file per URL and query, and reused instead of sending the same request again
+// stored responses older than cacheTtl ms are not reused but sent again and replaced (if cacheTtl > 0), as Europe PMC gets new publications for recent dates
+// if replay is true, only responses in cachePath are used (irrespective of cacheTtl), so SelectPub can be run offline against a fixed set of responses
+public class SelectPubFetcher {
+
+	private final long interval;
+
+	private final Path cachePath;
+
+	private final long cacheTtl;
+
+	private final boolean replay;
+
+	private final Map<String, Long> hostNext = new HashMap<>();
+
+	public SelectPubFetcher(double rate, Path cachePath, long cacheTtl, boolean replay) throws IOException {
+		this.interval = (rate > 0 ? Math.round(1000 / rate) : 0);
+		this.cachePath = cachePath;
+		this.cacheTtl = cacheTtl;
+		this.replay = replay;
+		if (replay && cachePath == null) {
+			throw new IllegalArgumentException("Replay of responses requires a cache directory");
+		}
+		if (cachePath != null && !replay) {
+			Files.createDirectories(cachePath);
+		}
+	}
+
+	// the email sent with each query is left out, so that stored responses can be reused by anyone
+	private static String key(String url, Map<String, String> query) {
+		Map<String, String> sortedQuery = new TreeMap<>(query);
+		sortedQuery.remove("email");
+		String key = url + "\n" + sortedQuery.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining("\n"));
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder();
+			for (byte b : hash) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	// reserve the next free slot for host and wait until it comes
+	private void limit(String url) throws IOException {
+		if (interval <= 0) {
+			return;
+		}
+		String host;
+		try {
+			host = new URI(url).getHost();
+		} catch (URISyntaxException e) {
+			host = url;
+		}
+		long wait;
+		synchronized (hostNext) {
+			long now = System.currentTimeMillis();
+			long next = Math.max(now, hostNext.getOrDefault(host, now));
+			hostNext.put(host, next + interval);
+			wait = next - now;
+		}
+		if (wait > 0) {
+			try {
+				Thread.sleep(wait);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting to send request to " + url, e);
+			}
+		}
+	}
+
+	private boolean expired(Path responsePath) throws IOException {
+		return cacheTtl > 0 && System.currentTimeMillis() - Files.getLastModifiedTime(responsePath).toMillis() > cacheTtl;
+	}
+
+	// first line of a stored response is the location of the document, the rest is the document
+	public Document postDoc(Fetcher fetcher, String url, Map<String, String> query, FetcherArgs fetcherArgs) throws IOException {
+		Path responsePath = null;
+		if (cachePath != null) {
+			responsePath = cachePath.resolve(key(url, query) + ".xml");
+			if (Files.exists(responsePath) && (replay || !expired(responsePath))) {
+				try (BufferedReader reader = Files.newBufferedReader(responsePath, StandardCharsets.UTF_8)) {
+					String location = reader.readLine();
+					String content = reader.lines().collect(Collectors.joining("\n"));
+					return Jsoup.parse(content, location, Parser.xmlParser());
+				}
+			} else if (replay) {
+				throw new IOException("No stored response in " + cachePath.toString() + " for query " + query);
+			}
+		}
+		limit(url);
+		Document doc = fetcher.postDoc(url, query, fetcherArgs);
+		if (doc != null && responsePath != null) {
+			Path tmpPath = Files.createTempFile(cachePath, "response", ".tmp");
+			try (BufferedWriter writer = Files.newBufferedWriter(tmpPath, StandardCharsets.UTF_8)) {
+				writer.write(doc.location());
+				writer.write("\n");
+				writer.write(doc.outerHtml());
+			}
+			Files.move(tmpPath, responsePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		return doc;
+	}
+}
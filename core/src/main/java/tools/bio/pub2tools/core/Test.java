@@ -61,6 +61,7 @@ public final class Test {
 
 	public static void beforeAfter(String queryIdf, String pubFile, String database, PreProcessor preProcessor) throws IOException {
 		Idf idf = new Idf(queryIdf);
+		TierWords tierWords = TierWords.get();
 
 		Set<Publication> publications = new LinkedHashSet<>(PubFetcher.getPublications(database, Collections.singletonList(pubFile), new File(pubFile).getName()));
 
@@ -136,7 +137,7 @@ public final class Test {
 		Map<String, Integer> beforeSorted = before.entrySet().stream()
 			.sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
 			.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (k, v) -> { throw new AssertionError(); }, LinkedHashMap::new));
-		System.out.println("BEFORE_TOOL_TITLE\tCOUNT\tTOTAL\tPRECISION\tAVERAGE_SCORE\tPRECISION/AVERAGE_SCORE");
+		System.out.println("BEFORE_TOOL_TITLE\tCOUNT\tTOTAL\tPRECISION\tAVERAGE_SCORE\tPRECISION/AVERAGE_SCORE\tCURRENT_TIER");
 		for (Map.Entry<String, Integer> bs : beforeSorted.entrySet()) {
 			String word = bs.getKey();
 			int count = bs.getValue();
@@ -144,13 +145,14 @@ public final class Test {
 			double precision = count / (double) total;
 			Double totalScore = allAfterScores.get(word);
 			double averageScore = (totalScore != null ? totalScore / allAfterScoresSum : 0);
-			System.out.printf(Locale.ROOT, "%16s\t%d\t%d\t%.6f\t%.6f\t%8.1f\n", word, count, total, precision, averageScore, precision / averageScore);
+			int tier = TierWords.tier(tierWords.get(word), TierWords.BEFORE);
+			System.out.printf(Locale.ROOT, "%16s\t%d\t%d\t%.6f\t%.6f\t%8.1f\t%s\n", word, count, total, precision, averageScore, precision / averageScore, tier > 0 ? tier : "-");
 		}
 		System.out.println();
 		Map<String, Integer> afterSorted = after.entrySet().stream()
 			.sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
 			.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (k, v) -> { throw new AssertionError(); }, LinkedHashMap::new));
-		System.out.println("AFTER_TOOL_TITLE\tCOUNT\tTOTAL\tPRECISION\tAVERAGE_SCORE\tPRECISION/AVERAGE_SCORE");
+		System.out.println("AFTER_TOOL_TITLE\tCOUNT\tTOTAL\tPRECISION\tAVERAGE_SCORE\tPRECISION/AVERAGE_SCORE\tCURRENT_TIER");
 		for (Map.Entry<String, Integer> as : afterSorted.entrySet()) {
 			String word = as.getKey();
 			int count = as.getValue();
@@ -158,7 +160,8 @@ public final class Test {
 			double precision = count / (double) total;
 			Double totalScore = allBeforeScores.get(word);
 			double averageScore = (totalScore != null ? totalScore / allBeforeScoresSum : 0);
-			System.out.printf(Locale.ROOT, "%16s\t%d\t%d\t%.6f\t%.6f\t%8.1f\n", word, count, total, precision, averageScore, precision / averageScore);
+			int tier = TierWords.tier(tierWords.get(word), TierWords.AFTER);
+			System.out.printf(Locale.ROOT, "%16s\t%d\t%d\t%.6f\t%.6f\t%8.1f\t%s\n", word, count, total, precision, averageScore, precision / averageScore, tier > 0 ? tier : "-");
 		}
 	}
 
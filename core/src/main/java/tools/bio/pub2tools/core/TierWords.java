@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.edamontology.pubfetcher.core.common.PubFetcher;
+
+// words before or after which a name is more likely, from the pass1 tier lists, with all tiers of a word as one bitmask
+// the words are looked up with single processed words, so the lists must not contain entries with spaces
+// loaded once and immutable, so it can be shared by all threads and runs
+public final class TierWords {
+
+	public static final int BEFORE_TIER1 = 1;
+	public static final int BEFORE_TIER2 = 1 << 1;
+	public static final int BEFORE_TIER3 = 1 << 2;
+	public static final int AFTER_TIER1 = 1 << 3;
+	public static final int AFTER_TIER2 = 1 << 4;
+	public static final int AFTER_TIER3 = 1 << 5;
+
+	public static final int BEFORE = BEFORE_TIER1 | BEFORE_TIER2 | BEFORE_TIER3;
+	public static final int AFTER = AFTER_TIER1 | AFTER_TIER2 | AFTER_TIER3;
+
+	private static TierWords instance = null;
+
+	private final Map<String, Integer> tiers;
+
+	private TierWords(Map<String, Integer> tiers) {
+		this.tiers = Collections.unmodifiableMap(tiers);
+	}
+
+	private static void add(Map<String, Integer> tiers, String resource, int tier) throws IOException {
+		List<String> words = PubFetcher.getResource(TierWords.class, resource);
+		for (String word : words) {
+			tiers.merge(word, tier, (a, b) -> a | b);
+		}
+	}
+
+	public static synchronized TierWords get() throws IOException {
+		if (instance == null) {
+			Map<String, Integer> tiers = new HashMap<>();
+			add(tiers, "pass1/before_tier1.txt", BEFORE_TIER1);
+			add(tiers, "pass1/before_tier2.txt", BEFORE_TIER2);
+			add(tiers, "pass1/before_tier3.txt", BEFORE_TIER3);
+			add(tiers, "pass1/after_tier1.txt", AFTER_TIER1);
+			add(tiers, "pass1/after_tier2.txt", AFTER_TIER2);
+			add(tiers, "pass1/after_tier3.txt", AFTER_TIER3);
+			instance = new TierWords(tiers);
+		}
+		return instance;
+	}
+
+	// bitmask of all tiers word is in, 0 if in none
+	public int get(String word) {
+		Integer tier = tiers.get(word);
+		return (tier != null ? tier : 0);
+	}
+
+	// 1, 2 or 3 for the highest before or after tier in mask (depending on whether beforeAfter is BEFORE or AFTER), 0 if in none
+	public static int tier(int mask, int beforeAfter) {
+		mask &= beforeAfter;
+		if ((mask & (BEFORE_TIER1 | AFTER_TIER1)) != 0) return 1;
+		if ((mask & (BEFORE_TIER2 | AFTER_TIER2)) != 0) return 2;
+		if ((mask & (BEFORE_TIER3 | AFTER_TIER3)) != 0) return 3;
+		return 0;
+	}
+}
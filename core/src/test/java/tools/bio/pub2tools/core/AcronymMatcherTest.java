@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package tools.bio.pub2tools.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+// AcronymMatcher must give the same result as the regex it replaced, as compiled by the running JDK
+public class AcronymMatcherTest {
+
+	private static final Pattern USE_IN_PATTERN = Pattern.compile("^[\\p{L}\\p{N}]$");
+
+	private static final String ALPHABET = "aAbBcCdDxXyY1 -.()éÉǅΑα\n  _/9😀ʰİⅠ";
+
+	private static final String[] WORDS = { "Data", "base", "myDataBase", "RNA-seq", "(x)", "DNA", "tool", "Kit", "a", "of", "the",
+		"GenomeAnalysisToolkit", "-", "x-Ray", "3D", "é-Ab", "BLAST", "bLaSt", "Tools.", "\"quoted\"", "ÉTÉ", "ǅa", "cBa", "cya" };
+
+	// the regex implementation of Common.isAcronym before AcronymMatcher
+	private static boolean isAcronymRegex(String acronym, String phrase, boolean allWords) {
+		acronym = acronym.trim();
+		phrase = phrase.trim().replaceAll("-", " ");
+		boolean patternValid = false;
+		String acronymPattern = "(?i)";
+		if (allWords) {
+			acronymPattern += "^";
+		} else {
+			acronymPattern += "(^| )";
+		}
+		if (phrase.indexOf(" ") > -1 && acronym.indexOf(" ") < 0) {
+			for (int i = 0; i < acronym.length(); ++i) {
+				String c = String.valueOf(acronym.charAt(i));
+				if (USE_IN_PATTERN.matcher(c).matches()) {
+					if (patternValid) {
+						if (allWords) {
+							acronymPattern += "[^ ]* *";
+						} else {
+							acronymPattern += "([^ ]*|.* )";
+						}
+					}
+					patternValid = true;
+					acronymPattern += "[^ \\p{L}\\p{N}]*(\\p{L}+(?=\\p{Lu}))?" + c;
+				}
+			}
+		}
+		if (allWords) {
+			acronymPattern += "[^ ]*$";
+		}
+		if (!patternValid) {
+			return false;
+		}
+		Matcher acronymMatcher = Pattern.compile(acronymPattern).matcher(phrase);
+		if (acronymMatcher.find()) {
+			if (phrase.substring(acronymMatcher.start(), acronymMatcher.end()).trim().indexOf(" ") > -1) {
+				return true;
+			} else {
+				if (phrase.substring(acronymMatcher.end() - 1, acronymMatcher.end()).equals(" ")) {
+					if (acronymMatcher.end() - 2 >= 0) {
+						return isAcronymRegex(acronym, phrase.substring(0, acronymMatcher.end() - 2) + phrase.substring(acronymMatcher.end() - 1), allWords);
+					} else {
+						return false;
+					}
+				} else {
+					return isAcronymRegex(acronym, phrase.substring(0, acronymMatcher.end() - 1) + phrase.substring(acronymMatcher.end()), allWords);
+				}
+			}
+		} else {
+			return false;
+		}
+	}
+
+	private static void check(String acronym, String phrase, boolean allWords) {
+		assertEquals(isAcronymRegex(acronym, phrase, allWords), AcronymMatcher.isAcronym(acronym, phrase, allWords),
+			"acronym \"" + acronym + "\", phrase \"" + phrase + "\", allWords " + allWords);
+	}
+
+	@Test
+	public void examples() {
+		String[][] examples = {
+			{ "GATK", "Genome Analysis Toolkit" },
+			{ "GATK", "GenomeAnalysis ToolKit" },
+			{ "RNAseq", "RNA-seq analysis" },
+			{ "ay", "cBa cya" },
+			{ "DB", "myDataBase tool" },
+			{ "3D", "3D viewer" },
+			{ "ÉTÉ", "été ÉTÉ" },
+			{ "x", "" },
+			{ "-", "a b" }
+		};
+		for (String[] example : examples) {
+			check(example[0], example[1], false);
+			check(example[0], example[1], true);
+		}
+	}
+
+	@Test
+	public void randomCharacters() {
+		Random random = new Random(1);
+		for (int i = 0; i < 50000; ++i) {
+			StringBuilder phrase = new StringBuilder();
+			int phraseLength = random.nextInt(14);
+			for (int j = 0; j < phraseLength; ++j) {
+				phrase.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			}
+			StringBuilder acronym = new StringBuilder();
+			if (random.nextInt(3) == 0) {
+				for (String word : phrase.toString().split(" ")) {
+					if (!word.isEmpty() && random.nextBoolean()) {
+						acronym.append(word.charAt(0));
+					}
+				}
+			} else {
+				int acronymLength = 1 + random.nextInt(4);
+				for (int j = 0; j < acronymLength; ++j) {
+					acronym.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+				}
+			}
+			check(acronym.toString(), phrase.toString(), random.nextBoolean());
+		}
+	}
+
+	@Test
+	public void randomWords() {
+		Random random = new Random(2);
+		for (int i = 0; i < 10000; ++i) {
+			StringBuilder phrase = new StringBuilder();
+			int words = 1 + random.nextInt(5);
+			for (int j = 0; j < words; ++j) {
+				if (j > 0) {
+					phrase.append(random.nextInt(5) == 0 ? "  " : " ");
+				}
+				phrase.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+			String phraseString = phrase.toString();
+			StringBuilder acronym = new StringBuilder();
+			for (int j = 0; j < phraseString.length(); ++j) {
+				char c = phraseString.charAt(j);
+				if (Character.isLetterOrDigit(c) && (j == 0 || !Character.isLetterOrDigit(phraseString.charAt(j - 1)) || Character.isUpperCase(c) || random.nextInt(6) == 0)
+						&& random.nextInt(4) != 0) {
+					acronym.append(random.nextBoolean() ? Character.toUpperCase(c) : Character.toLowerCase(c));
+				}
+			}
+			if (acronym.length() > 0 && random.nextInt(4) == 0) {
+				acronym.deleteCharAt(random.nextInt(acronym.length()));
+			}
+			if (acronym.length() == 0) {
+				acronym.append('d');
+			}
+			check(acronym.toString(), phraseString, random.nextBoolean());
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.edamontology.edammap.core.input.json.Credit;
+import org.edamontology.edammap.core.input.json.DocumentationType;
+import org.edamontology.edammap.core.input.json.DownloadType;
+import org.edamontology.edammap.core.input.json.Link;
+import org.edamontology.edammap.core.input.json.LinkDownload;
+import org.edamontology.edammap.core.input.json.LinkType;
+import org.edamontology.edammap.core.input.json.Publication;
+import org.edamontology.edammap.core.input.json.Tool;
+
+// the fields of existing bio.tools entries read by Pass2, DiffGetter, DescriptionGetter and BiotoolsIndex must survive a snapshot round trip
+public class BiotoolsSnapshotTest {
+
+	private static Tool fullTool() {
+		Tool tool = new Tool();
+		tool.setName("Tool name");
+		tool.setBiotoolsID("tool_name");
+		tool.setDescription("Description of tool.\nSecond line\twith tab.");
+		tool.setHomepage("https://example.org/tool");
+		tool.setHomepage_status(2);
+		tool.setLicense("GPL-3.0");
+		tool.setLanguage(Arrays.asList("Java", "R"));
+
+		Link<LinkType> link = new Link<>();
+		link.setUrl("https://github.com/example/tool");
+		link.setType(Arrays.asList(LinkType.ISSUE_TRACKER, LinkType.MAILING_LIST));
+		tool.setLink(Collections.singletonList(link));
+
+		LinkDownload download = new LinkDownload();
+		download.setUrl("https://example.org/tool.tar.gz");
+		download.setType(DownloadType.SOURCE_CODE);
+		tool.setDownload(Collections.singletonList(download));
+
+		Link<DocumentationType> documentation = new Link<>();
+		documentation.setUrl("https://example.org/tool/manual");
+		documentation.setType(Collections.singletonList(DocumentationType.USER_MANUAL));
+		tool.setDocumentation(Collections.singletonList(documentation));
+
+		Publication publication = new Publication();
+		publication.setPmid("12345678");
+		publication.setPmcid("PMC1234567");
+		publication.setDoi("10.1000/example");
+		tool.setPublication(Collections.singletonList(publication));
+
+		Credit credit = new Credit();
+		credit.setName("Author Name");
+		credit.setEmail("author@example.org");
+		credit.setUrl("https://example.org/author");
+		credit.setOrcidid("https://orcid.org/0000-0000-0000-0000");
+		tool.setCredit(Collections.singletonList(credit));
+
+		return tool;
+	}
+
+	private static List<Tool> roundTrip(List<Tool> biotools, Path dir) throws IOException {
+		Path biotoolsPath = dir.resolve("biotools.json");
+		Files.write(biotoolsPath, "[]".getBytes(StandardCharsets.UTF_8));
+		BiotoolsSnapshot.write(biotools, biotoolsPath, "");
+		List<Tool> loaded = BiotoolsSnapshot.load(biotoolsPath);
+		assertNotNull(loaded);
+		assertEquals(biotools.size(), loaded.size());
+		return loaded;
+	}
+
+	private static void assertToolEquals(Tool expected, Tool actual) {
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getBiotoolsID(), actual.getBiotoolsID());
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(expected.getHomepage(), actual.getHomepage());
+		assertEquals(expected.getHomepage_status(), actual.getHomepage_status());
+		assertEquals(expected.getLicense(), actual.getLicense());
+		assertEquals(expected.getLanguage(), actual.getLanguage());
+		if (expected.getLink() == null) {
+			assertNull(actual.getLink());
+		} else {
+			assertEquals(expected.getLink().stream().map(l -> l.getUrl() + " " + l.getType()).collect(Collectors.toList()),
+				actual.getLink().stream().map(l -> l.getUrl() + " " + l.getType()).collect(Collectors.toList()));
+			assertEquals(expected.getLink().stream().map(l -> l.toStringType()).collect(Collectors.toList()),
+				actual.getLink().stream().map(l -> l.toStringType()).collect(Collectors.toList()));
+		}
+		if (expected.getDownload() == null) {
+			assertNull(actual.getDownload());
+		} else {
+			assertEquals(expected.getDownload().stream().map(l -> l.getUrl() + " " + l.getType()).collect(Collectors.toList()),
+				actual.getDownload().stream().map(l -> l.getUrl() + " " + l.getType()).collect(Collectors.toList()));
+		}
+		if (expected.getDocumentation() == null) {
+			assertNull(actual.getDocumentation());
+		} else {
+			assertEquals(expected.getDocumentation().stream().map(l -> l.getUrl() + " " + l.getType()).collect(Collectors.toList()),
+				actual.getDocumentation().stream().map(l -> l.getUrl() + " " + l.getType()).collect(Collectors.toList()));
+			assertEquals(expected.getDocumentation().stream().map(l -> l.toStringType()).collect(Collectors.toList()),
+				actual.getDocumentation().stream().map(l -> l.toStringType()).collect(Collectors.toList()));
+		}
+		if (expected.getPublication() == null) {
+			assertNull(actual.getPublication());
+		} else {
+			assertEquals(expected.getPublication().stream().map(p -> p.getPmid() + " " + p.getPmcid() + " " + p.getDoi()).collect(Collectors.toList()),
+				actual.getPublication().stream().map(p -> p.getPmid() + " " + p.getPmcid() + " " + p.getDoi()).collect(Collectors.toList()));
+		}
+		if (expected.getCredit() == null) {
+			assertNull(actual.getCredit());
+		} else {
+			assertEquals(expected.getCredit().stream().map(c -> c.getName() + " " + c.getEmail() + " " + c.getUrl() + " " + c.getOrcidid()).collect(Collectors.toList()),
+				actual.getCredit().stream().map(c -> c.getName() + " " + c.getEmail() + " " + c.getUrl() + " " + c.getOrcidid()).collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	public void roundTripFull(@TempDir Path dir) throws IOException {
+		Tool tool = fullTool();
+		List<Tool> loaded = roundTrip(Collections.singletonList(tool), dir);
+		assertToolEquals(tool, loaded.get(0));
+	}
+
+	@Test
+	public void roundTripMissing(@TempDir Path dir) throws IOException {
+		Tool tool = new Tool();
+		tool.setName("Other");
+		tool.setBiotoolsID("other");
+		tool.setDescription("");
+		tool.setHomepage("https://example.org/other");
+		List<Tool> loaded = roundTrip(Arrays.asList(fullTool(), tool), dir);
+		assertToolEquals(fullTool(), loaded.get(0));
+		assertToolEquals(tool, loaded.get(1));
+	}
+
+	@Test
+	public void notCurrent(@TempDir Path dir) throws IOException {
+		Path biotoolsPath = dir.resolve("biotools.json");
+		Files.write(biotoolsPath, "[]".getBytes(StandardCharsets.UTF_8));
+		BiotoolsSnapshot.write(Collections.singletonList(fullTool()), biotoolsPath, "");
+		Files.write(biotoolsPath, "[ ]".getBytes(StandardCharsets.UTF_8));
+		assertNull(BiotoolsSnapshot.load(biotoolsPath));
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package tools.bio.pub2tools.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.edamontology.pubfetcher.core.common.PubFetcher;
+
+import tools.bio.pub2tools.core.Language.LanguageSearch;
+
+// the parts of LanguageSearch must be the same as split by the regexes it replaced,
+// and LanguageIndex.getMatches must give the same languages as LanguageSearch.getMatches over all languages
+public class LanguageIndexTest {
+
+	private static final Pattern CPP = Pattern.compile("(?i)(^|[" + License.START_CHARS + "]|[" + License.SEPARATOR_CHARS + "])C [+][+]([" + License.END_CHARS + "]|[" + License.SEPARATOR_CHARS + "]|$)");
+	private static final Pattern SQL = Pattern.compile("(?i)(^|[" + License.START_CHARS + "]|[" + License.SEPARATOR_CHARS + "])(MySQL|PostgreSQL|SQLite)([" + License.END_CHARS + "]|[" + License.SEPARATOR_CHARS + "]|$)");
+	private static final Pattern HYPHEN_CDR = Pattern.compile("(?i)-(C|D|R)([" + License.END_CHARS + "]|[" + License.SEPARATOR_CHARS + "]|$)");
+
+	private static final String[] SENTENCES = {
+		"MetaBinner is implemented in Python and C", "fastp is developed in C++ with multithreading support", "MSAViewer is a JavaScript component",
+		"implemented as an R package", "SPAdes is written in C++ and Python", "The tool is available as a Bioconductor package",
+		"It is written in Java and runs on any platform with a JVM", "source code (C/C++, CUDA) is freely available", "a web server built with Django and PostgreSQL",
+		"implemented in MATLAB; a Python port is available on PyPI", "an R/Shiny application", "written in Perl 5 and Bash shell scripts",
+		"uses a MySQL database and a PHP front-end", "The plugin is available at apps.cytoscape.org", "implemented in C ++ using OpenMP",
+		"Scripts are in R (version >= 3.5) and Python3", "a Snakemake workflow with Rust and Go components", "numpy, scipy and pandas based",
+		"the -R option selects reads", "x-D printing", "Fortran 90/95 code", "Julia-based", "\"Python\" and 'R'", "[Java]", "Lua, Scheme or Forth",
+		"", " ", "-", "C", "D", "R"
+	};
+
+	private static final String[] WORDS = {
+		"C++", "c ++", "MySQL", "sqlite", "-R", "-c", "scheme", "Scheme", "ſ", "İ", "K", "the", "a", "x-D", "", "ı", "implemented", "in", "written", "and", "package"
+	};
+
+	private static List<Language> languages;
+
+	private static List<String> languageKeywords;
+
+	private static LanguageIndex languageIndex;
+
+	private static List<String> words;
+
+	@BeforeAll
+	public static void setup() throws IOException {
+		List<String> language = PubFetcher.getResource(Pass2.class, "pass2/language.txt");
+		languages = language.stream().map(l -> new Language(l)).collect(Collectors.toList());
+		languageKeywords = PubFetcher.getResource(Pass2.class, "pass2/language_keywords.txt");
+		languageIndex = new LanguageIndex(languages, languageKeywords);
+		words = new ArrayList<>();
+		for (String l : language) {
+			words.addAll(Arrays.asList(l.split(" ")));
+		}
+		words.addAll(languageKeywords);
+		words.addAll(Arrays.asList(Language.R_ALIASES));
+		words.addAll(Arrays.asList(Language.PYTHON_ALIASES));
+		words.addAll(Arrays.asList(Language.JAVA_ALIASES));
+		words.addAll(Arrays.asList(WORDS));
+	}
+
+	// the parts of LanguageSearch before splitting without regexes
+	private static List<String> partsRegex(String languageSearch) {
+		languageSearch = Common.WHITESPACE.matcher(languageSearch).replaceAll(" ");
+		languageSearch = CPP.matcher(languageSearch).replaceAll("$1C++$2");
+		languageSearch = SQL.matcher(languageSearch).replaceAll("$1SQL$3");
+		languageSearch = HYPHEN_CDR.matcher(languageSearch).replaceAll("$1$2");
+		languageSearch = languageSearch.trim();
+		List<String> parts = new ArrayList<>();
+		for (String part : License.SEPARATOR.split(languageSearch)) {
+			part = License.START.matcher(part).replaceFirst("");
+			part = License.END.matcher(part).replaceFirst("");
+			parts.add(part);
+		}
+		return parts;
+	}
+
+	private static void check(String languageSearch) {
+		LanguageSearch search = new LanguageSearch(languageSearch);
+		assertEquals(partsRegex(languageSearch), search.getParts(), "parts of search \"" + languageSearch + "\"");
+		for (boolean definitelyContainsLanguage : new boolean[] { false, true }) {
+			assertEquals(search.getMatches(languages, definitelyContainsLanguage, languageKeywords), languageIndex.getMatches(languageSearch, definitelyContainsLanguage),
+				"matches of search \"" + languageSearch + "\", definitelyContainsLanguage " + definitelyContainsLanguage);
+		}
+	}
+
+	@Test
+	public void languages() {
+		for (Language language : languages) {
+			String original = language.getOriginal();
+			check(original);
+			check(original.toLowerCase(Locale.ROOT));
+			check(original.toUpperCase(Locale.ROOT));
+			check("implemented in " + original);
+			check("written in " + original + " and C++.");
+			check("(" + original + ")");
+			check(original + "-based");
+			check(original + "/" + original);
+		}
+	}
+
+	@Test
+	public void keywords() {
+		for (String keyword : languageKeywords) {
+			check(keyword);
+			check(keyword + " in R");
+			check("Python " + keyword);
+		}
+	}
+
+	@Test
+	public void sentences() {
+		for (String sentence : SENTENCES) {
+			check(sentence);
+		}
+	}
+
+	// words of languages, keywords and aliases with start and end chars and separators between them
+	@Test
+	public void random() {
+		String separators = " ,;/|\t ";
+		String starts = "(\"'[{<";
+		String ends = ")\"'.,:;!?]}>";
+		Random random = new Random(1);
+		for (int i = 0; i < 20000; ++i) {
+			StringBuilder languageSearch = new StringBuilder();
+			int size = random.nextInt(12);
+			for (int j = 0; j < size; ++j) {
+				if (random.nextInt(5) == 0) {
+					languageSearch.append(starts.charAt(random.nextInt(starts.length())));
+				}
+				String word = words.get(random.nextInt(words.size()));
+				switch (random.nextInt(4)) {
+					case 0: word = word.toUpperCase(Locale.ROOT); break;
+					case 1: word = word.toLowerCase(Locale.ROOT); break;
+					default: break;
+				}
+				languageSearch.append(word);
+				if (random.nextInt(5) == 0) {
+					languageSearch.append(ends.charAt(random.nextInt(ends.length())));
+				}
+				int separatorsSize = random.nextInt(3) + (random.nextInt(4) == 0 ? 1 : 0);
+				for (int k = 0; k < separatorsSize; ++k) {
+					languageSearch.append(separators.charAt(random.nextInt(separators.length())));
+				}
+			}
+			check(languageSearch.toString());
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package tools.bio.pub2tools.core;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.edamontology.pubfetcher.core.common.PubFetcher;
+
+import tools.bio.pub2tools.core.License.LicenseSearch;
+
+// LicenseIndex.bestMatch must give the same license as LicenseSearch.bestMatch over all licenses
+public class LicenseIndexTest {
+
+	private static final String[] FREE_TEXT = {
+		"", " ", "-", "license", "GPL", "gpl", "GPLv3", "GPL-3", "GPL (>= 2)", "GPL-2 | GPL-3", "GNU GPL v3", "GNU General Public License v3.0",
+		"GNU General Public License version 2 or later", "GNU Lesser General Public License v2.1", "LGPL-2.1+", "GNU Affero General Public License",
+		"AGPL", "Apache License, Version 2.0", "Apache 2", "Apache License 2.0", "The Apache Software License", "MIT", "MIT License", "mit license",
+		"The MIT License (MIT)", "Licensed under the MIT license.", "BSD", "BSD 3-clause", "BSD-3-Clause", "BSD 2-Clause \"Simplified\" License",
+		"New BSD License", "Artistic-2.0", "Artistic License 2.0", "CC BY 4.0", "CC-BY-4.0", "CC BY-NC-SA 4.0", "Creative Commons Attribution 4.0 International",
+		"CC0", "Public domain", "Mozilla Public License 2.0", "MPL-2.0", "Eclipse Public License 1.0", "EPL", "CeCILL", "CeCILL-B", "Boost Software License",
+		"zlib", "The Unlicense", "ISC License", "Python Software Foundation License", "PSF", "Free for academic use", "Proprietary", "Other",
+		"open source", "freeware", "The source code is available under the GPL license.", "Licence: GPL-3", "LİCENSE GPL", "ǅ license"
+	};
+
+	private static final String[] WORDS = {
+		"license", "Licence", "licensed", "under", "the", "GNU", "General", "Public", "Lesser", "Affero", "v2", "version", "3.0", "(", ")", "BSD", "MIT",
+		"Apache", "cnri", "gpl", "GPLv3", ">=2", "2-clause", "new", "open", "source", "free", "Creative", "Commons", "CC", "BY", "Attribution", "x", "ǅ", "lİcense", "İ"
+	};
+
+	private static List<License> licenses;
+
+	private static LicenseIndex licenseIndex;
+
+	@BeforeAll
+	public static void setup() throws IOException {
+		licenses = PubFetcher.getResource(Pass2.class, "pass2/license.txt").stream().map(l -> new License(l)).collect(Collectors.toList());
+		licenseIndex = new LicenseIndex(licenses);
+	}
+
+	private static void check(String licenseSearch) {
+		for (boolean definitelyContainsLicense : new boolean[] { false, true }) {
+			assertSame(new LicenseSearch(licenseSearch).bestMatch(licenses, definitelyContainsLicense), licenseIndex.bestMatch(licenseSearch, definitelyContainsLicense),
+				"search \"" + licenseSearch + "\", definitelyContainsLicense " + definitelyContainsLicense);
+		}
+	}
+
+	@Test
+	public void licenses() {
+		for (License license : licenses) {
+			String original = license.getOriginal();
+			check(original);
+			check(original.replace('-', ' '));
+			check(original.toLowerCase(Locale.ROOT));
+			check(original.toUpperCase(Locale.ROOT));
+			check(original + " license");
+			check("Licensed under the " + original.replace('-', ' ') + " licence.");
+		}
+	}
+
+	@Test
+	public void freeText() {
+		for (String licenseSearch : FREE_TEXT) {
+			check(licenseSearch);
+		}
+	}
+
+	// words from licenses and free text joined by separators
+	@Test
+	public void random() {
+		List<String> words = new ArrayList<>(Arrays.asList(WORDS));
+		for (License license : licenses) {
+			words.addAll(Arrays.asList(license.getOriginal().split("-")));
+		}
+		Random random = new Random(1);
+		for (int i = 0; i < 20000; ++i) {
+			StringBuilder licenseSearch = new StringBuilder();
+			int size = 1 + random.nextInt(9);
+			for (int j = 0; j < size; ++j) {
+				if (j > 0) {
+					licenseSearch.append(" -/_".charAt(random.nextInt(4)));
+				}
+				String word = words.get(random.nextInt(words.size()));
+				if (random.nextInt(5) == 0) {
+					word = word.toLowerCase(Locale.ROOT);
+				} else if (random.nextInt(7) == 0) {
+					word = word.toUpperCase(Locale.ROOT);
+				}
+				licenseSearch.append(word);
+			}
+			check(licenseSearch.toString());
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package tools.bio.pub2tools.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+// the scores of n-grams got from NgramTable, as filled in Pass1.analyse, must be the same as the scores HashMap that makeResult built up with merge before,
+// including its iteration order, as that decides the order of suggestions with equal score after the stable sort by score
+public class NgramTableTest {
+
+	// as in Pass1
+	private static final int COMPOUND_WORDS = 5;
+	private static final double COMPOUND_DIVIDER = 2;
+
+	// few different scores, like the IDF of unknown words, so that there are many ties
+	private static final double[] UNIGRAM_SCORES = { 0.5, 0.75, 1, 1 };
+
+	private static double unigramScore(String token) {
+		return UNIGRAM_SCORES[Math.floorMod(token.hashCode(), UNIGRAM_SCORES.length)];
+	}
+
+	private static Map<String, Double> scoresMerge(List<List<String>> extracted, List<List<String>> processed) {
+		Map<String, Double> scores = new HashMap<>();
+		for (int i = 0; i < processed.size(); ++i) {
+			List<String> sentenceProcessed = processed.get(i);
+			for (int j = 0; j < COMPOUND_WORDS; ++j) {
+				for (int k = 0; k < sentenceProcessed.size() - j; ++k) {
+					String wordProcessed = sentenceProcessed.get(k);
+					for (int l = k + 1; l <= k + j; ++l) wordProcessed += " " + sentenceProcessed.get(l);
+					Double value;
+					if (j == 0) {
+						value = unigramScore(sentenceProcessed.get(k));
+					} else {
+						value = scores.get(sentenceProcessed.get(k));
+						for (int l = k + 1; l <= k + j; ++l) value *= scores.get(sentenceProcessed.get(l));
+						value /= COMPOUND_DIVIDER;
+					}
+					scores.merge(wordProcessed, value, Double::sum);
+				}
+			}
+		}
+		return scores;
+	}
+
+	private static Map<String, Double> scoresTable(List<List<String>> extracted, List<List<String>> processed) {
+		NgramTable processedTable = new NgramTable();
+		NgramTable extractedTable = new NgramTable();
+		for (int i = 0; i < processed.size(); ++i) {
+			List<String> sentenceExtracted = extracted.get(i);
+			List<String> sentenceProcessed = processed.get(i);
+			int[] extractedTokens = new int[sentenceProcessed.size()];
+			int[] processedTokens = new int[sentenceProcessed.size()];
+			for (int k = 0; k < sentenceProcessed.size(); ++k) {
+				extractedTokens[k] = extractedTable.token(sentenceExtracted.get(k));
+				processedTokens[k] = processedTable.token(sentenceProcessed.get(k));
+			}
+			int[] extractedIds = new int[sentenceProcessed.size()];
+			int[] processedIds = new int[sentenceProcessed.size()];
+			int[] processedUnigrams = null;
+			for (int j = 0; j < COMPOUND_WORDS; ++j) {
+				for (int k = 0; k < sentenceProcessed.size() - j; ++k) {
+					extractedIds[k] = extractedTable.ngram(j == 0 ? -1 : extractedIds[k], extractedTokens[k + j]);
+					processedIds[k] = processedTable.ngram(j == 0 ? -1 : processedIds[k], processedTokens[k + j]);
+					double value;
+					if (j == 0) {
+						value = unigramScore(sentenceProcessed.get(k));
+					} else {
+						value = processedTable.getScore(processedUnigrams[k]);
+						for (int l = k + 1; l <= k + j; ++l) value *= processedTable.getScore(processedUnigrams[l]);
+						value /= COMPOUND_DIVIDER;
+					}
+					processedTable.addScore(processedIds[k], value);
+					if (i == 0 || k == 0) {
+						processedTable.addBegin(processedIds[k], extractedIds[k]);
+					} else {
+						processedTable.addWithin(processedIds[k], extractedIds[k]);
+					}
+				}
+				if (j == 0) {
+					processedUnigrams = processedIds.clone();
+				}
+			}
+		}
+		return processedTable.getScores(processedTable.getStrings());
+	}
+
+	private static List<String> sorted(Map<String, Double> scores) {
+		return scores.entrySet().stream()
+			.sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+			.map(e -> e.getKey() + " " + e.getValue())
+			.collect(Collectors.toList());
+	}
+
+	private static void assertScores(List<List<String>> extracted, List<List<String>> processed) {
+		Map<String, Double> expected = scoresMerge(extracted, processed);
+		Map<String, Double> actual = scoresTable(extracted, processed);
+		assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+		assertEquals(sorted(expected), sorted(actual));
+		// the capacity must also be the same, for the entries put into the map later by makeResult
+		expected.put("added", 1.0);
+		actual.put("added", 1.0);
+		assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+	}
+
+	private static List<List<String>> processed(List<List<String>> extracted) {
+		return extracted.stream().map(s -> s.stream().map(t -> t.toLowerCase(Locale.ROOT)).collect(Collectors.toList())).collect(Collectors.toList());
+	}
+
+	@Test
+	public void example() {
+		List<List<String>> extracted = Arrays.asList(
+			Arrays.asList("MetaBinner", "an", "ensemble", "binning", "method"),
+			Arrays.asList("MetaBinner", "is", "implemented", "in", "Python", "and", "C"),
+			Arrays.asList("binning", "method", "for", "metagenomic", "contigs", "with", "MetaBinner"));
+		assertScores(extracted, processed(extracted));
+	}
+
+	// sentences of one token, so that the number of distinct n-grams can end exactly past a resize threshold of the HashMap
+	@Test
+	public void thresholds() {
+		for (int n = 1; n <= 200; ++n) {
+			List<List<String>> extracted = new ArrayList<>();
+			for (int i = 0; i < n; ++i) {
+				extracted.add(Arrays.asList("Word" + i));
+			}
+			assertScores(extracted, processed(extracted));
+			extracted.add(Arrays.asList("Word0"));
+			assertScores(extracted, processed(extracted));
+		}
+	}
+
+	@Test
+	public void random() {
+		Random random = new Random(1);
+		for (int n = 0; n < 2000; ++n) {
+			int vocabulary = 1 + random.nextInt(60);
+			List<List<String>> extracted = new ArrayList<>();
+			int sentences = 1 + random.nextInt(8);
+			for (int i = 0; i < sentences; ++i) {
+				List<String> sentence = new ArrayList<>();
+				int length = random.nextInt(15);
+				for (int k = 0; k < length; ++k) {
+					String token = "t" + random.nextInt(vocabulary);
+					sentence.add(random.nextBoolean() ? token.toUpperCase(Locale.ROOT) : token);
+				}
+				extracted.add(sentence);
+			}
+			assertScores(extracted, processed(extracted));
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.server;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.edamontology.edammap.core.input.json.Tool;
+import org.edamontology.edammap.core.preprocessing.PreProcessorArgs;
+
+import tools.bio.pub2tools.core.BiotoolsIndex;
+import tools.bio.pub2tools.core.CachingPreProcessor;
+
+// bio.tools entries of the server together with the processed names, links and indexes of these entries needed by Pass2
+// replaced as a whole on refresh of bio.tools content, so a request reading Server.biotools once uses entries and indexes of the same content
+// the index for the default PreProcessorArgs (without stemming) is built with the state, indexes for other args requests are made with
+// are built when first needed, outside of the lock, and only the most recently used of them are kept, as each holds all processed entries
+final class BiotoolsState {
+
+	private static final int OTHER_INDEXES_SIZE = 2;
+
+	private final List<Tool> biotools;
+
+	private final long generation;
+
+	private final String defaultIndexKey;
+
+	private final BiotoolsIndex defaultIndex;
+
+	private final Map<String, CompletableFuture<BiotoolsIndex>> otherIndexes = new LinkedHashMap<String, CompletableFuture<BiotoolsIndex>>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<BiotoolsIndex>> eldest) {
+			return size() > OTHER_INDEXES_SIZE;
+		}
+	};
+
+	BiotoolsState(List<Tool> biotools, long generation, PreProcessorArgs defaultArgs) {
+		this.biotools = biotools;
+		this.generation = generation;
+		this.defaultIndexKey = CachingPreProcessor.argsKey(defaultArgs);
+		this.defaultIndex = buildIndex(defaultArgs);
+	}
+
+	private BiotoolsIndex buildIndex(PreProcessorArgs preProcessorArgs) {
+		return new BiotoolsIndex(biotools, new CachingPreProcessor(preProcessorArgs, Server.stopwordsAll.get(preProcessorArgs.getStopwords()), Server.preProcessorCache));
+	}
+
+	List<Tool> getBiotools() {
+		return biotools;
+	}
+
+	// increasing with each refresh of bio.tools content
+	long getGeneration() {
+		return generation;
+	}
+
+	BiotoolsIndex getIndex(PreProcessorArgs preProcessorArgs) {
+		String key = CachingPreProcessor.argsKey(preProcessorArgs);
+		if (key.equals(defaultIndexKey)) {
+			return defaultIndex;
+		}
+		CompletableFuture<BiotoolsIndex> index;
+		boolean build = false;
+		synchronized (otherIndexes) {
+			index = otherIndexes.get(key);
+			if (index == null) {
+				index = new CompletableFuture<>();
+				build = true;
+				otherIndexes.put(key, index);
+			}
+		}
+		if (build) {
+			try {
+				index.complete(buildIndex(preProcessorArgs));
+			} catch (RuntimeException | Error e) {
+				synchronized (otherIndexes) {
+					otherIndexes.remove(key, index);
+				}
+				index.completeExceptionally(e);
+				throw e;
+			}
+		}
+		return index.join();
+	}
+}
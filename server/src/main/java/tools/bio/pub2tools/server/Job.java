@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.server;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// request submitted through the job API, run later by JobQueue
+final class Job {
+
+	enum Status {
+		queued, running, done, failed
+	}
+
+	private final String id;
+
+	private final String key;
+
+	private final long submitted;
+
+	private volatile Status status = Status.queued;
+
+	private volatile long started = -1;
+
+	private volatile long finished = -1;
+
+	private volatile String result = null;
+
+	private volatile String error = null;
+
+	// ms spent in each stage of the request, in the order the stages were run
+	private final Map<String, Long> stageTimes = Collections.synchronizedMap(new LinkedHashMap<>());
+
+	Job(String id, String key) {
+		this.id = id;
+		this.key = key;
+		this.submitted = System.currentTimeMillis();
+	}
+
+	String getId() {
+		return id;
+	}
+
+	String getKey() {
+		return key;
+	}
+
+	Status getStatus() {
+		return status;
+	}
+
+	long getFinished() {
+		return finished;
+	}
+
+	String getResult() {
+		return result;
+	}
+
+	String getError() {
+		return error;
+	}
+
+	boolean isFinished() {
+		return status == Status.done || status == Status.failed;
+	}
+
+	void setRunning() {
+		started = System.currentTimeMillis();
+		status = Status.running;
+	}
+
+	void setDone(String result) {
+		this.result = result;
+		finished = System.currentTimeMillis();
+		status = Status.done;
+	}
+
+	void setFailed(String error) {
+		this.error = error;
+		finished = System.currentTimeMillis();
+		status = Status.failed;
+	}
+
+	void putStageTime(String stage, long time) {
+		stageTimes.put(stage, time);
+	}
+
+	Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("id", id);
+		map.put("status", status.name());
+		map.put("submitted", submitted);
+		map.put("started", started >= 0 ? started : null);
+		map.put("finished", finished >= 0 ? finished : null);
+		map.put("queueTime", started >= 0 ? started - submitted : System.currentTimeMillis() - submitted);
+		map.put("runTime", started >= 0 ? (finished >= 0 ? finished : System.currentTimeMillis()) - started : null);
+		synchronized (stageTimes) {
+			map.put("stageTimes", new LinkedHashMap<>(stageTimes));
+		}
+		map.put("error", error);
+		return map;
+	}
+}
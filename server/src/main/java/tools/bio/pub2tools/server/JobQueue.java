@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.server;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// jobs are run by jobThreads threads, at most queueCapacity jobs can wait for a free thread and further submissions are rejected
+// CPU-heavy stages of all requests (jobs and synchronous POSTs) are additionally limited to cpuThreads at a time,
+// so that jobs waiting on fetching don't need to be limited by the number of processors
+// submissions with the same key as a job not yet finished get that job instead of a new one
+final class JobQueue {
+
+	private static final Logger logger = LogManager.getLogger();
+
+	interface Work {
+		String run(Job job) throws Exception;
+	}
+
+	private final ThreadPoolExecutor executor;
+
+	private final int cpuThreads;
+
+	private final Semaphore cpu;
+
+	private final long keep;
+
+	private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+	private final Map<String, Job> inFlight = new HashMap<>();
+
+	// keep in ms
+	JobQueue(int jobThreads, int queueCapacity, int cpuThreads, long keep) {
+		this.executor = new ThreadPoolExecutor(jobThreads, jobThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity));
+		this.cpuThreads = cpuThreads;
+		this.cpu = new Semaphore(cpuThreads, true);
+		this.keep = keep;
+	}
+
+	// null if the queue is full
+	synchronized Job submit(String key, Work work) {
+		removeOld();
+		if (key != null) {
+			Job job = inFlight.get(key);
+			if (job != null) {
+				logger.info("Job {} already submitted, coalescing", job.getId());
+				return job;
+			}
+		}
+		Job job = new Job(UUID.randomUUID().toString(), key);
+		try {
+			executor.execute(() -> run(job, work));
+		} catch (RejectedExecutionException e) {
+			logger.warn("Job queue full ({} jobs waiting), rejecting job", executor.getQueue().size());
+			return null;
+		}
+		jobs.put(job.getId(), job);
+		if (key != null) {
+			inFlight.put(key, job);
+		}
+		logger.info("Submitted job {} ({} jobs waiting, {} running)", job.getId(), executor.getQueue().size(), executor.getActiveCount());
+		return job;
+	}
+
+	private void run(Job job, Work work) {
+		job.setRunning();
+		try {
+			job.setDone(work.run(job));
+			logger.info("Job {} done", job.getId());
+		} catch (Throwable e) {
+			logger.error("Job " + job.getId() + " failed", e);
+			job.setFailed(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+		} finally {
+			synchronized (this) {
+				if (job.getKey() != null && inFlight.get(job.getKey()) == job) {
+					inFlight.remove(job.getKey());
+				}
+			}
+		}
+	}
+
+	private void removeOld() {
+		long now = System.currentTimeMillis();
+		for (Iterator<Job> it = jobs.values().iterator(); it.hasNext(); ) {
+			Job job = it.next();
+			if (job.isFinished() && now - job.getFinished() > keep) {
+				it.remove();
+			}
+		}
+	}
+
+	Job get(String id) {
+		return jobs.get(id);
+	}
+
+	void acquireCpu() throws IOException {
+		try {
+			cpu.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for a CPU stage slot", e);
+		}
+	}
+
+	void releaseCpu() {
+		cpu.release();
+	}
+
+	Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("queueDepth", executor.getQueue().size());
+		map.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+		map.put("running", executor.getActiveCount());
+		map.put("jobThreads", executor.getMaximumPoolSize());
+		map.put("cpuThreads", cpuThreads);
+		map.put("cpuStagesRunning", cpuThreads - cpu.availablePermits());
+		map.put("cpuStagesWaiting", cpu.getQueueLength());
+		map.put("jobs", jobs.size());
+		return map;
+	}
+}
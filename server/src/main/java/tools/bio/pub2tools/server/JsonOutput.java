@@ -28,6 +28,7 @@ import java.util.Map;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.edamontology.pubfetcher.core.common.Version;
 import org.edamontology.pubfetcher.core.db.publication.Publication;
@@ -158,4 +159,27 @@ public class JsonOutput {
 		generator.close();
 		return writer.toString();
 	}
+
+	// a response from ResponseCache with the fields specific to a request (the uuid, the locations in jsonFields and the time) replaced by the ones of the current request
+	public static String outputCached(String response, String responseUuid, String uuid, Map<String, String> jsonFields, long start, long stop) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		ObjectNode output = (ObjectNode) mapper.readTree(response.replace(responseUuid, uuid));
+		for (Map.Entry<String, String> jsonField : jsonFields.entrySet()) {
+			output.put(jsonField.getKey(), jsonField.getValue());
+		}
+
+		StringWriter timeWriter = new StringWriter();
+		JsonGenerator timeGenerator = Json.createGenerator(timeWriter, null, mapper);
+		timeGenerator.writeStartObject();
+		Json.writeTime(timeGenerator, start, stop);
+		timeGenerator.writeEndObject();
+		timeGenerator.close();
+		output.setAll((ObjectNode) mapper.readTree(timeWriter.toString()));
+
+		StringWriter writer = new StringWriter();
+		JsonGenerator generator = Json.createGenerator(writer, null, mapper);
+		generator.writeTree(output);
+		generator.close();
+		return writer.toString();
+	}
 }
@@ -36,8 +36,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
@@ -50,9 +53,11 @@ import org.apache.logging.log4j.Logger;
 import org.glassfish.grizzly.http.server.Request;
 import org.glassfish.grizzly.http.util.Header;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.edamontology.pubfetcher.core.common.FetcherPrivateArgs;
 import org.edamontology.pubfetcher.core.common.IllegalRequestException;
-import org.edamontology.pubfetcher.core.common.PubFetcher;
 import org.edamontology.pubfetcher.core.db.DatabaseEntryType;
 import org.edamontology.pubfetcher.core.db.publication.Publication;
 
@@ -66,18 +71,19 @@ import org.edamontology.edammap.core.input.json.Tool;
 import org.edamontology.edammap.core.output.DatabaseEntryEntry;
 import org.edamontology.edammap.core.output.Json;
 import org.edamontology.edammap.core.output.JsonType;
-import org.edamontology.edammap.core.output.Output;
 import org.edamontology.edammap.core.preprocessing.PreProcessor;
 import org.edamontology.edammap.core.processing.ConceptProcessed;
 import org.edamontology.edammap.core.processing.Processor;
 import org.edamontology.edammap.core.processing.QueryProcessed;
 import org.edamontology.edammap.core.query.Query;
-import org.edamontology.edammap.core.query.QueryType;
 import org.edamontology.edammap.server.ParamParse;
 import org.edamontology.edammap.server.ServerPrivateArgsBase;
 
+import tools.bio.pub2tools.core.BiotoolsIndex;
+import tools.bio.pub2tools.core.CachingPreProcessor;
 import tools.bio.pub2tools.core.Common;
 import tools.bio.pub2tools.core.Pass1;
+import tools.bio.pub2tools.core.Pass1Output;
 import tools.bio.pub2tools.core.Pass2;
 
 @Path("/")
@@ -103,12 +109,111 @@ public class Resource extends org.edamontology.edammap.server.ResourceBase {
 		return Response.ok(responseText).header(Header.ContentLength.toString(), responseText.getBytes().length).build();
 	}
 
-	@SuppressWarnings({ "deprecation", "unchecked" })
+	private static Response jsonResponse(Response.Status status, Object value) throws JsonProcessingException {
+		String responseText = new ObjectMapper().writeValueAsString(value);
+		return Response.status(status).entity(responseText).header(Header.ContentLength.toString(), responseText.getBytes(StandardCharsets.UTF_8).length).build();
+	}
+
+	private static Map<String, Object> jobMap(Job job, URI baseLocation) throws URISyntaxException {
+		Map<String, Object> map = job.toMap();
+		map.put("location", new URI(baseLocation.getScheme(), null, baseLocation.getHost(), baseLocation.getPort(), Server.args.getServerPrivateArgs().getPath() + "/api/job/" + job.getId(), null, null).toString());
+		return map;
+	}
+
+	// same input as a POST to the API, but the response is returned at once with the ID of a job running the request
+	@POST
+	@Path("api/job")
+	@Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+	@Produces(MediaType.APPLICATION_JSON + ";charset=utf-8")
+	public Response submitJob(MultivaluedMap<String, String> params, @Context Request request) throws URISyntaxException, JsonProcessingException {
+		logger.info("POST job {} from {}", params, request.getRemoteAddr());
+		URI baseLocation = baseLocation(request);
+		String inputKey = ResponseCache.inputKey(params, null);
+		Job job = Server.jobs.submit(inputKey != null ? Server.biotools.getGeneration() + inputKey : null, j -> run(params, null, baseLocation, j));
+		if (job == null) {
+			Map<String, Object> map = Server.jobs.toMap();
+			map.put("error", "Job queue is full, try again later");
+			return jsonResponse(Response.Status.SERVICE_UNAVAILABLE, map);
+		}
+		Map<String, Object> map = jobMap(job, baseLocation);
+		map.putAll(Server.jobs.toMap());
+		return jsonResponse(Response.Status.ACCEPTED, map);
+	}
+
+	@GET
+	@Path("api/job")
+	@Produces(MediaType.APPLICATION_JSON + ";charset=utf-8")
+	public Response getJobs() throws JsonProcessingException {
+		return jsonResponse(Response.Status.OK, Server.jobs.toMap());
+	}
+
+	@GET
+	@Path("api/job/{id}")
+	@Produces(MediaType.APPLICATION_JSON + ";charset=utf-8")
+	public Response getJob(@PathParam("id") String id, @Context Request request) throws URISyntaxException, JsonProcessingException {
+		Job job = Server.jobs.get(id);
+		if (job == null) {
+			return jsonResponse(Response.Status.NOT_FOUND, Collections.singletonMap("error", "Job " + id + " not found"));
+		}
+		return jsonResponse(Response.Status.OK, jobMap(job, baseLocation(request)));
+	}
+
+	// the same JSON as a synchronous POST returns, once the job is done
+	@GET
+	@Path("api/job/{id}/result")
+	@Produces(MediaType.APPLICATION_JSON + ";charset=utf-8")
+	public Response getJobResult(@PathParam("id") String id, @Context Request request) throws URISyntaxException, JsonProcessingException {
+		Job job = Server.jobs.get(id);
+		if (job == null) {
+			return jsonResponse(Response.Status.NOT_FOUND, Collections.singletonMap("error", "Job " + id + " not found"));
+		}
+		switch (job.getStatus()) {
+			case done:
+				String responseText = job.getResult();
+				return Response.ok(responseText).header(Header.ContentLength.toString(), responseText.getBytes(StandardCharsets.UTF_8).length).build();
+			case failed:
+				return jsonResponse(Response.Status.INTERNAL_SERVER_ERROR, jobMap(job, baseLocation(request)));
+			default:
+				return jsonResponse(Response.Status.ACCEPTED, jobMap(job, baseLocation(request)));
+		}
+	}
+
+	private static URI baseLocation(Request request) throws URISyntaxException {
+		return new URI(Server.args.getServerPrivateArgs().isHttpsProxy() ? "https" : request.getScheme(), null, request.getServerName(), Server.args.getServerPrivateArgs().isHttpsProxy() ? 443 : request.getServerPort(), null, null, null);
+	}
+
+	// the fields specific to a request, also replaced in responses found in ResponseCache
+	private static Map<String, String> jsonFields(URI baseLocation, String jsonOutput, Step step) throws URISyntaxException {
+		URI apiLocation = new URI(baseLocation.getScheme(), null, baseLocation.getHost(), baseLocation.getPort(), Server.args.getServerPrivateArgs().getPath() + "/api", null, null);
+		URI jsonLocation = null;
+		if (jsonOutput != null) {
+			jsonLocation = new URI(baseLocation.getScheme(), null, baseLocation.getHost(), baseLocation.getPort(), Server.args.getServerPrivateArgs().getPath() + "/" + jsonOutput, null, null);
+		}
+
+		Map<String, String> jsonFields = new LinkedHashMap<>();
+		jsonFields.put("api", apiLocation.toString());
+		jsonFields.put("json", jsonLocation != null ? jsonLocation.toString() : null);
+		jsonFields.put("step", step.name());
+		return jsonFields;
+	}
+
+	// the time of a stage is only kept if the request is run as a job
+	private static void stageDone(Job job, String stage, long start) {
+		if (job != null) {
+			job.putStageTime(stage, System.currentTimeMillis() - start);
+		}
+	}
+
 	@Override
 	protected PostResult runPost(MultivaluedMap<String, String> params, Tool tool, Request request, boolean isJson) throws IOException, URISyntaxException, ParseException {
-		isJson = true;
-
 		logger.info("POST {} from {}", params, request.getRemoteAddr());
+		return new PostResult(run(params, tool, baseLocation(request), null), null);
+	}
+
+	// nothing from request must be used here, as jobs are run after the request submitting them has been responded to
+	@SuppressWarnings({ "deprecation", "unchecked" })
+	private String run(MultivaluedMap<String, String> params, Tool tool, URI baseLocation, Job job) throws IOException, URISyntaxException, ParseException {
+		boolean isJson = true;
 
 		long start = System.currentTimeMillis();
 		Instant startInstant = Instant.ofEpochMilli(start);
@@ -138,8 +243,30 @@ public class Resource extends org.edamontology.edammap.server.ResourceBase {
 			throw new IllegalRequestException("Input must be specified in \"tool\" for step \"map\"");
 		}
 
+		BiotoolsState biotoolsState = Server.biotools;
+
+		String responseKey = ResponseCache.key(ResponseCache.inputKey(params, tool), step, biotoolsState.getGeneration());
+		ResponseCache.Entry responseCached = null;
+		if (responseKey != null) {
+			responseCached = Server.responseCache.get(responseKey);
+		}
+
 		String uuidDirPrefix = Server.args.getServerPrivateArgs().getFiles() + "/";
 		String uuid = getUuid("-" + step.name(), uuidDirPrefix, Server.version, startInstant);
+
+		if (responseCached != null) {
+			logger.info("Response found in cache");
+			Server.responseCache.logCounts(logger);
+			String jsonOutput = uuid + "/results.json";
+			Map<String, String> jsonFields = jsonFields(baseLocation, jsonOutput, step);
+			String jsonString = JsonOutput.outputCached(responseCached.getResponse(), responseCached.getUuid(), uuid, jsonFields, start, System.currentTimeMillis());
+			try (BufferedWriter bw = Files.newBufferedWriter(Paths.get(uuidDirPrefix + jsonOutput), StandardCharsets.UTF_8)) {
+				bw.write(jsonString);
+			}
+			logger.info("POSTED JSON {}", jsonFields.get("json"));
+			return jsonString;
+		}
+
 		boolean toolMissingId = false;
 		if (serverInput != null) {
 			serverInput.setId(uuid);
@@ -151,14 +278,14 @@ public class Resource extends org.edamontology.edammap.server.ResourceBase {
 		if (isJson) {
 			jsonOutput = uuid + "/results.json";
 		}
-		java.nio.file.Path outputPath = Paths.get(uuidDirPrefix + uuid);
 
 		Query query = null;
 		Tool toolOut = null;
 		if (step == Step.withoutmap || step == Step.all) {
 			boolean stemming = coreArgs.getPreProcessorArgs().isStemming();
 			coreArgs.getPreProcessorArgs().setStemming(false);
-			PreProcessor preProcessorPass = new PreProcessor(coreArgs.getPreProcessorArgs(), Server.stopwordsAll.get(coreArgs.getPreProcessorArgs().getStopwords()));
+			PreProcessor preProcessorPass = new CachingPreProcessor(coreArgs.getPreProcessorArgs(), Server.stopwordsAll.get(coreArgs.getPreProcessorArgs().getStopwords()), Server.preProcessorCache);
+			BiotoolsIndex biotoolsIndex = biotoolsState.getIndex(coreArgs.getPreProcessorArgs());
 			coreArgs.getPreProcessorArgs().setStemming(stemming);
 
 			query = getQuery(serverInput, tool, toolMissingId, false, false);
@@ -180,17 +307,22 @@ public class Resource extends org.edamontology.edammap.server.ResourceBase {
 			List<DatabaseEntryEntry> databaseEntries = Server.processor.getDatabaseEntries(ids, coreArgs.getFetcherArgs(), Server.args.getServerPrivateArgs().getFetchingThreads());
 			List<Publication> publications = databaseEntries.stream().map(e -> (Publication) e.getEntry()).collect(Collectors.toList());
 			logger.info("Fetching {} publications took {}s", ids.size(), (System.currentTimeMillis() - startPublications) / 1000.0);
+			stageDone(job, "fetchPublications", startPublications);
 
 			logger.info("Running pass1");
 			long startPass1 = System.currentTimeMillis();
-			Pass1.run(outputPath, preProcessorPass, "", Server.idf, publications, query.getName(), webpageUrls);
+			Pass1Output pass1Output;
+			Server.jobs.acquireCpu();
+			try {
+				pass1Output = Pass1.run(preProcessorPass, "", Server.idf, publications, query.getName(), webpageUrls);
+			} finally {
+				Server.jobs.releaseCpu();
+			}
 			logger.info("Running pass1 took {}s", (System.currentTimeMillis() - startPass1) / 1000.0);
+			stageDone(job, "pass1", startPass1);
 
-			String webFile = outputPath.resolve(Common.WEB_FILE).toString();
-			String docFile = outputPath.resolve(Common.DOC_FILE).toString();
-
-			List<String> webUrls = PubFetcher.webFile(Collections.singletonList(webFile));
-			logger.info("Loaded {} webpage URLs from {}", webUrls.size(), webFile);
+			List<String> webUrls = pass1Output.getWebpageUrls();
+			logger.info("Got {} webpage URLs from pass1", webUrls.size());
 			List<DatabaseEntryId> idsWeb = new ArrayList<>();
 			for (Object id : new LinkedHashSet<>(webUrls)) {
 				idsWeb.add(new DatabaseEntryId(id, DatabaseEntryType.webpage));
@@ -199,9 +331,10 @@ public class Resource extends org.edamontology.edammap.server.ResourceBase {
 			long startWebpages = System.currentTimeMillis();
 			Server.processor.getDatabaseEntries(idsWeb, coreArgs.getFetcherArgs(), Server.args.getServerPrivateArgs().getFetchingThreads());
 			logger.info("Fetching {} webpages took {}s", idsWeb.size(), (System.currentTimeMillis() - startWebpages) / 1000.0);
+			stageDone(job, "fetchWebpages", startWebpages);
 
-			List<String> docUrls = PubFetcher.webFile(Collections.singletonList(docFile));
-			logger.info("Loaded {} doc URLs from {}", docUrls.size(), docFile);
+			List<String> docUrls = pass1Output.getDocUrls();
+			logger.info("Got {} doc URLs from pass1", docUrls.size());
 			List<DatabaseEntryId> idsDoc = new ArrayList<>();
 			for (Object id : new LinkedHashSet<>(docUrls)) {
 				idsDoc.add(new DatabaseEntryId(id, DatabaseEntryType.doc));
@@ -210,11 +343,20 @@ public class Resource extends org.edamontology.edammap.server.ResourceBase {
 			long startDocs = System.currentTimeMillis();
 			Server.processor.getDatabaseEntries(idsDoc, coreArgs.getFetcherArgs(), Server.args.getServerPrivateArgs().getFetchingThreads());
 			logger.info("Fetching {} docs took {}s", idsDoc.size(), (System.currentTimeMillis() - startDocs) / 1000.0);
+			stageDone(job, "fetchDocs", startDocs);
 
 			logger.info("Running pass2");
 			long startPass2 = System.currentTimeMillis();
-			List<Tool> tools = Pass2.run(outputPath, preProcessorPass, coreArgs.getFetcherArgs(), "", Server.idf, Server.biotools, Server.processor.getDatabase(), true, publications, query.getName(), webpageUrls);
+			List<Tool> tools;
+			Server.jobs.acquireCpu();
+			try {
+				tools = Pass2.run(null, preProcessorPass, coreArgs.getFetcherArgs(), "", Server.idf, null, biotoolsIndex, Server.processor.getDatabase(), pass1Output.getResults(), true, publications, query.getName(), webpageUrls);
+			} finally {
+				Server.jobs.releaseCpu();
+			}
 			logger.info("Running pass2 took {}s", (System.currentTimeMillis() - startPass2) / 1000.0);
+			stageDone(job, "pass2", startPass2);
+			Server.preProcessorCache.logCounts("");
 
 			if (tools.isEmpty()) {
 				toolOut = new Tool();
@@ -255,32 +397,29 @@ public class Resource extends org.edamontology.edammap.server.ResourceBase {
 		QueryProcessed processedQuery = null;
 		Results results = null;
 		if (step == Step.map || step == Step.all) {
-			boolean homepageMissing = (toolOut.getOthers().containsKey(Pass2.TOOL_STATUS) ? (Boolean) ((Map<String, Object>) toolOut.getOthers().get(Pass2.TOOL_STATUS)).get("homepageMissing") : false);
-			queryMap = getQuery(null, toolOut, toolMissingId, Common.isHomepageDoc(toolOut.getHomepage()), homepageMissing);
-			PreProcessor preProcessorMap = new PreProcessor(coreArgs.getPreProcessorArgs(), Server.stopwordsAll.get(coreArgs.getPreProcessorArgs().getStopwords()));
-			Map<EdamUri, ConceptProcessed> processedConcepts = getProcessedConcepts(coreArgs, preProcessorMap);
-			if (step == Step.all) {
-				Integer retryLimit = coreArgs.getFetcherArgs().getRetryLimit();
-				coreArgs.getFetcherArgs().setRetryLimit(0);
-				processedQuery = getProcessedQuery(coreArgs, Server.idf, Server.idfStemmed, queryMap, preProcessorMap);
-				coreArgs.getFetcherArgs().setRetryLimit(retryLimit);
-			} else {
-				processedQuery = getProcessedQuery(coreArgs, Server.idf, Server.idfStemmed, queryMap, preProcessorMap);
+			long startMap = System.currentTimeMillis();
+			Server.jobs.acquireCpu();
+			try {
+				boolean homepageMissing = (toolOut.getOthers().containsKey(Pass2.TOOL_STATUS) ? (Boolean) ((Map<String, Object>) toolOut.getOthers().get(Pass2.TOOL_STATUS)).get("homepageMissing") : false);
+				queryMap = getQuery(null, toolOut, toolMissingId, Common.isHomepageDoc(toolOut.getHomepage()), homepageMissing);
+				PreProcessor preProcessorMap = new PreProcessor(coreArgs.getPreProcessorArgs(), Server.stopwordsAll.get(coreArgs.getPreProcessorArgs().getStopwords()));
+				Map<EdamUri, ConceptProcessed> processedConcepts = getProcessedConcepts(coreArgs, preProcessorMap);
+				if (step == Step.all) {
+					Integer retryLimit = coreArgs.getFetcherArgs().getRetryLimit();
+					coreArgs.getFetcherArgs().setRetryLimit(0);
+					processedQuery = getProcessedQuery(coreArgs, Server.idf, Server.idfStemmed, queryMap, preProcessorMap);
+					coreArgs.getFetcherArgs().setRetryLimit(retryLimit);
+				} else {
+					processedQuery = getProcessedQuery(coreArgs, Server.idf, Server.idfStemmed, queryMap, preProcessorMap);
+				}
+				results = getResults(processedConcepts, queryMap, Collections.singletonList(queryMap), processedQuery, coreArgs, Server.edamBlacklist);
+			} finally {
+				Server.jobs.releaseCpu();
 			}
-			results = getResults(processedConcepts, queryMap, Collections.singletonList(queryMap), processedQuery, coreArgs, Server.edamBlacklist);
-		}
-
-		URI baseLocation = new URI(Server.args.getServerPrivateArgs().isHttpsProxy() ? "https" : request.getScheme(), null, request.getServerName(), Server.args.getServerPrivateArgs().isHttpsProxy() ? 443 : request.getServerPort(), null, null, null);
-		URI apiLocation = new URI(baseLocation.getScheme(), null, baseLocation.getHost(), baseLocation.getPort(), Server.args.getServerPrivateArgs().getPath() + "/api", null, null);
-		URI jsonLocation = null;
-		if (jsonOutput != null) {
-			jsonLocation = new URI(baseLocation.getScheme(), null, baseLocation.getHost(), baseLocation.getPort(), Server.args.getServerPrivateArgs().getPath() + "/" + jsonOutput, null, null);
+			stageDone(job, "map", startMap);
 		}
 
-		Map<String, String> jsonFields = new LinkedHashMap<>();
-		jsonFields.put("api", apiLocation.toString());
-		jsonFields.put("json", jsonLocation != null ? jsonLocation.toString() : null);
-		jsonFields.put("step", step.name());
+		Map<String, String> jsonFields = jsonFields(baseLocation, jsonOutput, step);
 
 		long stop = System.currentTimeMillis();
 		logger.info("Stop: {}", Instant.ofEpochMilli(stop));
@@ -288,13 +427,6 @@ public class Resource extends org.edamontology.edammap.server.ResourceBase {
 
 		logger.info("Outputting results");
 
-		if (step == Step.map || step == Step.all) {
-			Output output = new Output(null, null, outputPath.resolve(Common.MAP_JSON_FILE).toString(), null, QueryType.biotools, true);
-			output.output(coreArgs, Server.getArgsMain(false), null, null, 1, 1, Server.concepts,
-					Collections.singletonList(queryMap), Collections.singletonList(processedQuery.getWebpages()), Collections.singletonList(processedQuery.getDocs()), Collections.singletonList(processedQuery.getPublications()),
-					results, null, start, stop, Server.version, jsonVersion, false);
-		}
-
 		JsonType jsonType = JsonType.core;
 		Enum<?> valueEnum;
 		if ((valueEnum = ParamParse.getParamEnum(params, Json.TYPE_ID, JsonType.class, isJson)) != null) {
@@ -310,10 +442,15 @@ public class Resource extends org.edamontology.edammap.server.ResourceBase {
 		}
 
 		if (isJson) {
-			logger.info("POSTED JSON {}", jsonLocation);
+			logger.info("POSTED JSON {}", jsonFields.get("json"));
+		}
+
+		if (responseKey != null) {
+			Server.responseCache.put(responseKey, jsonString, uuid);
+			Server.responseCache.logCounts(logger);
 		}
 
-		return new PostResult(jsonString, null);
+		return jsonString;
 	}
 
 	@Override
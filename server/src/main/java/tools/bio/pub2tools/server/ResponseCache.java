@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2023 Erik Jaaniso
+ *
+ * This file is part of Pub2Tools.
+ *
+ * Pub2Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Pub2Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Pub2Tools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package tools.bio.pub2tools.server;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import jakarta.ws.rs.core.MultivaluedMap;
+
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.edamontology.edammap.core.input.json.Tool;
+
+// bounded cache of POST responses, where least recently used entries are dropped first and entries older than ttl are not used
+// keys are made of the request parameters (sorted by name, but with values in given order), the input tool and the generation of bio.tools content, so entries made before a refresh of bio.tools are never hit
+// the uuid of the request is stored with the response, so that it can be replaced along with the other fields specific to a request on a hit
+final class ResponseCache {
+
+	private static final char SEPARATOR = '\u0000';
+
+	private final int size;
+
+	private final long ttl;
+
+	private final Map<String, Entry> entries;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	static final class Entry {
+		private final String response;
+		private final String uuid;
+		private final long time;
+
+		private Entry(String response, String uuid, long time) {
+			this.response = response;
+			this.uuid = uuid;
+			this.time = time;
+		}
+
+		String getResponse() {
+			return response;
+		}
+
+		String getUuid() {
+			return uuid;
+		}
+	}
+
+	// ttl in ms
+	ResponseCache(int size, long ttl) {
+		this.size = size;
+		this.ttl = ttl;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > ResponseCache.this.size) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	// null if inputKey is null
+	static String key(String inputKey, Step step, long biotoolsGeneration) {
+		if (inputKey == null) {
+			return null;
+		}
+		return biotoolsGeneration + String.valueOf(SEPARATOR) + step.name() + SEPARATOR + inputKey;
+	}
+
+	// null if the tool can't be serialised, in which case the request is not cached
+	static String inputKey(MultivaluedMap<String, String> params, Tool tool) {
+		StringBuilder key = new StringBuilder();
+		for (Map.Entry<String, List<String>> param : new TreeMap<>(params).entrySet()) {
+			key.append(SEPARATOR).append(param.getKey()).append('=');
+			key.append(param.getValue().stream().map(v -> v != null ? v.trim() : "").collect(Collectors.joining(String.valueOf(SEPARATOR))));
+		}
+		if (tool != null) {
+			try {
+				key.append(SEPARATOR).append(new ObjectMapper().writeValueAsString(tool));
+			} catch (JsonProcessingException e) {
+				return null;
+			}
+		}
+		return key.toString();
+	}
+
+	synchronized Entry get(String key) {
+		Entry entry = entries.get(key);
+		if (entry != null && System.currentTimeMillis() - entry.time > ttl) {
+			entries.remove(key);
+			evictions.incrementAndGet();
+			entry = null;
+		}
+		if (entry != null) {
+			hits.incrementAndGet();
+			return entry;
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+
+	synchronized void put(String key, String response, String uuid) {
+		if (size > 0) {
+			entries.put(key, new Entry(response, uuid, System.currentTimeMillis()));
+		}
+	}
+
+	// called when new bio.tools content is swapped in, as entries of the previous content can't be hit anymore
+	synchronized void clear() {
+		evictions.addAndGet(entries.size());
+		entries.clear();
+	}
+
+	synchronized int size() {
+		return entries.size();
+	}
+
+	long getHits() {
+		return hits.get();
+	}
+
+	long getMisses() {
+		return misses.get();
+	}
+
+	long getEvictions() {
+		return evictions.get();
+	}
+
+	void logCounts(Logger logger) {
+		long hitsCount = hits.get();
+		long missesCount = misses.get();
+		logger.info("Response cache: {} hits, {} misses ({}% hits), {} evictions, {} entries", hitsCount, missesCount,
+			hitsCount + missesCount > 0 ? Math.round(hitsCount * 100.0 / (hitsCount + missesCount)) : 0, evictions.get(), size());
+	}
+}
@@ -50,16 +50,27 @@ import org.edamontology.edammap.core.input.BiotoolsFull;
 import org.edamontology.edammap.core.input.Json;
 import org.edamontology.edammap.core.input.json.Tool;
 import org.edamontology.edammap.core.preprocessing.PreProcessor;
+import org.edamontology.edammap.core.preprocessing.PreProcessorArgs;
 import org.edamontology.edammap.core.preprocessing.Stopwords;
 import org.edamontology.edammap.core.processing.Processor;
 import org.edamontology.edammap.core.query.QueryType;
 
+import tools.bio.pub2tools.core.BiotoolsSnapshot;
+import tools.bio.pub2tools.core.PreProcessorCache;
+
 public final class Server {
 
 	private static final int BIOTOOLS_FILE_TIMEOUT = 30000; // ms
 	private static final int BIOTOOLS_FILE_INITIAL_DELAY = 1; // h
 	private static final int BIOTOOLS_FILE_DELAY = 23; // h
 
+	private static final int PREPROCESSOR_CACHE_SIZE = 200000;
+
+	private static final int RESPONSE_CACHE_SIZE = 1000;
+	private static final int RESPONSE_CACHE_TTL = 60; // min
+
+	private static final int JOB_KEEP = 60; // min
+
 	private static Logger logger;
 
 	static Version version;
@@ -77,7 +88,17 @@ public final class Server {
 
 	static Map<EdamUri, Concept> concepts;
 
-	static List<Tool> biotools;
+	static volatile BiotoolsState biotools;
+
+	// shared by all requests, so that bio.tools names, etc are not preprocessed again for each request
+	static final PreProcessorCache preProcessorCache = new PreProcessorCache(PREPROCESSOR_CACHE_SIZE);
+
+	// repeated requests with the same input are answered from here, until bio.tools content is refreshed
+	static final ResponseCache responseCache = new ResponseCache(RESPONSE_CACHE_SIZE, TimeUnit.MINUTES.toMillis(RESPONSE_CACHE_TTL));
+
+	private static long biotoolsGeneration = 0;
+
+	static JobQueue jobs;
 
 	static List<ArgMain> getArgsMain(boolean input) {
 		List<ArgMain> argsMain = new ArrayList<>();
@@ -95,6 +116,23 @@ public final class Server {
 		logger.info("Got {} bio.tools entries to {}", count, path);
 	}
 
+	// entries loaded back from the written snapshot contain only the fields used by Pass2, so less memory is kept in use between refreshes
+	private static List<Tool> snapshotBiotools(List<Tool> biotools, Path biotoolsPath) throws IOException {
+		BiotoolsSnapshot.write(biotools, biotoolsPath, "");
+		List<Tool> biotoolsSnapshot = BiotoolsSnapshot.load(biotoolsPath);
+		return biotoolsSnapshot != null ? biotoolsSnapshot : biotools;
+	}
+
+	// the index for default args is built before the new state is swapped in, so requests are not slowed down by a refresh
+	private static BiotoolsState newBiotoolsState(List<Tool> biotools) {
+		PreProcessorArgs preProcessorArgs = new PreProcessorArgs();
+		preProcessorArgs.setStemming(false);
+		long start = System.currentTimeMillis();
+		BiotoolsState biotoolsState = new BiotoolsState(biotools, ++biotoolsGeneration, preProcessorArgs);
+		logger.info("Processing {} bio.tools names and links took {}s", biotools.size(), (System.currentTimeMillis() - start) / 1000.0);
+		return biotoolsState;
+	}
+
 	@SuppressWarnings("unchecked")
 	private static void run() throws IOException, ParseException {
 		org.edamontology.edammap.server.Server.makeFiles(Server.class, version, args.getServerPrivateArgs(), false, logger);
@@ -103,6 +141,8 @@ public final class Server {
 			stopwordsAll.put(stopwords, PreProcessor.getStopwords(stopwords));
 		}
 
+		jobs = new JobQueue(args.getServerPrivateArgs().getJobThreads(), args.getServerPrivateArgs().getJobQueue(), args.getServerPrivateArgs().getCpuThreads(), TimeUnit.MINUTES.toMillis(JOB_KEEP));
+
 		edamBlacklist = Edam.getBlacklist();
 
 		if (!Files.isReadable(Paths.get(args.getProcessorArgs().getDb()))) {
@@ -127,7 +167,13 @@ public final class Server {
 		if (!Files.isReadable(Paths.get(args.getBiotools()))) {
 			getBiotools(args.getBiotools());
 		}
-		biotools = (List<Tool>) Json.load(args.getBiotools(), QueryType.biotools, 0, args.getFetcherPrivateArgs().getUserAgent());
+		List<Tool> biotoolsLoaded = BiotoolsSnapshot.load(Paths.get(args.getBiotools()));
+		if (biotoolsLoaded != null) {
+			logger.info("Loaded {} bio.tools entries from snapshot {}", biotoolsLoaded.size(), BiotoolsSnapshot.getPath(Paths.get(args.getBiotools())).toString());
+		} else {
+			biotoolsLoaded = snapshotBiotools((List<Tool>) Json.load(args.getBiotools(), QueryType.biotools, 0, args.getFetcherPrivateArgs().getUserAgent()), Paths.get(args.getBiotools()));
+		}
+		biotools = newBiotoolsState(biotoolsLoaded);
 
 		Executors.newSingleThreadScheduledExecutor().scheduleWithFixedDelay(new Runnable() {
 			@Override
@@ -137,8 +183,10 @@ public final class Server {
 					Path biotoolsPath = Paths.get(args.getBiotools());
 					tempFile = Files.createTempFile(biotoolsPath.getParent() != null ? biotoolsPath.getParent() : Paths.get("."), "biotools-", ".tmp");
 					getBiotools(tempFile.toString());
-					biotools = (List<Tool>) Json.load(tempFile.toString(), QueryType.biotools, 0, args.getFetcherPrivateArgs().getUserAgent());
+					List<Tool> biotoolsNew = (List<Tool>) Json.load(tempFile.toString(), QueryType.biotools, 0, args.getFetcherPrivateArgs().getUserAgent());
 					Files.copy(tempFile, biotoolsPath, StandardCopyOption.REPLACE_EXISTING);
+					biotools = newBiotoolsState(snapshotBiotools(biotoolsNew, biotoolsPath));
+					responseCache.clear();
 				} catch (Throwable e) {
 					logger.error("Exception!", e);
 				} finally {
@@ -20,6 +20,7 @@
 package tools.bio.pub2tools.server;
 
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.validators.PositiveInteger;
 
 import org.edamontology.edammap.server.ServerPrivateArgsBase;
 
@@ -33,10 +34,31 @@ public class ServerPrivateArgs extends ServerPrivateArgsBase {
 	@Parameter(names = { "-p", "--" + pathId }, description = pathDescription)
 	private String path = pathDefault;
 
+	private static final String jobThreadsId = "jobThreads";
+	private static final String jobThreadsDescription = "Number of requests submitted through the job API that are run at the same time";
+	private static final Integer jobThreadsDefault = 8;
+	@Parameter(names = { "--" + jobThreadsId }, validateWith = PositiveInteger.class, description = jobThreadsDescription)
+	private Integer jobThreads = jobThreadsDefault;
+
+	private static final String jobQueueId = "jobQueue";
+	private static final String jobQueueDescription = "Number of submitted jobs that can wait for a free job thread, further submissions are rejected until some jobs have started";
+	private static final Integer jobQueueDefault = 100;
+	@Parameter(names = { "--" + jobQueueId }, validateWith = PositiveInteger.class, description = jobQueueDescription)
+	private Integer jobQueue = jobQueueDefault;
+
+	private static final String cpuThreadsId = "cpuThreads";
+	private static final String cpuThreadsDescription = "Number of requests (submitted as jobs or not) that can be in a CPU-heavy stage (pass1, pass2, mapping) at the same time, while stages fetching content are not limited by this";
+	private static final Integer cpuThreadsDefault = Runtime.getRuntime().availableProcessors();
+	@Parameter(names = { "--" + cpuThreadsId }, validateWith = PositiveInteger.class, description = cpuThreadsDescription)
+	private Integer cpuThreads = cpuThreadsDefault;
+
 	@Override
 	protected void addArgs() {
 		super.addArgs();
 		args.add(new Arg<>(this::getPath, null, pathDefault, pathId, "", pathDescription, null));
+		args.add(new Arg<>(this::getJobThreads, null, jobThreadsDefault, jobThreadsId, "", jobThreadsDescription, null));
+		args.add(new Arg<>(this::getJobQueue, null, jobQueueDefault, jobQueueId, "", jobQueueDescription, null));
+		args.add(new Arg<>(this::getCpuThreads, null, cpuThreadsDefault, cpuThreadsId, "", cpuThreadsDescription, null));
 	}
 
 	@Override
@@ -47,4 +69,16 @@ public class ServerPrivateArgs extends ServerPrivateArgsBase {
 	public String getPath() {
 		return path;
 	}
+
+	public Integer getJobThreads() {
+		return jobThreads;
+	}
+
+	public Integer getJobQueue() {
+		return jobQueue;
+	}
+
+	public Integer getCpuThreads() {
+		return cpuThreads;
+	}
 }